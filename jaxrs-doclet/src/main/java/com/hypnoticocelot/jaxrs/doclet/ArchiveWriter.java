@@ -0,0 +1,225 @@
+package com.hypnoticocelot.jaxrs.doclet;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.*;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import static com.google.common.base.Charsets.ISO_8859_1;
+import static com.google.common.base.Charsets.UTF_8;
+
+/**
+ * Writes files into a zip archive instead of a directory. The entries of another zip, such as swagger-ui, are copied
+ * with their compressed data as they are, without inflating and deflating them again. The archive is written to a
+ * temporary file next to it and renamed into place on {@link #close()}.
+ * <p/>
+ * Zip64 is not supported, so an archive is limited to 65535 entries and 4 GB.
+ */
+public class ArchiveWriter implements Closeable {
+
+    private static final int LOCAL_HEADER = 0x04034b50;
+    private static final int CENTRAL_HEADER = 0x02014b50;
+    private static final int END_OF_CENTRAL_DIRECTORY = 0x06054b50;
+    private static final int STORED = 0;
+    private static final int DEFLATED = 8;
+    private static final int FLAG_UTF8 = 0x0800;
+    private static final int FLAG_ENCRYPTED = 0x0001;
+
+    private final File archive;
+    private final File baseDirectory;
+    private final int time;
+    private final List<Entry> entries = new ArrayList<Entry>();
+    private final Set<String> names = new HashSet<String>();
+    private File temporary;
+    private OutputStream stream;
+    private long offset;
+
+    /**
+     * @param baseDirectory the directory the names of the entries are relative to, may be null for relative files.
+     */
+    public ArchiveWriter(File archive, File baseDirectory) {
+        this.archive = archive;
+        this.baseDirectory = baseDirectory;
+        this.time = dosTime(new GregorianCalendar());
+    }
+
+    public File getArchive() {
+        return archive;
+    }
+
+    /**
+     * Adds the content of the file as a deflated entry.
+     */
+    public synchronized void add(File file, byte[] content) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(content);
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(content.length / 4 + 64);
+        try {
+            deflater.setInput(content);
+            deflater.finish();
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                compressed.write(buffer, 0, deflater.deflate(buffer));
+            }
+        } finally {
+            deflater.end();
+        }
+        byte[] data = compressed.toByteArray();
+        int method = DEFLATED;
+        if (data.length >= content.length) {
+            data = content;
+            method = STORED;
+        }
+        addEntry(new Entry(nameOf(file), FLAG_UTF8, method, time, (int) crc.getValue(), data.length, content.length),
+                data, 0);
+    }
+
+    /**
+     * Adds all entries of the zip below the given directory, keeping their compressed data.
+     */
+    public synchronized void addRaw(byte[] zip, File directory) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(zip).order(ByteOrder.LITTLE_ENDIAN);
+        int end = findEndOfCentralDirectory(buffer);
+        int count = buffer.getShort(end + 10) & 0xffff;
+        int position = buffer.getInt(end + 16);
+        String prefix = directory == null ? "" : nameOf(directory);
+        prefix = prefix.isEmpty() ? "" : prefix + "/";
+        for (int i = 0; i < count; i++) {
+            if (buffer.getInt(position) != CENTRAL_HEADER) {
+                throw new IOException("Corrupt zip: no central directory entry at " + position);
+            }
+            int flags = buffer.getShort(position + 8) & 0xffff;
+            int method = buffer.getShort(position + 10) & 0xffff;
+            int entryTime = buffer.getInt(position + 12);
+            int crc = buffer.getInt(position + 16);
+            int compressedSize = buffer.getInt(position + 20);
+            int size = buffer.getInt(position + 24);
+            int nameLength = buffer.getShort(position + 28) & 0xffff;
+            int extraLength = buffer.getShort(position + 30) & 0xffff;
+            int commentLength = buffer.getShort(position + 32) & 0xffff;
+            int localHeader = buffer.getInt(position + 42);
+            if ((flags & FLAG_ENCRYPTED) != 0) {
+                throw new IOException("Encrypted zip entries cannot be copied");
+            }
+            String name = new String(zip, position + 46, nameLength, (flags & FLAG_UTF8) != 0 ? UTF_8 : ISO_8859_1);
+            int data = localHeader + 30 + (buffer.getShort(localHeader + 26) & 0xffff)
+                    + (buffer.getShort(localHeader + 28) & 0xffff);
+            // the sizes are known, so the copy needs no data descriptor
+            addEntry(new Entry(prefix + name, FLAG_UTF8, method, entryTime, crc, compressedSize, size), zip, data);
+            position += 46 + nameLength + extraLength + commentLength;
+        }
+    }
+
+    /**
+     * Writes the central directory and moves the archive into place. Does nothing if nothing was added.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (stream == null) {
+            return;
+        }
+        long start = offset;
+        for (Entry entry : entries) {
+            ByteBuffer header = header(46, entry.name.length);
+            header.putInt(CENTRAL_HEADER).putShort((short) 20).putShort((short) 20)
+                    .putShort((short) entry.flags).putShort((short) entry.method).putInt(entry.time)
+                    .putInt(entry.crc).putInt(entry.compressedSize).putInt(entry.size)
+                    .putShort((short) entry.name.length).putShort((short) 0).putShort((short) 0)
+                    .putShort((short) 0).putShort((short) 0).putInt(0).putInt((int) entry.offset)
+                    .put(entry.name);
+            write(header.array(), 0, header.capacity());
+        }
+        long size = offset - start;
+        ByteBuffer end = header(22, 0);
+        end.putInt(END_OF_CENTRAL_DIRECTORY).putShort((short) 0).putShort((short) 0)
+                .putShort((short) entries.size()).putShort((short) entries.size())
+                .putInt((int) size).putInt((int) start).putShort((short) 0);
+        write(end.array(), 0, end.capacity());
+        stream.close();
+        stream = null;
+        FileRecorder.replace(temporary, archive);
+    }
+
+    private void addEntry(Entry entry, byte[] data, int dataOffset) throws IOException {
+        if (!names.add(new String(entry.name, UTF_8))) {
+            throw new IOException("Duplicate entry " + new String(entry.name, UTF_8) + " in " + archive);
+        }
+        if (entries.size() == 0xffff || offset + entry.compressedSize > 0xffffffffL) {
+            throw new IOException("Too many entries or too much data for " + archive);
+        }
+        if (stream == null) {
+            File directory = archive.getAbsoluteFile().getParentFile();
+            temporary = new File(directory, "." + archive.getName() + ".tmp");
+            stream = new BufferedOutputStream(new FileOutputStream(temporary), 64 * 1024);
+        }
+        entry.offset = offset;
+        ByteBuffer header = header(30, entry.name.length);
+        header.putInt(LOCAL_HEADER).putShort((short) 20).putShort((short) entry.flags)
+                .putShort((short) entry.method).putInt(entry.time).putInt(entry.crc)
+                .putInt(entry.compressedSize).putInt(entry.size)
+                .putShort((short) entry.name.length).putShort((short) 0)
+                .put(entry.name);
+        write(header.array(), 0, header.capacity());
+        write(data, dataOffset, entry.compressedSize);
+        entries.add(entry);
+    }
+
+    private void write(byte[] bytes, int start, int length) throws IOException {
+        stream.write(bytes, start, length);
+        offset += length;
+    }
+
+    private String nameOf(File file) {
+        String name;
+        if (baseDirectory == null || file.getPath().isEmpty()) {
+            name = file.getPath();
+        } else {
+            name = baseDirectory.getAbsoluteFile().toPath().relativize(file.getAbsoluteFile().toPath()).toString();
+        }
+        return name.replace(File.separatorChar, '/');
+    }
+
+    private static ByteBuffer header(int size, int nameLength) {
+        return ByteBuffer.allocate(size + nameLength).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static int findEndOfCentralDirectory(ByteBuffer buffer) throws IOException {
+        for (int position = buffer.capacity() - 22; position >= 0; position--) {
+            if (buffer.getInt(position) == END_OF_CENTRAL_DIRECTORY) {
+                return position;
+            }
+        }
+        throw new IOException("Corrupt zip: no end of central directory");
+    }
+
+    private static int dosTime(Calendar calendar) {
+        return (calendar.get(Calendar.YEAR) - 1980) << 25 | (calendar.get(Calendar.MONTH) + 1) << 21
+                | calendar.get(Calendar.DAY_OF_MONTH) << 16 | calendar.get(Calendar.HOUR_OF_DAY) << 11
+                | calendar.get(Calendar.MINUTE) << 5 | calendar.get(Calendar.SECOND) >> 1;
+    }
+
+    private static final class Entry {
+        private final byte[] name;
+        private final int flags;
+        private final int method;
+        private final int time;
+        private final int crc;
+        private final int compressedSize;
+        private final int size;
+        private long offset;
+
+        private Entry(String name, int flags, int method, int time, int crc, int compressedSize, int size) {
+            this.name = name.getBytes(UTF_8);
+            this.flags = flags;
+            this.method = method;
+            this.time = time;
+            this.crc = crc;
+            this.compressedSize = compressedSize;
+            this.size = size;
+        }
+    }
+
+}
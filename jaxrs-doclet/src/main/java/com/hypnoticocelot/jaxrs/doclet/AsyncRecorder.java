@@ -0,0 +1,124 @@
+package com.hypnoticocelot.jaxrs.doclet;
+
+import com.google.common.base.Throwables;
+import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.hypnoticocelot.jaxrs.doclet.model.ApiDeclaration;
+import com.hypnoticocelot.jaxrs.doclet.model.ResourceListing;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+import static com.google.common.util.concurrent.Uninterruptibles.getUninterruptibly;
+
+/**
+ * Hands the files to another recorder on a bounded pool of writer threads, so the latency of the individual writes
+ * overlaps. When the queue is full the calling thread writes the file itself. Streams are buffered before they are
+ * queued, since the caller may reuse them. Writes to the same file keep their order.
+ * <p/>
+ * {@link #flush()} waits until all queued files are written and fails with the first error of any of them.
+ */
+public class AsyncRecorder implements Recorder, Flushable {
+
+    private final Recorder delegate;
+    private final ThreadPoolExecutor executor;
+    private final Map<File, Future<?>> pending = new LinkedHashMap<File, Future<?>>();
+
+    public AsyncRecorder(Recorder delegate, int threads) {
+        this.delegate = delegate;
+        this.executor = new ThreadPoolExecutor(threads, threads, 1, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<Runnable>(threads * 4),
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat("jaxrs-doclet-writer-%d").build(),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    public Recorder getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public void record(final File file, final ResourceListing listing) throws IOException {
+        submit(file, new Callable<Void>() {
+            @Override
+            public Void call() throws IOException {
+                delegate.record(file, listing);
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public void record(final File file, final ApiDeclaration declaration) throws IOException {
+        submit(file, new Callable<Void>() {
+            @Override
+            public Void call() throws IOException {
+                delegate.record(file, declaration);
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public void record(final File file, InputStream stream) throws IOException {
+        final byte[] content = ByteStreams.toByteArray(stream);
+        submit(file, new Callable<Void>() {
+            @Override
+            public Void call() throws IOException {
+                delegate.record(file, new ByteArrayInputStream(content));
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public void flush() throws IOException {
+        List<Future<?>> writes;
+        synchronized (pending) {
+            writes = new ArrayList<Future<?>>(pending.values());
+            pending.clear();
+        }
+        Throwable failure = null;
+        for (Future<?> write : writes) {
+            try {
+                getUninterruptibly(write);
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause();
+                }
+            }
+        }
+        if (failure != null) {
+            Throwables.propagateIfPossible(failure, IOException.class);
+            throw new IOException(failure);
+        }
+    }
+
+    private void submit(File file, Callable<Void> write) throws IOException {
+        Future<?> previous;
+        synchronized (pending) {
+            previous = pending.remove(file);
+        }
+        if (previous != null) {
+            try {
+                getUninterruptibly(previous);
+            } catch (ExecutionException e) {
+                Throwables.propagateIfPossible(e.getCause(), IOException.class);
+                throw new IOException(e.getCause());
+            }
+        }
+        Future<?> future = executor.submit(write);
+        synchronized (pending) {
+            pending.put(file, future);
+        }
+    }
+
+}
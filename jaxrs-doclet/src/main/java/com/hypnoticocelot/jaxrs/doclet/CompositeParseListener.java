@@ -0,0 +1,66 @@
+package com.hypnoticocelot.jaxrs.doclet;
+
+import com.hypnoticocelot.jaxrs.doclet.doc.ClassDoc;
+import com.hypnoticocelot.jaxrs.doclet.doc.MethodDoc;
+import com.hypnoticocelot.jaxrs.doclet.doc.Parameter;
+import com.hypnoticocelot.jaxrs.doclet.model.ApiDeclaration;
+import com.hypnoticocelot.jaxrs.doclet.model.ApiParameter;
+import com.hypnoticocelot.jaxrs.doclet.model.Method;
+import com.hypnoticocelot.jaxrs.doclet.model.Model;
+import com.hypnoticocelot.jaxrs.doclet.model.ResourceListing;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Passes every event on to all registered listeners, in the order they were added.
+ */
+public class CompositeParseListener implements ParseListener {
+
+    private final List<ParseListener> listeners = new CopyOnWriteArrayList<ParseListener>();
+
+    public CompositeParseListener add(ParseListener listener) {
+        listeners.add(listener);
+        return this;
+    }
+
+    public List<ParseListener> getListeners() {
+        return listeners;
+    }
+
+    @Override
+    public void onParameter(MethodDoc methodDoc, Parameter parameter, ApiParameter apiParameter) {
+        for (ParseListener listener : listeners) {
+            listener.onParameter(methodDoc, parameter, apiParameter);
+        }
+    }
+
+    @Override
+    public void onOperation(MethodDoc methodDoc, Method method) {
+        for (ParseListener listener : listeners) {
+            listener.onOperation(methodDoc, method);
+        }
+    }
+
+    @Override
+    public void onModel(ClassDoc classDoc, Model model) {
+        for (ParseListener listener : listeners) {
+            listener.onModel(classDoc, model);
+        }
+    }
+
+    @Override
+    public void onResource(ClassDoc classDoc, ApiDeclaration declaration) {
+        for (ParseListener listener : listeners) {
+            listener.onResource(classDoc, declaration);
+        }
+    }
+
+    @Override
+    public void onComplete(ResourceListing listing) {
+        for (ParseListener listener : listeners) {
+            listener.onComplete(listing);
+        }
+    }
+
+}
@@ -1,13 +1,23 @@
 package com.hypnoticocelot.jaxrs.doclet;
 
+import com.google.common.base.Splitter;
+import com.google.common.collect.Iterables;
+import com.hypnoticocelot.jaxrs.doclet.parser.DocCache;
 import com.hypnoticocelot.jaxrs.doclet.translator.AnnotationAwareTranslator;
+import com.hypnoticocelot.jaxrs.doclet.translator.CachingTranslator;
 import com.hypnoticocelot.jaxrs.doclet.translator.FirstNotNullTranslator;
+import com.hypnoticocelot.jaxrs.doclet.translator.ModelIdAllocator;
 import com.hypnoticocelot.jaxrs.doclet.translator.NameBasedTranslator;
 import com.hypnoticocelot.jaxrs.doclet.translator.Translator;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.Arrays.asList;
@@ -15,19 +25,64 @@ import static java.util.Arrays.copyOfRange;
 
 public class DocletOptions {
     public static final String DEFAULT_SWAGGER_UI_ZIP_PATH = "n/a";
+    private static final Map<String, Integer> OPTIONS = new LinkedHashMap<String, Integer>();
+
+    static {
+        OPTIONS.put("-d", 2);
+        OPTIONS.put("-docBasePath", 2);
+        OPTIONS.put("-apiBasePath", 2);
+        OPTIONS.put("-apiVersion", 2);
+        OPTIONS.put("-swaggerUiZipPath", 2);
+        OPTIONS.put("-swaggerUiCacheDir", 2);
+        OPTIONS.put("-excludeAnnotationClasses", 2);
+        OPTIONS.put("-disableModels", 1);
+        OPTIONS.put("-errorTags", 2);
+        OPTIONS.put("-typesToTreatAsOpaque", 2);
+        OPTIONS.put("-parallelism", 2);
+        OPTIONS.put("-modelIdFile", 2);
+        OPTIONS.put("-commentIndex", 2);
+        OPTIONS.put("-incremental", 1);
+        OPTIONS.put("-writeIfChanged", 1);
+        OPTIONS.put("-streamingJson", 1);
+        OPTIONS.put("-compactJson", 1);
+        OPTIONS.put("-gzipJson", 1);
+        OPTIONS.put("-writerThreads", 2);
+        OPTIONS.put("-bundle", 1);
+        OPTIONS.put("-modelCatalog", 1);
+        OPTIONS.put("-modelCatalogInline", 1);
+        OPTIONS.put("-transactional", 1);
+        OPTIONS.put("-archive", 2);
+        OPTIONS.put("-partition", 2);
+    }
+
     private File outputDirectory;
     private String docBasePath = "http://localhost:8080";
     private String apiBasePath = "http://localhost:8080";
     private String swaggerUiZipPath = DEFAULT_SWAGGER_UI_ZIP_PATH;
+    private File swaggerUiCacheDirectory;
     private String apiVersion = "0";
     private List<String> typesToTreatAsOpaque;
     private List<String> errorTags;
     private List<String> excludeAnnotationClasses;
     private boolean parseModels = true;
+    private File modelIdFile;
+    private File commentIndex;
+    private boolean incremental;
+    private int writerThreads = 1;
+    private boolean bundle;
+    private boolean modelCatalog;
+    private boolean modelCatalogInline;
+    private boolean mergeExistingOutput = true;
+    private Set<String> partition;
+    private ModelIdAllocator modelIdAllocator = new ModelIdAllocator();
+    private final DocCache docCache;
     private Recorder recorder = new ObjectMapperRecorder();
     private Translator translator;
+    private final CompositeParseListener listener;
 
     public DocletOptions() {
+        docCache = new DocCache();
+        listener = new CompositeParseListener();
         excludeAnnotationClasses = new ArrayList<String>();
         excludeAnnotationClasses.add("javax.ws.rs.HeaderParam");
         excludeAnnotationClasses.add("javax.ws.rs.core.Context");
@@ -38,22 +93,82 @@ public class DocletOptions {
         typesToTreatAsOpaque.add("org.joda.time.DateTime");
         typesToTreatAsOpaque.add("java.util.UUID");
 		typesToTreatAsOpaque.add("java.util.Map");
-        translator = new FirstNotNullTranslator()
-                .addNext(new AnnotationAwareTranslator()
+        translator = new CachingTranslator(new FirstNotNullTranslator()
+                .addNext(new AnnotationAwareTranslator(modelIdAllocator, docCache)
                         .ignore("javax.xml.bind.annotation.XmlTransient")
                         .element("javax.xml.bind.annotation.XmlElement", "name")
                         .rootElement("javax.xml.bind.annotation.XmlRootElement", "name")
                 )
-                .addNext(new AnnotationAwareTranslator()
+                .addNext(new AnnotationAwareTranslator(modelIdAllocator, docCache)
                         .ignore("com.fasterxml.jackson.annotation.JsonIgnore")
                         .element("com.fasterxml.jackson.annotation.JsonProperty", "value")
                         .rootElement("com.fasterxml.jackson.annotation.JsonRootName", "value")
                 )
-                .addNext(new NameBasedTranslator());
+                .addNext(new NameBasedTranslator()));
+    }
+
+    /**
+     * Copies all settings. The copy has its own lists and listener registrations, but shares the recorder, the
+     * translator and the model id allocator, and so the model ids, with the given options.
+     */
+    private DocletOptions(DocletOptions options) {
+        outputDirectory = options.outputDirectory;
+        docBasePath = options.docBasePath;
+        apiBasePath = options.apiBasePath;
+        swaggerUiZipPath = options.swaggerUiZipPath;
+        swaggerUiCacheDirectory = options.swaggerUiCacheDirectory;
+        apiVersion = options.apiVersion;
+        typesToTreatAsOpaque = new ArrayList<String>(options.typesToTreatAsOpaque);
+        errorTags = new ArrayList<String>(options.errorTags);
+        excludeAnnotationClasses = new ArrayList<String>(options.excludeAnnotationClasses);
+        parseModels = options.parseModels;
+        modelIdFile = options.modelIdFile;
+        commentIndex = options.commentIndex;
+        incremental = options.incremental;
+        writerThreads = options.writerThreads;
+        bundle = options.bundle;
+        modelCatalog = options.modelCatalog;
+        modelCatalogInline = options.modelCatalogInline;
+        mergeExistingOutput = options.mergeExistingOutput;
+        partition = options.partition == null ? null : new LinkedHashSet<String>(options.partition);
+        modelIdAllocator = options.modelIdAllocator;
+        // the translator caches what it reads through the doc cache
+        docCache = options.docCache;
+        recorder = options.recorder;
+        translator = options.translator;
+        listener = new CompositeParseListener();
+        for (ParseListener parseListener : options.getListeners()) {
+            listener.add(parseListener);
+        }
+    }
+
+    /**
+     * @return the number of arguments of the option including its name, as javadoc asks the doclet for it, 0 if the
+     * option is unknown.
+     */
+    public static int optionLength(String option) {
+        Integer value = OPTIONS.get(option);
+        return value == null ? 0 : value;
+    }
+
+    /**
+     * @return the options with their lengths as returned by {@link #optionLength(String)}.
+     */
+    public static Map<String, Integer> optionLengths() {
+        return Collections.unmodifiableMap(OPTIONS);
     }
 
+    /**
+     * @param options the options grouped by their lengths, see {@link #optionLength(String)}.
+     */
     public static DocletOptions parse(String[][] options) {
         DocletOptions parsedOptions = new DocletOptions();
+        FileRecorder fileRecorder = new ObjectMapperRecorder();
+        boolean writeIfChanged = false;
+        boolean compactJson = false;
+        boolean gzipJson = false;
+        boolean transactional = false;
+        File archive = null;
         for (String[] option : options) {
             if (option[0].equals("-d")) {
                 parsedOptions.outputDirectory = new File(option[1]);
@@ -66,6 +181,8 @@ public class DocletOptions {
                 parsedOptions.apiVersion = option[1];
             } else if (option[0].equals("-swaggerUiZipPath")) {
                 parsedOptions.swaggerUiZipPath = option[1];
+            } else if (option[0].equals("-swaggerUiCacheDir")) {
+                parsedOptions.swaggerUiCacheDirectory = new File(option[1]);
             } else if (option[0].equals("-excludeAnnotationClasses")) {
                 parsedOptions.excludeAnnotationClasses.addAll(asList(copyOfRange(option, 1, option.length)));
             } else if (option[0].equals("-disableModels")) {
@@ -74,15 +191,91 @@ public class DocletOptions {
                 parsedOptions.errorTags.addAll(asList(copyOfRange(option, 1, option.length)));;
             } else if (option[0].equals("-typesToTreatAsOpaque")) {
                 parsedOptions.typesToTreatAsOpaque.addAll(asList(copyOfRange(option, 1, option.length)));;
+            } else if (option[0].equals("-parallelism")) {
+                // javadoc is not thread-safe, so the classes are parsed on one thread and only written on several
+                parsedOptions.writerThreads = Integer.parseInt(option[1]);
+                if (parsedOptions.writerThreads < 1) {
+                    parsedOptions.writerThreads = Runtime.getRuntime().availableProcessors();
+                }
+            } else if (option[0].equals("-modelIdFile")) {
+                parsedOptions.modelIdFile = new File(option[1]);
+            } else if (option[0].equals("-commentIndex")) {
+                parsedOptions.commentIndex = new File(option[1]);
+            } else if (option[0].equals("-incremental")) {
+                parsedOptions.incremental = true;
+            } else if (option[0].equals("-writeIfChanged")) {
+                writeIfChanged = true;
+            } else if (option[0].equals("-streamingJson")) {
+                fileRecorder = new StreamingRecorder();
+            } else if (option[0].equals("-compactJson")) {
+                compactJson = true;
+            } else if (option[0].equals("-gzipJson")) {
+                gzipJson = true;
+            } else if (option[0].equals("-modelCatalog")) {
+                parsedOptions.modelCatalog = true;
+            } else if (option[0].equals("-modelCatalogInline")) {
+                parsedOptions.modelCatalog = true;
+                parsedOptions.modelCatalogInline = true;
+            } else if (option[0].equals("-bundle")) {
+                parsedOptions.bundle = true;
+            } else if (option[0].equals("-writerThreads")) {
+                parsedOptions.writerThreads = Integer.parseInt(option[1]);
+            } else if (option[0].equals("-transactional")) {
+                transactional = true;
+            } else if (option[0].equals("-archive")) {
+                archive = new File(option[1]);
+            } else if (option[0].equals("-partition")) {
+                parsedOptions.partition = new LinkedHashSet<String>();
+                Iterables.addAll(parsedOptions.partition, Splitter.on(':').omitEmptyStrings().split(option[1]));
             }
         }
+        if (parsedOptions.partition != null) {
+            // a partial output only holds the plain declarations and listing, everything else is written by the merge
+            parsedOptions.swaggerUiZipPath = null;
+            parsedOptions.incremental = false;
+            parsedOptions.bundle = false;
+            parsedOptions.modelCatalog = false;
+            parsedOptions.modelCatalogInline = false;
+            parsedOptions.mergeExistingOutput = false;
+            gzipJson = false;
+            transactional = false;
+            archive = null;
+        }
+        parsedOptions.recorder = fileRecorder.setWriteIfChanged(writeIfChanged).setCompact(compactJson).setGzip(gzipJson);
+        if (archive != null) {
+            // the archive is written from scratch by a single writer and published as a whole
+            fileRecorder.setArchive(new ArchiveWriter(archive, parsedOptions.outputDirectory));
+            parsedOptions.incremental = false;
+            parsedOptions.bundle = false;
+            parsedOptions.mergeExistingOutput = false;
+            parsedOptions.writerThreads = 1;
+            transactional = false;
+        }
+        if (parsedOptions.writerThreads > 1) {
+            parsedOptions.recorder = new AsyncRecorder(parsedOptions.recorder, parsedOptions.writerThreads);
+        }
+        if (transactional) {
+            parsedOptions.recorder = new StagingRecorder(parsedOptions.recorder);
+        }
         return parsedOptions;
     }
 
+    /**
+     * @return a copy of these options that can be changed without affecting them.
+     */
+    public DocletOptions copy() {
+        return new DocletOptions(this);
+    }
+
     public File getOutputDirectory() {
         return outputDirectory;
     }
 
+    public DocletOptions setOutputDirectory(File outputDirectory) {
+        this.outputDirectory = outputDirectory;
+        return this;
+    }
+
     public String getDocBasePath() {
         return docBasePath;
     }
@@ -95,10 +288,31 @@ public class DocletOptions {
         return apiVersion;
     }
 
+    /**
+     * Path of the swagger-ui zip, {@link #DEFAULT_SWAGGER_UI_ZIP_PATH} for the bundled one. No swagger-ui is written if
+     * it is null.
+     */
     public String getSwaggerUiZipPath() {
         return swaggerUiZipPath;
     }
 
+    public DocletOptions setSwaggerUiZipPath(String swaggerUiZipPath) {
+        this.swaggerUiZipPath = swaggerUiZipPath;
+        return this;
+    }
+
+    /**
+     * Directory shared by all runs on a machine in which every swagger-ui.zip is extracted once. May be null.
+     */
+    public File getSwaggerUiCacheDirectory() {
+        return swaggerUiCacheDirectory;
+    }
+
+    public DocletOptions setSwaggerUiCacheDirectory(File swaggerUiCacheDirectory) {
+        this.swaggerUiCacheDirectory = swaggerUiCacheDirectory;
+        return this;
+    }
+
     public List<String> getExcludeAnnotationClasses() {
         return excludeAnnotationClasses;
     }
@@ -115,6 +329,129 @@ public class DocletOptions {
         return parseModels;
     }
 
+    /**
+     * File the model id assignments are read from and written back to, so ids stay stable across runs. May be null.
+     */
+    public File getModelIdFile() {
+        return modelIdFile;
+    }
+
+    public DocletOptions setModelIdFile(File modelIdFile) {
+        this.modelIdFile = modelIdFile;
+        return this;
+    }
+
+    /**
+     * File the comments of the documented classes are written to, see
+     * {@link com.hypnoticocelot.jaxrs.doclet.parser.CommentIndex}. May be null.
+     */
+    public File getCommentIndex() {
+        return commentIndex;
+    }
+
+    public DocletOptions setCommentIndex(File commentIndex) {
+        this.commentIndex = commentIndex;
+        return this;
+    }
+
+    /**
+     * Whether classes whose sources did not change since the last run are skipped, based on a cache in the output
+     * directory. Unless a model id file is given, the model ids are kept in the output directory as well.
+     */
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    public DocletOptions setIncremental(boolean incremental) {
+        this.incremental = incremental;
+        return this;
+    }
+
+    /**
+     * Number of threads the output files are rendered and written on, see {@link AsyncRecorder}, set by
+     * "-writerThreads" or "-parallelism". Defaults to 1, which writes every file on the parsing thread; "-parallelism 0"
+     * uses one thread per available core. The classes are always parsed on a single thread, as javadoc completes its
+     * symbols lazily and is not thread-safe.
+     */
+    public int getWriterThreads() {
+        return writerThreads;
+    }
+
+    /**
+     * Whether all declarations are additionally written into a single bundle file with an index of their byte ranges.
+     */
+    public boolean isBundle() {
+        return bundle;
+    }
+
+    public DocletOptions setBundle(boolean bundle) {
+        this.bundle = bundle;
+        return this;
+    }
+
+    /**
+     * Whether every model is written once into a shared catalog that the declarations refer to, instead of into every
+     * declaration that uses it.
+     */
+    public boolean isModelCatalog() {
+        return modelCatalog;
+    }
+
+    public DocletOptions setModelCatalog(boolean modelCatalog) {
+        this.modelCatalog = modelCatalog;
+        return this;
+    }
+
+    /**
+     * Whether the declarations still define the models of the catalog inline, so tools that do not know the catalog
+     * keep working.
+     */
+    public boolean isModelCatalogInline() {
+        return modelCatalogInline;
+    }
+
+    public DocletOptions setModelCatalogInline(boolean modelCatalogInline) {
+        this.modelCatalogInline = modelCatalogInline;
+        return this;
+    }
+
+    /**
+     * Whether the resources of an existing service.json and the models of an existing model catalog in the output
+     * directory are kept, so several modules can document into the same directory.
+     */
+    public boolean isMergeExistingOutput() {
+        return mergeExistingOutput;
+    }
+
+    public DocletOptions setMergeExistingOutput(boolean mergeExistingOutput) {
+        this.mergeExistingOutput = mergeExistingOutput;
+        return this;
+    }
+
+    /**
+     * The packages whose classes a partial run documents, see {@link PartitionedLauncher}; the other included classes
+     * are only looked up as sub-resources. Null if all included classes are documented.
+     */
+    public Set<String> getPartition() {
+        return partition;
+    }
+
+    public DocletOptions setPartition(Set<String> partition) {
+        this.partition = partition;
+        return this;
+    }
+
+    public ModelIdAllocator getModelIdAllocator() {
+        return modelIdAllocator;
+    }
+
+    /**
+     * @return the cache of the javadoc accessors used during a run.
+     */
+    public DocCache getDocCache() {
+        return docCache;
+    }
+
     public Recorder getRecorder() {
         return recorder;
     }
@@ -133,4 +470,20 @@ public class DocletOptions {
         return this;
     }
 
+    /**
+     * @return the listener that passes the parse events on to all added listeners.
+     */
+    public ParseListener getListener() {
+        return listener;
+    }
+
+    public List<ParseListener> getListeners() {
+        return listener.getListeners();
+    }
+
+    public DocletOptions addListener(ParseListener listener) {
+        this.listener.add(listener);
+        return this;
+    }
+
 }
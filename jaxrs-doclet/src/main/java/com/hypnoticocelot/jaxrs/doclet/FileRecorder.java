@@ -0,0 +1,149 @@
+package com.hypnoticocelot.jaxrs.doclet;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.Files;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Base class of the recorders that write the files to disk, or into an archive if one is set.
+ */
+public abstract class FileRecorder implements Recorder {
+    private static final HashFunction CONTENT_HASH = Hashing.sha1();
+    private boolean writeIfChanged;
+    private boolean compact;
+    private boolean gzip;
+    private ArchiveWriter archive;
+
+    /**
+     * Files are rendered in memory and only replaced if their content changed, through a temporary file that is renamed
+     * over the old one. Unchanged files keep their modification time and readers never see a partially written file.
+     */
+    public boolean isWriteIfChanged() {
+        return writeIfChanged;
+    }
+
+    public FileRecorder setWriteIfChanged(boolean writeIfChanged) {
+        this.writeIfChanged = writeIfChanged;
+        return this;
+    }
+
+    /**
+     * JSON is written without indentation.
+     */
+    public boolean isCompact() {
+        return compact;
+    }
+
+    public FileRecorder setCompact(boolean compact) {
+        this.compact = compact;
+        return this;
+    }
+
+    /**
+     * Every JSON file is accompanied by a gzipped copy with the additional extension ".gz", so it can be served
+     * pre-compressed.
+     */
+    public boolean isGzip() {
+        return gzip;
+    }
+
+    public FileRecorder setGzip(boolean gzip) {
+        this.gzip = gzip;
+        return this;
+    }
+
+    /**
+     * Archive the files are added to instead of being written to disk, may be null.
+     */
+    public ArchiveWriter getArchive() {
+        return archive;
+    }
+
+    public FileRecorder setArchive(ArchiveWriter archive) {
+        this.archive = archive;
+        return this;
+    }
+
+    /**
+     * @return whether JSON documents have to be rendered in memory and passed to {@link #writeDocument(File, byte[])}
+     * rather than being streamed to the file.
+     */
+    protected boolean isRenderedInMemory() {
+        return writeIfChanged || gzip || archive != null;
+    }
+
+    /**
+     * Writes a rendered JSON document and its gzipped copy.
+     */
+    protected void writeDocument(File file, byte[] content) throws IOException {
+        write(file, content);
+        if (gzip) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(content.length / 4 + 64);
+            GZIPOutputStream stream = new GZIPOutputStream(compressed);
+            stream.write(content);
+            stream.close();
+            write(new File(file.getPath() + ".gz"), compressed.toByteArray());
+        }
+    }
+
+    @Override
+    public void record(File file, InputStream stream) throws IOException {
+        if (writeIfChanged || archive != null) {
+            write(file, ByteStreams.toByteArray(stream));
+            return;
+        }
+        final FileOutputStream outputStream = new FileOutputStream(file);
+        ByteStreams.copy(stream, outputStream);
+        outputStream.flush();
+        outputStream.close();
+    }
+
+    /**
+     * Writes the content to the file, only if it changed and through a temporary file in write-if-changed mode.
+     */
+    protected void write(File file, byte[] content) throws IOException {
+        if (archive != null) {
+            archive.add(file, content);
+            return;
+        }
+        if (!writeIfChanged) {
+            Files.write(content, file);
+            return;
+        }
+        // the size rules out most changes without reading the old file
+        if (file.isFile() && file.length() == content.length
+                && Files.hash(file, CONTENT_HASH).equals(CONTENT_HASH.hashBytes(content))) {
+            return;
+        }
+        File directory = file.getAbsoluteFile().getParentFile();
+        File temporary = File.createTempFile("." + file.getName(), ".tmp", directory);
+        try {
+            Files.write(content, temporary);
+            replace(temporary, file);
+        } finally {
+            java.nio.file.Files.deleteIfExists(temporary.toPath());
+        }
+    }
+
+    /**
+     * Renames the source over the target, atomically where the file system supports it.
+     */
+    static void replace(File source, File target) throws IOException {
+        try {
+            java.nio.file.Files.move(source.toPath(), target.toPath(),
+                    StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            java.nio.file.Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
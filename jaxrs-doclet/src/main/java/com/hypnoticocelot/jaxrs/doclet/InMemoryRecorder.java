@@ -0,0 +1,57 @@
+package com.hypnoticocelot.jaxrs.doclet;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.io.ByteStreams;
+import com.hypnoticocelot.jaxrs.doclet.model.ApiDeclaration;
+import com.hypnoticocelot.jaxrs.doclet.model.ResourceListing;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps the recorded documents in memory instead of writing them to disk. A document recorded for the same file again
+ * replaces the earlier one. Safe to use from several threads.
+ */
+public class InMemoryRecorder implements Recorder {
+
+    private final Map<File, ResourceListing> listings = new LinkedHashMap<File, ResourceListing>();
+    private final Map<File, ApiDeclaration> declarations = new LinkedHashMap<File, ApiDeclaration>();
+    private final Map<File, byte[]> files = new LinkedHashMap<File, byte[]>();
+
+    @Override
+    public synchronized void record(File file, ResourceListing listing) {
+        listings.put(file, listing);
+    }
+
+    @Override
+    public synchronized void record(File file, ApiDeclaration declaration) {
+        declarations.put(file, declaration);
+    }
+
+    @Override
+    public void record(File file, InputStream stream) throws IOException {
+        byte[] content = ByteStreams.toByteArray(stream);
+        synchronized (this) {
+            files.put(file, content);
+        }
+    }
+
+    public synchronized Map<File, ResourceListing> getListings() {
+        return ImmutableMap.copyOf(listings);
+    }
+
+    public synchronized Map<File, ApiDeclaration> getDeclarations() {
+        return ImmutableMap.copyOf(declarations);
+    }
+
+    /**
+     * @return the contents of the files recorded from streams, such as swagger-ui.
+     */
+    public synchronized Map<File, byte[]> getFiles() {
+        return ImmutableMap.copyOf(files);
+    }
+
+}
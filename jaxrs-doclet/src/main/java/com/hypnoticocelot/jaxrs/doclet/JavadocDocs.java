@@ -0,0 +1,672 @@
+package com.hypnoticocelot.jaxrs.doclet;
+
+import com.hypnoticocelot.jaxrs.doclet.doc.*;
+
+import java.io.File;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Presents the classes of a run of the javadoc of JDK 8 to the parsers. Classes, methods and fields are wrapped once,
+ * so the wrappers are as unique as javadoc's own objects; types, parameters, annotations and tags are wrapped on
+ * every call, as javadoc creates them on every call as well. Not thread-safe, like javadoc.
+ */
+class JavadocDocs {
+
+    private final Map<com.sun.javadoc.ProgramElementDoc, ProgramElementDoc> docs =
+            new IdentityHashMap<com.sun.javadoc.ProgramElementDoc, ProgramElementDoc>();
+
+    RootDoc rootDoc(final com.sun.javadoc.RootDoc rootDoc) {
+        return new RootDoc() {
+            @Override
+            public ClassDoc[] classes() {
+                return classDocs(rootDoc.classes());
+            }
+
+            @Override
+            public ClassDoc classNamed(String qualifiedName) {
+                return classDoc(rootDoc.classNamed(qualifiedName));
+            }
+
+            @Override
+            public String toString() {
+                return rootDoc.toString();
+            }
+        };
+    }
+
+    private ClassDoc classDoc(com.sun.javadoc.ClassDoc doc) {
+        if (doc == null) {
+            return null;
+        }
+        ProgramElementDoc classDoc = docs.get(doc);
+        if (classDoc == null) {
+            classDoc = new JavadocClassDoc(doc);
+            docs.put(doc, classDoc);
+        }
+        return (ClassDoc) classDoc;
+    }
+
+    private MethodDoc methodDoc(com.sun.javadoc.MethodDoc doc) {
+        ProgramElementDoc methodDoc = docs.get(doc);
+        if (methodDoc == null) {
+            methodDoc = new JavadocMethodDoc(doc);
+            docs.put(doc, methodDoc);
+        }
+        return (MethodDoc) methodDoc;
+    }
+
+    private FieldDoc fieldDoc(com.sun.javadoc.FieldDoc doc) {
+        ProgramElementDoc fieldDoc = docs.get(doc);
+        if (fieldDoc == null) {
+            fieldDoc = new JavadocFieldDoc(doc);
+            docs.put(doc, fieldDoc);
+        }
+        return (FieldDoc) fieldDoc;
+    }
+
+    private ClassDoc[] classDocs(com.sun.javadoc.ClassDoc[] docs) {
+        ClassDoc[] classDocs = new ClassDoc[docs.length];
+        for (int i = 0; i < docs.length; i++) {
+            classDocs[i] = classDoc(docs[i]);
+        }
+        return classDocs;
+    }
+
+    private MethodDoc[] methodDocs(com.sun.javadoc.MethodDoc[] docs) {
+        MethodDoc[] methodDocs = new MethodDoc[docs.length];
+        for (int i = 0; i < docs.length; i++) {
+            methodDocs[i] = methodDoc(docs[i]);
+        }
+        return methodDocs;
+    }
+
+    private FieldDoc[] fieldDocs(com.sun.javadoc.FieldDoc[] docs) {
+        FieldDoc[] fieldDocs = new FieldDoc[docs.length];
+        for (int i = 0; i < docs.length; i++) {
+            fieldDocs[i] = fieldDoc(docs[i]);
+        }
+        return fieldDocs;
+    }
+
+    /**
+     * @return the wrapper of the type: the class itself for a class without type arguments, as in javadoc.
+     */
+    private Type type(com.sun.javadoc.Type type) {
+        if (type == null) {
+            return null;
+        }
+        if (type instanceof com.sun.javadoc.ClassDoc) {
+            return classDoc((com.sun.javadoc.ClassDoc) type);
+        }
+        if (type instanceof com.sun.javadoc.ParameterizedType) {
+            return new JavadocParameterizedType((com.sun.javadoc.ParameterizedType) type);
+        }
+        if (type instanceof com.sun.javadoc.TypeVariable) {
+            return new JavadocTypeVariable((com.sun.javadoc.TypeVariable) type);
+        }
+        if (type instanceof com.sun.javadoc.WildcardType) {
+            return new JavadocWildcardType((com.sun.javadoc.WildcardType) type);
+        }
+        return new JavadocType<com.sun.javadoc.Type>(type);
+    }
+
+    private Type[] types(com.sun.javadoc.Type[] types) {
+        Type[] result = new Type[types.length];
+        for (int i = 0; i < types.length; i++) {
+            result[i] = type(types[i]);
+        }
+        return result;
+    }
+
+    private TypeVariable[] typeVariables(com.sun.javadoc.TypeVariable[] variables) {
+        TypeVariable[] result = new TypeVariable[variables.length];
+        for (int i = 0; i < variables.length; i++) {
+            result[i] = new JavadocTypeVariable(variables[i]);
+        }
+        return result;
+    }
+
+    private AnnotationDesc[] annotations(com.sun.javadoc.AnnotationDesc[] annotations) {
+        AnnotationDesc[] result = new AnnotationDesc[annotations.length];
+        for (int i = 0; i < annotations.length; i++) {
+            result[i] = new JavadocAnnotationDesc(annotations[i]);
+        }
+        return result;
+    }
+
+    private static Tag[] tags(com.sun.javadoc.Tag[] tags) {
+        Tag[] result = new Tag[tags.length];
+        for (int i = 0; i < tags.length; i++) {
+            result[i] = tags[i] instanceof com.sun.javadoc.ParamTag
+                    ? new JavadocParamTag((com.sun.javadoc.ParamTag) tags[i]) : new JavadocTag<com.sun.javadoc.Tag>(tags[i]);
+        }
+        return result;
+    }
+
+    /**
+     * @return the value in the form of the {@code doc} interfaces, see {@link AnnotationValue#value()}.
+     */
+    private Object valueOf(Object value) {
+        if (value instanceof com.sun.javadoc.Type) {
+            return type((com.sun.javadoc.Type) value);
+        }
+        if (value instanceof com.sun.javadoc.FieldDoc) {
+            return fieldDoc((com.sun.javadoc.FieldDoc) value);
+        }
+        if (value instanceof com.sun.javadoc.AnnotationDesc) {
+            return new JavadocAnnotationDesc((com.sun.javadoc.AnnotationDesc) value);
+        }
+        if (value instanceof com.sun.javadoc.AnnotationValue[]) {
+            com.sun.javadoc.AnnotationValue[] values = (com.sun.javadoc.AnnotationValue[]) value;
+            AnnotationValue[] result = new AnnotationValue[values.length];
+            for (int i = 0; i < values.length; i++) {
+                result[i] = new JavadocAnnotationValue(values[i]);
+            }
+            return result;
+        }
+        return value;
+    }
+
+    private abstract class JavadocDoc<T extends com.sun.javadoc.Doc> implements Doc {
+        final T doc;
+
+        private JavadocDoc(T doc) {
+            this.doc = doc;
+        }
+
+        @Override
+        public String name() {
+            return doc.name();
+        }
+
+        @Override
+        public String commentText() {
+            return doc.commentText();
+        }
+
+        @Override
+        public String getRawCommentText() {
+            return doc.getRawCommentText();
+        }
+
+        @Override
+        public Tag[] firstSentenceTags() {
+            return JavadocDocs.tags(doc.firstSentenceTags());
+        }
+
+        @Override
+        public Tag[] tags(String tagName) {
+            return JavadocDocs.tags(doc.tags(tagName));
+        }
+
+        @Override
+        public SourcePosition position() {
+            final com.sun.javadoc.SourcePosition position = doc.position();
+            if (position == null) {
+                return null;
+            }
+            return new SourcePosition() {
+                @Override
+                public File file() {
+                    return position.file();
+                }
+
+                @Override
+                public int line() {
+                    return position.line();
+                }
+
+                @Override
+                public int column() {
+                    return position.column();
+                }
+
+                @Override
+                public String toString() {
+                    return position.toString();
+                }
+            };
+        }
+
+        @Override
+        public String toString() {
+            return doc.toString();
+        }
+    }
+
+    private abstract class JavadocProgramElementDoc<T extends com.sun.javadoc.ProgramElementDoc> extends JavadocDoc<T>
+            implements ProgramElementDoc {
+
+        private JavadocProgramElementDoc(T doc) {
+            super(doc);
+        }
+
+        @Override
+        public String qualifiedName() {
+            return doc.qualifiedName();
+        }
+
+        @Override
+        public ClassDoc containingClass() {
+            return classDoc(doc.containingClass());
+        }
+
+        @Override
+        public AnnotationDesc[] annotations() {
+            return JavadocDocs.this.annotations(doc.annotations());
+        }
+    }
+
+    private class JavadocClassDoc extends JavadocProgramElementDoc<com.sun.javadoc.ClassDoc> implements ClassDoc {
+
+        private JavadocClassDoc(com.sun.javadoc.ClassDoc doc) {
+            super(doc);
+        }
+
+        @Override
+        public String qualifiedTypeName() {
+            return doc.qualifiedTypeName();
+        }
+
+        @Override
+        public String typeName() {
+            return doc.typeName();
+        }
+
+        @Override
+        public String simpleTypeName() {
+            return doc.simpleTypeName();
+        }
+
+        @Override
+        public String dimension() {
+            return doc.dimension();
+        }
+
+        @Override
+        public ClassDoc asClassDoc() {
+            return this;
+        }
+
+        @Override
+        public ParameterizedType asParameterizedType() {
+            return null;
+        }
+
+        @Override
+        public TypeVariable asTypeVariable() {
+            return null;
+        }
+
+        @Override
+        public WildcardType asWildcardType() {
+            return null;
+        }
+
+        @Override
+        public boolean isInterface() {
+            return doc.isInterface();
+        }
+
+        @Override
+        public boolean isEnum() {
+            return doc.isEnum();
+        }
+
+        @Override
+        public PackageDoc containingPackage() {
+            final com.sun.javadoc.PackageDoc packageDoc = doc.containingPackage();
+            return new PackageDoc() {
+                @Override
+                public String name() {
+                    return packageDoc.name();
+                }
+
+                @Override
+                public String toString() {
+                    return packageDoc.toString();
+                }
+            };
+        }
+
+        @Override
+        public MethodDoc[] methods() {
+            return methodDocs(doc.methods());
+        }
+
+        @Override
+        public MethodDoc[] methods(boolean filter) {
+            return methodDocs(doc.methods(filter));
+        }
+
+        @Override
+        public FieldDoc[] fields() {
+            return fieldDocs(doc.fields());
+        }
+
+        @Override
+        public FieldDoc[] fields(boolean filter) {
+            return fieldDocs(doc.fields(filter));
+        }
+
+        @Override
+        public FieldDoc[] enumConstants() {
+            return fieldDocs(doc.enumConstants());
+        }
+
+        @Override
+        public ClassDoc superclass() {
+            return classDoc(doc.superclass());
+        }
+
+        @Override
+        public ClassDoc[] interfaces() {
+            return classDocs(doc.interfaces());
+        }
+
+        @Override
+        public Type[] interfaceTypes() {
+            return types(doc.interfaceTypes());
+        }
+
+        @Override
+        public TypeVariable[] typeParameters() {
+            return typeVariables(doc.typeParameters());
+        }
+    }
+
+    private class JavadocMethodDoc extends JavadocProgramElementDoc<com.sun.javadoc.MethodDoc> implements MethodDoc {
+
+        private JavadocMethodDoc(com.sun.javadoc.MethodDoc doc) {
+            super(doc);
+        }
+
+        @Override
+        public Type returnType() {
+            return type(doc.returnType());
+        }
+
+        @Override
+        public Parameter[] parameters() {
+            com.sun.javadoc.Parameter[] parameters = doc.parameters();
+            Parameter[] result = new Parameter[parameters.length];
+            for (int i = 0; i < parameters.length; i++) {
+                result[i] = new JavadocParameter(parameters[i]);
+            }
+            return result;
+        }
+
+        @Override
+        public ParamTag[] paramTags() {
+            com.sun.javadoc.ParamTag[] tags = doc.paramTags();
+            ParamTag[] result = new ParamTag[tags.length];
+            for (int i = 0; i < tags.length; i++) {
+                result[i] = new JavadocParamTag(tags[i]);
+            }
+            return result;
+        }
+
+        @Override
+        public String signature() {
+            return doc.signature();
+        }
+    }
+
+    private class JavadocFieldDoc extends JavadocProgramElementDoc<com.sun.javadoc.FieldDoc> implements FieldDoc {
+
+        private JavadocFieldDoc(com.sun.javadoc.FieldDoc doc) {
+            super(doc);
+        }
+
+        @Override
+        public Type type() {
+            return JavadocDocs.this.type(doc.type());
+        }
+    }
+
+    private class JavadocParameter implements Parameter {
+        private final com.sun.javadoc.Parameter parameter;
+
+        private JavadocParameter(com.sun.javadoc.Parameter parameter) {
+            this.parameter = parameter;
+        }
+
+        @Override
+        public String name() {
+            return parameter.name();
+        }
+
+        @Override
+        public Type type() {
+            return JavadocDocs.this.type(parameter.type());
+        }
+
+        @Override
+        public AnnotationDesc[] annotations() {
+            return JavadocDocs.this.annotations(parameter.annotations());
+        }
+
+        @Override
+        public String toString() {
+            return parameter.toString();
+        }
+    }
+
+    /**
+     * The types other than classes; an array type answers for its component type, as in javadoc.
+     */
+    private class JavadocType<T extends com.sun.javadoc.Type> implements Type {
+        final T type;
+
+        private JavadocType(T type) {
+            this.type = type;
+        }
+
+        @Override
+        public String qualifiedTypeName() {
+            return type.qualifiedTypeName();
+        }
+
+        @Override
+        public String typeName() {
+            return type.typeName();
+        }
+
+        @Override
+        public String simpleTypeName() {
+            return type.simpleTypeName();
+        }
+
+        @Override
+        public String dimension() {
+            return type.dimension();
+        }
+
+        @Override
+        public ClassDoc asClassDoc() {
+            return classDoc(type.asClassDoc());
+        }
+
+        @Override
+        public ParameterizedType asParameterizedType() {
+            return (ParameterizedType) JavadocDocs.this.type(type.asParameterizedType());
+        }
+
+        @Override
+        public TypeVariable asTypeVariable() {
+            return (TypeVariable) JavadocDocs.this.type(type.asTypeVariable());
+        }
+
+        @Override
+        public WildcardType asWildcardType() {
+            return (WildcardType) JavadocDocs.this.type(type.asWildcardType());
+        }
+
+        @Override
+        public String toString() {
+            return type.toString();
+        }
+    }
+
+    private class JavadocParameterizedType extends JavadocType<com.sun.javadoc.ParameterizedType>
+            implements ParameterizedType {
+
+        private JavadocParameterizedType(com.sun.javadoc.ParameterizedType type) {
+            super(type);
+        }
+
+        @Override
+        public ParameterizedType asParameterizedType() {
+            return this;
+        }
+
+        @Override
+        public Type[] typeArguments() {
+            return types(type.typeArguments());
+        }
+    }
+
+    private class JavadocTypeVariable extends JavadocType<com.sun.javadoc.TypeVariable> implements TypeVariable {
+
+        private JavadocTypeVariable(com.sun.javadoc.TypeVariable type) {
+            super(type);
+        }
+
+        @Override
+        public TypeVariable asTypeVariable() {
+            return this;
+        }
+
+        @Override
+        public Type[] bounds() {
+            return types(type.bounds());
+        }
+    }
+
+    private class JavadocWildcardType extends JavadocType<com.sun.javadoc.WildcardType> implements WildcardType {
+
+        private JavadocWildcardType(com.sun.javadoc.WildcardType type) {
+            super(type);
+        }
+
+        @Override
+        public WildcardType asWildcardType() {
+            return this;
+        }
+
+        @Override
+        public Type[] extendsBounds() {
+            return types(type.extendsBounds());
+        }
+
+        @Override
+        public Type[] superBounds() {
+            return types(type.superBounds());
+        }
+    }
+
+    private class JavadocAnnotationDesc implements AnnotationDesc {
+        private final com.sun.javadoc.AnnotationDesc annotation;
+
+        private JavadocAnnotationDesc(com.sun.javadoc.AnnotationDesc annotation) {
+            this.annotation = annotation;
+        }
+
+        @Override
+        public ClassDoc annotationType() {
+            // javadoc throws a ClassCastException for a type it cannot resolve as an annotation type
+            return classDoc(annotation.annotationType());
+        }
+
+        @Override
+        public ElementValuePair[] elementValues() {
+            com.sun.javadoc.AnnotationDesc.ElementValuePair[] pairs = annotation.elementValues();
+            ElementValuePair[] result = new ElementValuePair[pairs.length];
+            for (int i = 0; i < pairs.length; i++) {
+                final com.sun.javadoc.AnnotationDesc.ElementValuePair pair = pairs[i];
+                result[i] = new ElementValuePair() {
+                    @Override
+                    public MethodDoc element() {
+                        return methodDoc(pair.element());
+                    }
+
+                    @Override
+                    public AnnotationValue value() {
+                        return new JavadocAnnotationValue(pair.value());
+                    }
+
+                    @Override
+                    public String toString() {
+                        return pair.toString();
+                    }
+                };
+            }
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return annotation.toString();
+        }
+    }
+
+    private class JavadocAnnotationValue implements AnnotationValue {
+        private final com.sun.javadoc.AnnotationValue value;
+
+        private JavadocAnnotationValue(com.sun.javadoc.AnnotationValue value) {
+            this.value = value;
+        }
+
+        @Override
+        public Object value() {
+            return valueOf(value.value());
+        }
+
+        @Override
+        public String toString() {
+            return value.toString();
+        }
+    }
+
+    private static class JavadocTag<T extends com.sun.javadoc.Tag> implements Tag {
+        final T tag;
+
+        private JavadocTag(T tag) {
+            this.tag = tag;
+        }
+
+        @Override
+        public String name() {
+            return tag.name();
+        }
+
+        @Override
+        public String text() {
+            return tag.text();
+        }
+
+        @Override
+        public String toString() {
+            return tag.toString();
+        }
+    }
+
+    private static class JavadocParamTag extends JavadocTag<com.sun.javadoc.ParamTag> implements ParamTag {
+
+        private JavadocParamTag(com.sun.javadoc.ParamTag tag) {
+            super(tag);
+        }
+
+        @Override
+        public String parameterName() {
+            return tag.parameterName();
+        }
+
+        @Override
+        public String parameterComment() {
+            return tag.parameterComment();
+        }
+    }
+
+}
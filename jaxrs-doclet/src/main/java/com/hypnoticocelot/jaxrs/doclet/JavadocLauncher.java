@@ -0,0 +1,57 @@
+package com.hypnoticocelot.jaxrs.doclet;
+
+import javax.tools.DocumentationTool;
+import javax.tools.ToolProvider;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Runs the javadoc of the running JDK with the doclet for it, {@code ModernServiceDoclet} on JDK 9 and later and
+ * {@code ServiceDoclet} on JDK 8, loaded from the class path of this JVM. Takes the same arguments as javadoc:
+ * <pre>
+ * java -cp jaxrs-doclet.jar com.hypnoticocelot.jaxrs.doclet.JavadocLauncher \
+ *     -sourcepath src/main/java -subpackages com.example.api -classpath ... -d target/apidocs
+ * </pre>
+ * On JDK 8 the class path has to include {@code $JAVA_HOME/lib/tools.jar}.
+ */
+public class JavadocLauncher {
+
+    private static final String MODERN_DOCLET = "com.hypnoticocelot.jaxrs.doclet.processor.ModernServiceDoclet";
+    private static final String LEGACY_DOCLET = "com.hypnoticocelot.jaxrs.doclet.ServiceDoclet";
+
+    private JavadocLauncher() {
+    }
+
+    /**
+     * @return the exit code of javadoc, 0 if the documentation was generated.
+     */
+    public static int run(String... args) {
+        DocumentationTool javadoc = ToolProvider.getSystemDocumentationTool();
+        if (javadoc == null) {
+            System.err.println("No javadoc available, run with the java of a JDK");
+            return 2;
+        }
+        List<String> javadocArgs = new ArrayList<String>(Arrays.asList("-doclet", docletName(),
+                "-docletpath", System.getProperty("java.class.path")));
+        javadocArgs.addAll(Arrays.asList(args));
+        return javadoc.run(null, null, null, javadocArgs.toArray(new String[javadocArgs.size()]));
+    }
+
+    /**
+     * @return the doclet for the javadoc of the running JDK, the one for the jdk.javadoc.doclet API if it has that.
+     */
+    static String docletName() {
+        try {
+            Class.forName("jdk.javadoc.doclet.Doclet");
+            return MODERN_DOCLET;
+        } catch (ClassNotFoundException e) {
+            return LEGACY_DOCLET;
+        }
+    }
+
+    public static void main(String[] args) {
+        System.exit(run(args));
+    }
+
+}
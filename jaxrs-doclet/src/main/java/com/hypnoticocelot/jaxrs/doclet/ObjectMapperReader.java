@@ -1,6 +1,8 @@
 package com.hypnoticocelot.jaxrs.doclet;
 
+import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hypnoticocelot.jaxrs.doclet.model.ApiDeclaration;
 import com.hypnoticocelot.jaxrs.doclet.model.ResourceListing;
 
 import java.io.File;
@@ -8,9 +10,14 @@ import java.io.IOException;
 
 public class ObjectMapperReader {
 
-	private final ObjectMapper mapper = new ObjectMapper();
+	// the properties the models derive from others, such as the required flag of parameters, are not read back
+	private final ObjectMapper mapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
 
 	public ResourceListing read(File file) throws IOException {
 		return mapper.readValue(file, ResourceListing.class);
 	}
+
+	public ApiDeclaration readDeclaration(File file) throws IOException {
+		return mapper.readValue(file, ApiDeclaration.class);
+	}
 }
@@ -0,0 +1,46 @@
+package com.hypnoticocelot.jaxrs.doclet;
+
+import com.hypnoticocelot.jaxrs.doclet.doc.ClassDoc;
+import com.hypnoticocelot.jaxrs.doclet.doc.MethodDoc;
+import com.hypnoticocelot.jaxrs.doclet.doc.Parameter;
+import com.hypnoticocelot.jaxrs.doclet.model.ApiDeclaration;
+import com.hypnoticocelot.jaxrs.doclet.model.ApiParameter;
+import com.hypnoticocelot.jaxrs.doclet.model.Method;
+import com.hypnoticocelot.jaxrs.doclet.model.Model;
+import com.hypnoticocelot.jaxrs.doclet.model.ResourceListing;
+
+/**
+ * Receives the results of the parsers as they are produced, registered through
+ * {@link DocletOptions#addListener(ParseListener)}. All callbacks are called on the thread that runs the parser, one
+ * class after the other. Classes that an incremental run skips produce no events. Extend {@link ParseListenerAdapter}
+ * to implement only some of the callbacks.
+ */
+public interface ParseListener {
+
+    /**
+     * Called for every parameter that becomes part of an operation, before {@link #onOperation(MethodDoc, Method)} of
+     * its method.
+     */
+    void onParameter(MethodDoc methodDoc, Parameter parameter, ApiParameter apiParameter);
+
+    /**
+     * Called for every resource method and sub-resource locator, see {@link Method#isSubResource()}.
+     */
+    void onOperation(MethodDoc methodDoc, Method method);
+
+    /**
+     * Called once per model and run, the first time a type that reaches it is parsed.
+     */
+    void onModel(ClassDoc classDoc, Model model);
+
+    /**
+     * Called for every resource class once its declaration is complete, before it is recorded.
+     */
+    void onResource(ClassDoc classDoc, ApiDeclaration declaration);
+
+    /**
+     * Called once after the resource listing has been recorded.
+     */
+    void onComplete(ResourceListing listing);
+
+}
@@ -0,0 +1,37 @@
+package com.hypnoticocelot.jaxrs.doclet;
+
+import com.hypnoticocelot.jaxrs.doclet.doc.ClassDoc;
+import com.hypnoticocelot.jaxrs.doclet.doc.MethodDoc;
+import com.hypnoticocelot.jaxrs.doclet.doc.Parameter;
+import com.hypnoticocelot.jaxrs.doclet.model.ApiDeclaration;
+import com.hypnoticocelot.jaxrs.doclet.model.ApiParameter;
+import com.hypnoticocelot.jaxrs.doclet.model.Method;
+import com.hypnoticocelot.jaxrs.doclet.model.Model;
+import com.hypnoticocelot.jaxrs.doclet.model.ResourceListing;
+
+/**
+ * A {@link ParseListener} that ignores all events.
+ */
+public class ParseListenerAdapter implements ParseListener {
+
+    @Override
+    public void onParameter(MethodDoc methodDoc, Parameter parameter, ApiParameter apiParameter) {
+    }
+
+    @Override
+    public void onOperation(MethodDoc methodDoc, Method method) {
+    }
+
+    @Override
+    public void onModel(ClassDoc classDoc, Model model) {
+    }
+
+    @Override
+    public void onResource(ClassDoc classDoc, ApiDeclaration declaration) {
+    }
+
+    @Override
+    public void onComplete(ResourceListing listing) {
+    }
+
+}
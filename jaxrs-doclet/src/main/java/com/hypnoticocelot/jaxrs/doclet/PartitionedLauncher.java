@@ -0,0 +1,354 @@
+package com.hypnoticocelot.jaxrs.doclet;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Joiner;
+import com.google.common.base.Splitter;
+import com.google.common.collect.Iterables;
+import com.google.common.io.Files;
+import com.hypnoticocelot.jaxrs.doclet.parser.CommentIndex;
+import com.hypnoticocelot.jaxrs.doclet.parser.JaxRsAnnotationParser;
+import com.hypnoticocelot.jaxrs.doclet.translator.ModelIdAllocator;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+import static com.google.common.base.Charsets.UTF_8;
+
+/**
+ * Generates the documentation of a large source path in several javadoc processes running side by side, each with its
+ * own heap. The packages with source files the documentation needs, see {@link SourceClosure}, are split into
+ * consecutive partitions of about the same number of files. Every partition is documented with {@code -partition}
+ * into a partial output, together with the resources its classes refer to so their sub-resources resolve. The partial
+ * outputs are then merged in the order of the partitions, which is the order of a single run, see
+ * {@link JaxRsAnnotationParser#merge(List)}.
+ * <p/>
+ * Every partition allocates the model ids of its own types. The ids of all partitions are then allocated again in
+ * the order of the qualified type names, so every type has the same id in every partition, and the partitions whose
+ * ids changed are documented once more with the merged ids.
+ * <p/>
+ * Takes {@code -sourcepath} and optionally {@code -subpackages} like {@link ServiceLauncher}, {@code -partitions}
+ * with the number of processes, by default one per core, and {@code -J} options for their JVMs, followed by any other
+ * javadoc and doclet options. {@code -incremental} has no effect.
+ * <pre>
+ * java -cp jaxrs-doclet.jar com.hypnoticocelot.jaxrs.doclet.PartitionedLauncher \
+ *     -sourcepath src/main/java -partitions 4 -J-Xmx1g -classpath ... -d target/apidocs
+ * </pre>
+ */
+public class PartitionedLauncher {
+
+    private final String sourcePath;
+    private final List<String> jvmOptions;
+    private final List<String> javadocArgs;
+    private final File workDirectory;
+
+    private PartitionedLauncher(String sourcePath, List<String> jvmOptions, List<String> javadocArgs, File workDirectory) {
+        this.sourcePath = sourcePath;
+        this.jvmOptions = jvmOptions;
+        this.javadocArgs = javadocArgs;
+        this.workDirectory = workDirectory;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        String sourcePath = null;
+        List<String> packages = new ArrayList<String>();
+        int partitionCount = Runtime.getRuntime().availableProcessors();
+        List<String> jvmOptions = new ArrayList<String>();
+        List<String> javadocArgs = new ArrayList<String>();
+        List<String[]> docletOptions = new ArrayList<String[]>();
+        for (int i = 0; i < args.length; i++) {
+            int length = DocletOptions.optionLength(args[i]);
+            if (args[i].equals("-sourcepath") && i + 1 < args.length) {
+                sourcePath = args[++i];
+            } else if (args[i].equals("-subpackages") && i + 1 < args.length) {
+                Iterables.addAll(packages, Splitter.on(':').omitEmptyStrings().split(args[++i]));
+            } else if (args[i].equals("-partitions") && i + 1 < args.length) {
+                partitionCount = Math.max(1, Integer.parseInt(args[++i]));
+            } else if (args[i].startsWith("-J")) {
+                jvmOptions.add(args[i].substring(2));
+            } else if (length > 0 && i + length <= args.length) {
+                String[] option = Arrays.copyOfRange(args, i, i + length);
+                docletOptions.add(option);
+                // the partitions write their own output, model ids and comments
+                if (!option[0].equals("-d") && !option[0].equals("-modelIdFile") && !option[0].equals("-commentIndex")) {
+                    javadocArgs.addAll(Arrays.asList(option));
+                }
+                i += length - 1;
+            } else {
+                javadocArgs.add(args[i]);
+            }
+        }
+        if (sourcePath == null) {
+            System.err.println("-sourcepath is required");
+            System.exit(2);
+        }
+
+        List<File> sourceRoots = new ArrayList<File>();
+        for (String root : Splitter.on(File.pathSeparatorChar).omitEmptyStrings().split(sourcePath)) {
+            sourceRoots.add(new File(root));
+        }
+        SourceClosure closure = new SourceClosure(sourceRoots, packages);
+        List<List<File>> partitions = partition(closure, closure.compute(), partitionCount);
+
+        DocletOptions options = DocletOptions.parse(docletOptions.toArray(new String[docletOptions.size()][]));
+        File workDirectory = Files.createTempDir();
+        boolean generated;
+        try {
+            generated = new PartitionedLauncher(sourcePath, jvmOptions, javadocArgs, workDirectory)
+                    .generate(closure, partitions, options);
+        } finally {
+            delete(workDirectory);
+        }
+        System.exit(generated ? 0 : 1);
+    }
+
+    /**
+     * Splits the files into at most the given number of partitions of consecutive packages, keeping their order.
+     */
+    private static List<List<File>> partition(SourceClosure closure, Set<File> files, int partitionCount) {
+        Map<String, List<File>> packages = new LinkedHashMap<String, List<File>>();
+        for (File file : files) {
+            String packageName = closure.packageOf(file);
+            List<File> packageFiles = packages.get(packageName);
+            if (packageFiles == null) {
+                packageFiles = new ArrayList<File>();
+                packages.put(packageName, packageFiles);
+            }
+            packageFiles.add(file);
+        }
+        List<List<File>> partitions = new ArrayList<List<File>>();
+        List<File> partition = new ArrayList<File>();
+        int assigned = 0;
+        for (List<File> packageFiles : packages.values()) {
+            // a partition is closed once the files up to it reach its share of all files
+            if (!partition.isEmpty() && (long) assigned * partitionCount >= (long) files.size() * (partitions.size() + 1)) {
+                partitions.add(partition);
+                partition = new ArrayList<File>();
+            }
+            partition.addAll(packageFiles);
+            assigned += packageFiles.size();
+        }
+        if (!partition.isEmpty()) {
+            partitions.add(partition);
+        }
+        return partitions;
+    }
+
+    private boolean generate(SourceClosure closure, List<List<File>> partitions, DocletOptions options)
+            throws IOException, InterruptedException {
+        int fileCount = 0;
+        for (List<File> partition : partitions) {
+            fileCount += partition.size();
+        }
+        System.out.println("Documenting " + fileCount + " of " + closure.size() + " source files in "
+                + partitions.size() + " partitions");
+
+        List<File> partialOutputs = new ArrayList<File>();
+        List<File> argFiles = new ArrayList<File>();
+        for (int i = 0; i < partitions.size(); i++) {
+            File partitionDirectory = new File(workDirectory, String.valueOf(i));
+            File partialOutput = new File(partitionDirectory, "out");
+            if (!partialOutput.mkdirs()) {
+                throw new IOException("Unable to create " + partialOutput);
+            }
+            if (options.getModelIdFile() != null && options.getModelIdFile().isFile()) {
+                Files.copy(options.getModelIdFile(), modelIdFileOf(partitionDirectory));
+            }
+            partialOutputs.add(partialOutput);
+            argFiles.add(writeArgFile(closure, partitions.get(i), partitionDirectory, options.getCommentIndex() != null));
+        }
+        if (!launch(argFiles)) {
+            return false;
+        }
+
+        ModelIdAllocator allocator = mergeModelIds(partitions.size(), options);
+        List<File> changed = new ArrayList<File>();
+        for (int i = 0; i < partitions.size(); i++) {
+            File modelIdFile = modelIdFileOf(new File(workDirectory, String.valueOf(i)));
+            if (!agrees(readModelIds(modelIdFile), allocator.assignments())) {
+                allocator.writeTo(modelIdFile);
+                delete(partialOutputs.get(i));
+                if (!partialOutputs.get(i).mkdirs()) {
+                    throw new IOException("Unable to create " + partialOutputs.get(i));
+                }
+                changed.add(argFiles.get(i));
+            }
+        }
+        if (!changed.isEmpty()) {
+            System.out.println("Documenting " + changed.size() + " partitions again with the merged model ids");
+            if (!launch(changed)) {
+                return false;
+            }
+        }
+        if (options.getModelIdFile() != null) {
+            allocator.writeTo(options.getModelIdFile());
+        }
+        if (options.getCommentIndex() != null) {
+            mergeCommentIndexes(partitions.size(), options.getCommentIndex());
+        }
+
+        // the partial outputs are merged as a whole, so incremental generation has nothing to skip
+        options.setIncremental(false);
+        return new JaxRsAnnotationParser(options, null).merge(partialOutputs);
+    }
+
+    /**
+     * Writes the javadoc arguments of a partition into a file, as the source files may be too many for a command line.
+     */
+    private File writeArgFile(SourceClosure closure, List<File> files, File partitionDirectory, boolean commentIndex)
+            throws IOException {
+        Set<String> packages = new LinkedHashSet<String>();
+        for (File file : files) {
+            packages.add(closure.packageOf(file));
+        }
+        List<String> args = new ArrayList<String>(javadocArgs);
+        args.addAll(Arrays.asList("-sourcepath", sourcePath,
+                "-d", new File(partitionDirectory, "out").getPath(),
+                "-partition", Joiner.on(':').join(packages),
+                "-modelIdFile", modelIdFileOf(partitionDirectory).getPath()));
+        if (commentIndex) {
+            args.addAll(Arrays.asList("-commentIndex", commentIndexOf(partitionDirectory).getPath()));
+        }
+        Set<File> included = new LinkedHashSet<File>(files);
+        included.addAll(closure.resourcesReferencedBy(files));
+        for (File file : included) {
+            args.add(file.getPath());
+        }
+
+        StringBuilder content = new StringBuilder();
+        for (String arg : args) {
+            content.append('"').append(arg.replace("\\", "\\\\").replace("\"", "\\\"")).append("\"\n");
+        }
+        File argFile = new File(partitionDirectory, "javadoc.args");
+        Files.write(content, argFile, UTF_8);
+        return argFile;
+    }
+
+    /**
+     * Runs javadoc with the doclet for every argument file, each in its own JVM, and waits for all of them.
+     */
+    private boolean launch(List<File> argFiles) throws IOException, InterruptedException {
+        String java = new File(new File(System.getProperty("java.home"), "bin"), "java").getPath();
+        List<Process> processes = new ArrayList<Process>();
+        try {
+            for (File argFile : argFiles) {
+                List<String> command = new ArrayList<String>();
+                command.add(java);
+                command.addAll(jvmOptions);
+                command.addAll(Arrays.asList("-cp", System.getProperty("java.class.path"),
+                        JavadocLauncher.class.getName(), "@" + argFile.getPath()));
+                processes.add(new ProcessBuilder(command).inheritIO().start());
+            }
+            boolean succeeded = true;
+            for (Process process : processes) {
+                succeeded &= process.waitFor() == 0;
+            }
+            return succeeded;
+        } finally {
+            for (Process process : processes) {
+                process.destroy();
+            }
+        }
+    }
+
+    /**
+     * Allocates the ids of the types of all partitions again in the order of their qualified names, after the
+     * assignments of the model id file of the options. Every type asks for the name its id in a partition is based on.
+     */
+    private ModelIdAllocator mergeModelIds(int partitionCount, DocletOptions options) throws IOException {
+        ModelIdAllocator allocator = new ModelIdAllocator();
+        if (options.getModelIdFile() != null && options.getModelIdFile().isFile()) {
+            allocator.readFrom(options.getModelIdFile());
+        }
+        Map<String, Map<String, String>> claims = new TreeMap<String, Map<String, String>>();
+        for (int i = 0; i < partitionCount; i++) {
+            File modelIdFile = modelIdFileOf(new File(workDirectory, String.valueOf(i)));
+            for (Map.Entry<String, Map<String, String>> namespace : readModelIds(modelIdFile).entrySet()) {
+                Map<String, String> names = claims.get(namespace.getKey());
+                if (names == null) {
+                    names = new TreeMap<String, String>();
+                    claims.put(namespace.getKey(), names);
+                }
+                for (Map.Entry<String, String> assignment : namespace.getValue().entrySet()) {
+                    if (!names.containsKey(assignment.getKey())) {
+                        names.put(assignment.getKey(), requestedName(assignment.getKey(), assignment.getValue()));
+                    }
+                }
+            }
+        }
+        for (Map.Entry<String, Map<String, String>> namespace : claims.entrySet()) {
+            for (Map.Entry<String, String> claim : namespace.getValue().entrySet()) {
+                allocator.allocate(namespace.getKey(), claim.getKey(), claim.getValue());
+            }
+        }
+        return allocator;
+    }
+
+    /**
+     * @return the name a type asked for, without the suffix {@link ModelIdAllocator} appends to colliding names.
+     */
+    private static String requestedName(String qualifiedTypeName, String id) {
+        String suffix = "_" + qualifiedTypeName.replace('.', '_').replace('$', '_');
+        int index = id.lastIndexOf(suffix);
+        if (index > 0 && id.substring(index + suffix.length()).replace("_", "").isEmpty()) {
+            return id.substring(0, index);
+        }
+        return id;
+    }
+
+    private static Map<String, Map<String, String>> readModelIds(File modelIdFile) throws IOException {
+        if (!modelIdFile.isFile()) {
+            return Collections.emptyMap();
+        }
+        return new ObjectMapper().readValue(modelIdFile, new TypeReference<Map<String, Map<String, String>>>() {
+        });
+    }
+
+    /**
+     * @return whether every type of a partition has its merged id.
+     */
+    private static boolean agrees(Map<String, Map<String, String>> partition, Map<String, Map<String, String>> merged) {
+        for (Map.Entry<String, Map<String, String>> namespace : partition.entrySet()) {
+            for (Map.Entry<String, String> assignment : namespace.getValue().entrySet()) {
+                Map<String, String> ids = merged.get(namespace.getKey());
+                if (ids == null || !assignment.getValue().equals(ids.get(assignment.getKey()))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private void mergeCommentIndexes(int partitionCount, File commentIndex) throws IOException {
+        CommentIndex merged = new CommentIndex();
+        for (int i = 0; i < partitionCount; i++) {
+            File partitionIndex = commentIndexOf(new File(workDirectory, String.valueOf(i)));
+            if (partitionIndex.isFile()) {
+                merged.getComments().putAll(CommentIndex.read(partitionIndex).getComments());
+            }
+        }
+        merged.write(commentIndex);
+    }
+
+    private static File modelIdFileOf(File partitionDirectory) {
+        return new File(partitionDirectory, "model-ids.json");
+    }
+
+    private static File commentIndexOf(File partitionDirectory) {
+        return new File(partitionDirectory, "comments.json");
+    }
+
+    private static void delete(File file) throws IOException {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        if (file.exists() && !file.delete()) {
+            throw new IOException("Unable to delete " + file);
+        }
+    }
+
+}
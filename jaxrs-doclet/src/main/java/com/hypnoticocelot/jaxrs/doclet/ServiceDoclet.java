@@ -4,9 +4,11 @@ import com.hypnoticocelot.jaxrs.doclet.parser.JaxRsAnnotationParser;
 import com.sun.javadoc.LanguageVersion;
 import com.sun.javadoc.RootDoc;
 
-import java.util.HashMap;
-import java.util.Map;
-
+/**
+ * The doclet for the javadoc of JDK 8, which reads the classes through the {@code com.sun.javadoc} API of
+ * {@code tools.jar}. Since that API was removed in JDK 13, this doclet is only built on earlier JDKs; the javadoc of
+ * JDK 9 and later runs {@code ModernServiceDoclet} instead.
+ */
 public class ServiceDoclet {
 
 	/**
@@ -16,7 +18,7 @@ public class ServiceDoclet {
 	 */
 	public static boolean start(RootDoc doc) {
 		DocletOptions options = DocletOptions.parse(doc.options());
-		return new JaxRsAnnotationParser(options, doc).run();
+		return new JaxRsAnnotationParser(options, new JavadocDocs().rootDoc(doc)).run();
 	}
 
 	/**
@@ -30,23 +32,7 @@ public class ServiceDoclet {
 	 * option not known. Negative value means error occurred.
 	 */
 	public static int optionLength(String option) {
-		Map<String, Integer> options = new HashMap<String, Integer>();
-		options.put("-d", 2);
-		options.put("-docBasePath", 2);
-		options.put("-apiBasePath", 2);
-		options.put("-apiVersion", 2);
-		options.put("-swaggerUiZipPath", 2);
-		options.put("-excludeAnnotationClasses", 2);
-		options.put("-disableModels", 1);
-		options.put("-errorTags", 2);
-		options.put("-typesToTreatAsOpaque", 2);
-
-		Integer value = options.get(option);
-		if (value != null) {
-			return value;
-		} else {
-			return 0;
-		}
+		return DocletOptions.optionLength(option);
 	}
 
 	/**
@@ -0,0 +1,72 @@
+package com.hypnoticocelot.jaxrs.doclet;
+
+import com.google.common.base.Objects;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.collect.Iterables;
+import com.hypnoticocelot.jaxrs.doclet.model.ApiDeclaration;
+import com.hypnoticocelot.jaxrs.doclet.model.Model;
+import com.hypnoticocelot.jaxrs.doclet.model.ResourceListing;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The result of a {@link ServiceGenerator} run: the resource listing, the declarations keyed by their resource path in
+ * the order of the listing, and all models keyed by their id, including those of a model catalog.
+ */
+public class ServiceDocumentation {
+
+    private final ResourceListing listing;
+    private final Map<String, ApiDeclaration> declarations;
+    private final Map<String, Model> models;
+
+    private ServiceDocumentation(ResourceListing listing, Map<String, ApiDeclaration> declarations,
+            Map<String, Model> models) {
+        this.listing = listing;
+        this.declarations = declarations;
+        this.models = models;
+    }
+
+    static ServiceDocumentation of(InMemoryRecorder recorder) {
+        ResourceListing listing = Iterables.getOnlyElement(recorder.getListings().values());
+        ImmutableMap.Builder<String, ApiDeclaration> declarations = ImmutableMap.builder();
+        Map<String, Model> models = new TreeMap<String, Model>();
+        for (ApiDeclaration declaration : recorder.getDeclarations().values()) {
+            // the model catalog is recorded as a declaration without a resource path
+            if (declaration.getResourcePath() != null) {
+                declarations.put(declaration.getResourcePath(), declaration);
+            }
+            if (declaration.getModels() != null) {
+                for (Map.Entry<String, Model> model : declaration.getModels().entrySet()) {
+                    if (!models.containsKey(model.getKey())) {
+                        models.put(model.getKey(), model.getValue());
+                    }
+                }
+            }
+        }
+        return new ServiceDocumentation(listing, declarations.build(), ImmutableSortedMap.copyOf(models));
+    }
+
+    public ResourceListing getListing() {
+        return listing;
+    }
+
+    public Map<String, ApiDeclaration> getDeclarations() {
+        return declarations;
+    }
+
+    public Map<String, Model> getModels() {
+        return models;
+    }
+
+    @Override
+    public String toString() {
+        return Objects.toStringHelper(this)
+                .add("listing", listing)
+                .add("declarations", declarations.keySet())
+                .add("models", models.keySet())
+                .toString();
+    }
+
+}
@@ -0,0 +1,37 @@
+package com.hypnoticocelot.jaxrs.doclet;
+
+import com.hypnoticocelot.jaxrs.doclet.doc.RootDoc;
+import com.hypnoticocelot.jaxrs.doclet.parser.JaxRsAnnotationParser;
+
+import java.io.IOException;
+
+/**
+ * Generates the documentation in memory, for tools that embed the doclet. Every run uses a copy of the given options
+ * that records into an {@link InMemoryRecorder} without an output directory: swagger-ui, the bundle and incremental
+ * generation are left out and no existing output is merged, so nothing is read from or written to disk besides a model
+ * id file. The given options are not changed.
+ */
+public class ServiceGenerator {
+
+    private final DocletOptions options;
+
+    public ServiceGenerator(DocletOptions options) {
+        this.options = options;
+    }
+
+    public ServiceDocumentation generate(RootDoc rootDoc) throws IOException {
+        InMemoryRecorder recorder = new InMemoryRecorder();
+        DocletOptions options = this.options.copy()
+                .setRecorder(recorder)
+                .setOutputDirectory(null)
+                .setSwaggerUiZipPath(null)
+                .setIncremental(false)
+                .setBundle(false)
+                .setMergeExistingOutput(false);
+        if (!new JaxRsAnnotationParser(options, rootDoc).run()) {
+            throw new IOException("Unable to generate the documentation");
+        }
+        return ServiceDocumentation.of(recorder);
+    }
+
+}
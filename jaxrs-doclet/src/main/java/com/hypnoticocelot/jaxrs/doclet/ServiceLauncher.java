@@ -0,0 +1,58 @@
+package com.hypnoticocelot.jaxrs.doclet;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.Iterables;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Runs javadoc with the doclet on the source files it needs, see {@link SourceClosure}, instead of on all sources.
+ * Takes {@code -sourcepath} and optionally {@code -subpackages} like javadoc, with the packages separated by colons,
+ * followed by any other javadoc and doclet options. The source path stays available to javadoc for all other classes.
+ * The doclet is the one for the running JDK, see {@link JavadocLauncher}.
+ * <pre>
+ * java -cp jaxrs-doclet.jar com.hypnoticocelot.jaxrs.doclet.ServiceLauncher \
+ *     -sourcepath src/main/java -subpackages com.example.api -classpath ... -d target/apidocs
+ * </pre>
+ */
+public class ServiceLauncher {
+
+    public static void main(String[] args) throws IOException {
+        String sourcePath = null;
+        List<String> packages = new ArrayList<String>();
+        List<String> javadocArgs = new ArrayList<String>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-sourcepath") && i + 1 < args.length) {
+                sourcePath = args[++i];
+            } else if (args[i].equals("-subpackages") && i + 1 < args.length) {
+                Iterables.addAll(packages, Splitter.on(':').omitEmptyStrings().split(args[++i]));
+            } else {
+                javadocArgs.add(args[i]);
+            }
+        }
+        if (sourcePath == null) {
+            System.err.println("-sourcepath is required");
+            System.exit(2);
+        }
+
+        List<File> sourceRoots = new ArrayList<File>();
+        for (String root : Splitter.on(File.pathSeparatorChar).omitEmptyStrings().split(sourcePath)) {
+            sourceRoots.add(new File(root));
+        }
+        SourceClosure closure = new SourceClosure(sourceRoots, packages);
+        Set<File> files = closure.compute();
+        System.out.println("Documenting " + files.size() + " of " + closure.size() + " source files");
+
+        javadocArgs.add("-sourcepath");
+        javadocArgs.add(sourcePath);
+        for (File file : files) {
+            javadocArgs.add(file.getPath());
+        }
+        System.exit(JavadocLauncher.run(javadocArgs.toArray(new String[javadocArgs.size()])));
+    }
+
+}
@@ -0,0 +1,250 @@
+package com.hypnoticocelot.jaxrs.doclet;
+
+import com.google.common.io.Files;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static com.google.common.base.Charsets.ISO_8859_1;
+
+/**
+ * Finds the source files javadoc has to read for the documentation, without parsing them. The seeds are the files that
+ * mention {@code javax.ws.rs}, which are the resources and sub-resources, and the files that mention a root element
+ * annotation, which claim model ids in every full run. The closure adds every file a file in it refers to: each name in
+ * a file, comments included, is resolved against its package, its imports and the qualified names of all source files.
+ * The closure may so contain more files than needed, but not fewer.
+ * <p/>
+ * Every file is expected to be named after its top-level class, as javac expects of public classes.
+ */
+public class SourceClosure {
+
+    private static final byte[] JAX_RS = "javax.ws.rs".getBytes(ISO_8859_1);
+    private static final byte[][] SEEDS = {
+            JAX_RS,
+            // the root element annotations the default translators read
+            "XmlRootElement".getBytes(ISO_8859_1),
+            "JsonRootName".getBytes(ISO_8859_1)
+    };
+    private static final Pattern PACKAGE = Pattern.compile("\\bpackage\\s+([\\w.]+)\\s*;");
+    private static final Pattern IMPORT = Pattern.compile("\\bimport\\s+(?:static\\s+)?([\\w.]+?)(\\.\\*)?\\s*;");
+    private static final Pattern NAME = Pattern.compile("\\p{javaJavaIdentifierStart}\\p{javaJavaIdentifierPart}*"
+            + "(?:\\.\\p{javaJavaIdentifierStart}\\p{javaJavaIdentifierPart}*)*");
+
+    private final Map<String, File> files = new LinkedHashMap<String, File>();
+    private final Map<File, String> packages = new HashMap<File, String>();
+
+    /**
+     * @param packages the packages with their subpackages to document, all packages on the source path if empty.
+     */
+    public SourceClosure(List<File> sourcePath, List<String> packages) {
+        for (File root : sourcePath) {
+            if (packages.isEmpty()) {
+                index(root, "");
+            } else {
+                for (String packageName : packages) {
+                    index(new File(root, packageName.replace('.', File.separatorChar)), packageName + ".");
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the number of source files in the documented packages.
+     */
+    public int size() {
+        return files.size();
+    }
+
+    /**
+     * @return the source files to document in the order they were found in, all of them if none is a seed.
+     */
+    public Set<File> compute() throws IOException {
+        Set<File> closure = new HashSet<File>();
+        Deque<File> pending = new ArrayDeque<File>();
+        for (File file : files.values()) {
+            if (isSeed(file) && closure.add(file)) {
+                pending.add(file);
+            }
+        }
+        if (closure.isEmpty()) {
+            return new LinkedHashSet<File>(files.values());
+        }
+        while (!pending.isEmpty()) {
+            for (File reference : referencesOf(pending.remove())) {
+                if (closure.add(reference)) {
+                    pending.add(reference);
+                }
+            }
+        }
+        // javadoc keeps the order of the files, which becomes the order of the resource listing
+        Set<File> ordered = new LinkedHashSet<File>();
+        for (File file : files.values()) {
+            if (closure.contains(file)) {
+                ordered.add(file);
+            }
+        }
+        return ordered;
+    }
+
+    /**
+     * @return the files that mention {@code javax.ws.rs} which the given files refer to, directly or through other such
+     * files, in the order they were found in. These are the sub-resources the given files may need.
+     */
+    public Set<File> resourcesReferencedBy(Collection<File> referencing) throws IOException {
+        Set<File> resources = new HashSet<File>();
+        Deque<File> pending = new ArrayDeque<File>(referencing);
+        Set<File> visited = new HashSet<File>(referencing);
+        while (!pending.isEmpty()) {
+            for (File reference : referencesOf(pending.remove())) {
+                if (visited.add(reference) && mentions(reference, JAX_RS)) {
+                    resources.add(reference);
+                    pending.add(reference);
+                }
+            }
+        }
+        Set<File> ordered = new LinkedHashSet<File>();
+        for (File file : files.values()) {
+            if (resources.contains(file)) {
+                ordered.add(file);
+            }
+        }
+        return ordered;
+    }
+
+    /**
+     * @return the package of an indexed file.
+     */
+    public String packageOf(File file) {
+        return packages.get(file);
+    }
+
+    /**
+     * Indexes the files in the order javadoc reads them with {@code -subpackages}: the packages in the order of the
+     * directory listing, each before its subpackages, and the files of a package in the reverse order of the listing.
+     */
+    private void index(File directory, String packagePrefix) {
+        File[] children = directory.listFiles();
+        if (children == null) {
+            return;
+        }
+        List<File> packageFiles = new ArrayList<File>();
+        for (File child : children) {
+            String name = child.getName();
+            if (child.isFile() && name.endsWith(".java") && !name.equals("package-info.java")) {
+                packageFiles.add(0, child);
+            }
+        }
+        for (File file : packageFiles) {
+            String name = file.getName();
+            String className = packagePrefix + name.substring(0, name.length() - ".java".length());
+            if (!files.containsKey(className)) {
+                files.put(className, file);
+                packages.put(file, packagePrefix.isEmpty() ? "" : packagePrefix.substring(0, packagePrefix.length() - 1));
+            }
+        }
+        for (File child : children) {
+            if (child.isDirectory()) {
+                index(child, packagePrefix + child.getName() + ".");
+            }
+        }
+    }
+
+    private static boolean isSeed(File file) throws IOException {
+        return mentions(file, SEEDS);
+    }
+
+    private static boolean mentions(File file, byte[]... texts) throws IOException {
+        RandomAccessFile input = new RandomAccessFile(file, "r");
+        try {
+            MappedByteBuffer buffer = input.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, input.length());
+            for (byte[] text : texts) {
+                if (contains(buffer, text)) {
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            input.close();
+        }
+    }
+
+    private static boolean contains(MappedByteBuffer buffer, byte[] bytes) {
+        int last = buffer.limit() - bytes.length;
+        outer:
+        for (int i = 0; i <= last; i++) {
+            for (int j = 0; j < bytes.length; j++) {
+                if (buffer.get(i + j) != bytes[j]) {
+                    continue outer;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private Set<File> referencesOf(File file) throws IOException {
+        String source = Files.toString(file, ISO_8859_1);
+        Matcher packageMatcher = PACKAGE.matcher(source);
+        String packagePrefix = packageMatcher.find() ? packageMatcher.group(1) + "." : "";
+        Map<String, String> singleImports = new HashMap<String, String>();
+        List<String> onDemandImports = new ArrayList<String>();
+        Matcher importMatcher = IMPORT.matcher(source);
+        while (importMatcher.find()) {
+            String imported = importMatcher.group(1);
+            if (importMatcher.group(2) != null) {
+                onDemandImports.add(imported + ".");
+            } else {
+                singleImports.put(imported.substring(imported.lastIndexOf('.') + 1), imported);
+            }
+        }
+
+        Set<File> references = new HashSet<File>();
+        Set<String> seen = new HashSet<String>();
+        Matcher nameMatcher = NAME.matcher(source);
+        while (nameMatcher.find()) {
+            String name = nameMatcher.group();
+            if (!seen.add(name)) {
+                continue;
+            }
+            resolve(name, references);
+            int dot = name.indexOf('.');
+            String simpleName = dot < 0 ? name : name.substring(0, dot);
+            resolve(packagePrefix + simpleName, references);
+            String imported = singleImports.get(simpleName);
+            if (imported != null) {
+                resolve(imported, references);
+            }
+            for (String onDemandImport : onDemandImports) {
+                resolve(onDemandImport + simpleName, references);
+            }
+        }
+        return references;
+    }
+
+    /**
+     * Adds the file of the longest prefix of the qualified name that is a top-level class, so nested classes resolve
+     * to the file of their top-level class.
+     */
+    private void resolve(String qualifiedName, Set<File> references) {
+        String name = qualifiedName;
+        while (true) {
+            File file = files.get(name);
+            if (file != null) {
+                references.add(file);
+                return;
+            }
+            int dot = name.lastIndexOf('.');
+            if (dot < 0) {
+                return;
+            }
+            name = name.substring(0, dot);
+        }
+    }
+
+}
@@ -0,0 +1,218 @@
+package com.hypnoticocelot.jaxrs.doclet;
+
+import com.hypnoticocelot.jaxrs.doclet.model.ApiDeclaration;
+import com.hypnoticocelot.jaxrs.doclet.model.ResourceListing;
+
+import java.io.File;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Stages every generation in a copy of the output directory next to it and swaps it in as a whole on commit, so readers
+ * never see a mix of two generations. The output directory is a symbolic link to the current generation, which is
+ * renamed to ".&lt;name&gt;.&lt;time&gt;" on commit, and the link is replaced atomically to point at it. The first
+ * commit creates the link if the output directory does not exist yet; an output directory that is not a symbolic link
+ * is never published to, as replacing a directory takes two renames with no output in between. The previous generation
+ * is kept as the link "&lt;name&gt;.previous" next to the output directory, so it can be restored by renaming it back.
+ * <p/>
+ * Every begin copies the whole current generation, swagger-ui included, as the recorders overwrite files in place.
+ * Runs publishing to the same output directory are serialized from begin to commit, also across processes.
+ */
+public class StagingRecorder implements TransactionalRecorder, Flushable {
+
+    private static final ConcurrentMap<File, Semaphore> PUBLISHING = new ConcurrentHashMap<File, Semaphore>();
+
+    private final Recorder delegate;
+    private File outputDirectory;
+    private File staging;
+    private Semaphore publishing;
+    private RandomAccessFile lockFile;
+
+    public StagingRecorder(Recorder delegate) {
+        this.delegate = delegate;
+    }
+
+    public Recorder getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public synchronized File begin(File outputDirectory) throws IOException {
+        if (staging != null) {
+            throw new IllegalStateException("A generation of " + this.outputDirectory + " is already staged");
+        }
+        File directory = outputDirectory.getAbsoluteFile();
+        Semaphore semaphore = PUBLISHING.get(directory);
+        if (semaphore == null) {
+            PUBLISHING.putIfAbsent(directory, new Semaphore(1));
+            semaphore = PUBLISHING.get(directory);
+        }
+        semaphore.acquireUninterruptibly();
+        publishing = semaphore;
+        this.outputDirectory = directory;
+        Files.createDirectories(directory.toPath().getParent());
+        lockFile = new RandomAccessFile(sibling(".lock").toFile(), "rw");
+        lockFile.getChannel().lock();
+        if (Files.exists(directory.toPath(), LinkOption.NOFOLLOW_LINKS) && !Files.isSymbolicLink(directory.toPath())) {
+            throw new IOException(directory + " is not a symbolic link to the generation to replace");
+        }
+
+        staging = sibling(".staging").toFile();
+        // left behind by a run that did not finish
+        deleteRecursively(staging.toPath());
+        if (Files.exists(directory.toPath())) {
+            copyRecursively(directory.toPath().toRealPath(), staging.toPath());
+        } else {
+            // the first generation starts empty
+            Files.createDirectories(staging.toPath());
+        }
+        return staging;
+    }
+
+    @Override
+    public synchronized void commit() throws IOException {
+        if (staging == null) {
+            throw new IllegalStateException("No generation is staged");
+        }
+        flush();
+        Path target = outputDirectory.toPath();
+        Path previous = outputDirectory.toPath().resolveSibling(outputDirectory.getName() + ".previous");
+        try {
+            Path current = Files.isSymbolicLink(target) ? Files.readSymbolicLink(target) : null;
+            Path generation = newGeneration();
+            Files.move(staging.toPath(), generation, StandardCopyOption.ATOMIC_MOVE);
+            Path link = sibling(".link");
+            Files.deleteIfExists(link);
+            Files.createSymbolicLink(link, generation.getFileName());
+            Files.move(link, target, StandardCopyOption.ATOMIC_MOVE);
+            staging = null;
+            if (current != null) {
+                // the generation before the previous one is no longer needed if it was created here
+                if (Files.isSymbolicLink(previous)) {
+                    Path older = Files.readSymbolicLink(previous);
+                    if (older.getFileName().toString().startsWith("." + outputDirectory.getName() + ".")) {
+                        deleteRecursively(target.resolveSibling(older));
+                    }
+                }
+                deleteRecursively(previous);
+                Files.createSymbolicLink(previous, current);
+            }
+        } finally {
+            release();
+        }
+    }
+
+    @Override
+    public synchronized void rollback() throws IOException {
+        try {
+            if (staging != null) {
+                deleteRecursively(staging.toPath());
+                staging = null;
+            }
+        } finally {
+            release();
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (delegate instanceof Flushable) {
+            ((Flushable) delegate).flush();
+        }
+    }
+
+    @Override
+    public void record(File file, ResourceListing listing) throws IOException {
+        delegate.record(file, listing);
+    }
+
+    @Override
+    public void record(File file, ApiDeclaration declaration) throws IOException {
+        delegate.record(file, declaration);
+    }
+
+    @Override
+    public void record(File file, InputStream stream) throws IOException {
+        delegate.record(file, stream);
+    }
+
+    private Path sibling(String suffix) {
+        return outputDirectory.toPath().resolveSibling("." + outputDirectory.getName() + suffix);
+    }
+
+    /**
+     * @return a directory name for the next generation that is not taken yet.
+     */
+    private Path newGeneration() {
+        long time = System.currentTimeMillis();
+        Path generation = sibling("." + time);
+        while (Files.exists(generation, LinkOption.NOFOLLOW_LINKS)) {
+            generation = sibling("." + ++time);
+        }
+        return generation;
+    }
+
+    private void release() throws IOException {
+        try {
+            if (lockFile != null) {
+                lockFile.close();
+            }
+        } finally {
+            lockFile = null;
+            if (publishing != null) {
+                publishing.release();
+                publishing = null;
+            }
+        }
+    }
+
+    private static void copyRecursively(final Path source, final Path target) throws IOException {
+        Files.walkFileTree(source, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path directory, BasicFileAttributes attributes) throws IOException {
+                Files.createDirectories(target.resolve(source.relativize(directory)));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) throws IOException {
+                Files.copy(file, target.resolve(source.relativize(file)), StandardCopyOption.COPY_ATTRIBUTES,
+                        LinkOption.NOFOLLOW_LINKS);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * Deletes a directory tree without following symbolic links, or the link itself if the path is one.
+     */
+    private static void deleteRecursively(Path path) throws IOException {
+        if (!Files.exists(path, LinkOption.NOFOLLOW_LINKS)) {
+            return;
+        }
+        Files.walkFileTree(path, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path directory, IOException e) throws IOException {
+                if (e != null) {
+                    throw e;
+                }
+                Files.delete(directory);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+}
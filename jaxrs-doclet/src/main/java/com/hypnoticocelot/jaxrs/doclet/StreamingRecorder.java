@@ -0,0 +1,230 @@
+package com.hypnoticocelot.jaxrs.doclet;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
+import com.hypnoticocelot.jaxrs.doclet.model.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+
+/**
+ * Writes the same JSON as {@link ObjectMapperRecorder}, but walks the model classes directly with a
+ * {@link JsonGenerator} instead of introspecting them through databind. The buffers of the in-memory rendering used in
+ * write-if-changed and gzip modes are reused across files.
+ */
+public class StreamingRecorder extends FileRecorder {
+    private final JsonFactory factory = new JsonFactory();
+    private final ThreadLocal<ByteArrayOutputStream> buffers = new ThreadLocal<ByteArrayOutputStream>() {
+        @Override
+        protected ByteArrayOutputStream initialValue() {
+            return new ByteArrayOutputStream(64 * 1024);
+        }
+    };
+
+    @Override
+    public void record(File file, final ApiDeclaration declaration) throws IOException {
+        record(file, new Document() {
+            @Override
+            void writeTo(JsonGenerator generator) throws IOException {
+                writeDeclaration(generator, declaration);
+            }
+        });
+    }
+
+    @Override
+    public void record(File file, final ResourceListing listing) throws IOException {
+        record(file, new Document() {
+            @Override
+            void writeTo(JsonGenerator generator) throws IOException {
+                writeListing(generator, listing);
+            }
+        });
+    }
+
+    private void record(File file, Document document) throws IOException {
+        if (isRenderedInMemory()) {
+            ByteArrayOutputStream buffer = buffers.get();
+            buffer.reset();
+            render(buffer, document);
+            writeDocument(file, buffer.toByteArray());
+        } else {
+            render(new FileOutputStream(file), document);
+        }
+    }
+
+    private void render(OutputStream stream, Document document) throws IOException {
+        JsonGenerator generator = factory.createGenerator(stream, JsonEncoding.UTF8);
+        try {
+            if (!isCompact()) {
+                generator.setPrettyPrinter(new DefaultPrettyPrinter());
+            }
+            document.writeTo(generator);
+        } finally {
+            generator.close();
+        }
+    }
+
+    private static void writeListing(JsonGenerator generator, ResourceListing listing) throws IOException {
+        generator.writeStartObject();
+        writeString(generator, "apiVersion", listing.getApiVersion());
+        writeString(generator, "basePath", listing.getBasePath());
+        if (listing.getApis() != null) {
+            generator.writeArrayFieldStart("apis");
+            for (ResourceListingAPI api : listing.getApis()) {
+                generator.writeStartObject();
+                writeString(generator, "path", api.getPath());
+                writeString(generator, "description", api.getDescription());
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+        }
+        writeString(generator, "swaggerVersion", listing.getSwaggerVersion());
+        generator.writeEndObject();
+    }
+
+    private static void writeDeclaration(JsonGenerator generator, ApiDeclaration declaration) throws IOException {
+        generator.writeStartObject();
+        writeString(generator, "apiVersion", declaration.getApiVersion());
+        writeString(generator, "swaggerVersion", declaration.getSwaggerVersion());
+        writeString(generator, "basePath", declaration.getBasePath());
+        writeString(generator, "resourcePath", declaration.getResourcePath());
+        if (declaration.getApis() != null) {
+            generator.writeArrayFieldStart("apis");
+            for (Api api : declaration.getApis()) {
+                writeApi(generator, api);
+            }
+            generator.writeEndArray();
+        }
+        if (declaration.getModels() != null) {
+            generator.writeObjectFieldStart("models");
+            for (Map.Entry<String, Model> model : declaration.getModels().entrySet()) {
+                generator.writeFieldName(model.getKey());
+                writeModel(generator, model.getValue());
+            }
+            generator.writeEndObject();
+        }
+        writeString(generator, "modelCatalog", declaration.getModelCatalog());
+        if (declaration.getCatalogModels() != null) {
+            generator.writeArrayFieldStart("catalogModels");
+            for (String id : declaration.getCatalogModels()) {
+                generator.writeString(id);
+            }
+            generator.writeEndArray();
+        }
+        writeString(generator, "description", declaration.getDescription());
+        generator.writeEndObject();
+    }
+
+    private static void writeApi(JsonGenerator generator, Api api) throws IOException {
+        generator.writeStartObject();
+        writeString(generator, "path", api.getPath());
+        writeString(generator, "description", api.getDescription());
+        if (api.getOperations() != null) {
+            generator.writeArrayFieldStart("operations");
+            for (Operation operation : api.getOperations()) {
+                writeOperation(generator, operation);
+            }
+            generator.writeEndArray();
+        }
+        generator.writeEndObject();
+    }
+
+    private static void writeOperation(JsonGenerator generator, Operation operation) throws IOException {
+        generator.writeStartObject();
+        if (operation.getHttpMethod() != null) {
+            generator.writeStringField("httpMethod", operation.getHttpMethod().name());
+        }
+        writeString(generator, "nickname", operation.getNickname());
+        writeString(generator, "responseClass", operation.getResponseClass());
+        if (operation.getParameters() != null) {
+            generator.writeArrayFieldStart("parameters");
+            for (ApiParameter parameter : operation.getParameters()) {
+                writeParameter(generator, parameter);
+            }
+            generator.writeEndArray();
+        }
+        writeString(generator, "summary", operation.getSummary());
+        writeString(generator, "notes", operation.getNotes());
+        if (operation.getResponseMessages() != null) {
+            generator.writeArrayFieldStart("errorResponses");
+            for (ApiResponseMessage message : operation.getResponseMessages()) {
+                generator.writeStartObject();
+                generator.writeNumberField("code", message.getCode());
+                writeString(generator, "reason", message.getMessage());
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+        }
+        generator.writeEndObject();
+    }
+
+    private static void writeParameter(JsonGenerator generator, ApiParameter parameter) throws IOException {
+        generator.writeStartObject();
+        writeString(generator, "paramType", parameter.getParamType());
+        writeString(generator, "name", parameter.getName());
+        writeString(generator, "description", parameter.getDescription());
+        writeString(generator, "dataType", parameter.getDataType());
+        generator.writeBooleanField("required", parameter.getRequired());
+        writeAllowableValues(generator, parameter.getAllowableValues());
+        generator.writeEndObject();
+    }
+
+    private static void writeModel(JsonGenerator generator, Model model) throws IOException {
+        generator.writeStartObject();
+        writeString(generator, "id", model.getId());
+        if (model.getProperties() != null) {
+            generator.writeObjectFieldStart("properties");
+            for (Map.Entry<String, Property> property : model.getProperties().entrySet()) {
+                generator.writeFieldName(property.getKey());
+                writeProperty(generator, property.getValue());
+            }
+            generator.writeEndObject();
+        }
+        generator.writeEndObject();
+    }
+
+    private static void writeProperty(JsonGenerator generator, Property property) throws IOException {
+        generator.writeStartObject();
+        writeString(generator, "type", property.getType());
+        writeString(generator, "description", property.getDescription());
+        writeAllowableValues(generator, property.getAllowableValues());
+        if (property.getContainerOf() != null) {
+            generator.writeObjectFieldStart("items");
+            generator.writeStringField("$ref", property.getContainerOf());
+            generator.writeEndObject();
+        }
+        generator.writeEndObject();
+    }
+
+    private static void writeAllowableValues(JsonGenerator generator, AllowableValues allowableValues) throws IOException {
+        if (allowableValues == null) {
+            return;
+        }
+        generator.writeObjectFieldStart("allowableValues");
+        if (allowableValues.getValues() != null) {
+            generator.writeArrayFieldStart("values");
+            for (String value : allowableValues.getValues()) {
+                generator.writeString(value);
+            }
+            generator.writeEndArray();
+        }
+        writeString(generator, "valueType", allowableValues.getValueType());
+        generator.writeEndObject();
+    }
+
+    private static void writeString(JsonGenerator generator, String name, String value) throws IOException {
+        if (value != null) {
+            generator.writeStringField(name, value);
+        }
+    }
+
+    private abstract static class Document {
+        abstract void writeTo(JsonGenerator generator) throws IOException;
+    }
+}
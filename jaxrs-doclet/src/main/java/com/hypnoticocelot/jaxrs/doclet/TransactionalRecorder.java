@@ -0,0 +1,29 @@
+package com.hypnoticocelot.jaxrs.doclet;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * A recorder that publishes a whole generation at once. The parser calls {@link #begin(File)} before it writes
+ * anything and then writes into the returned directory instead of the output directory, followed by {@link #commit()}
+ * if the generation succeeded or {@link #rollback()} otherwise.
+ */
+public interface TransactionalRecorder extends Recorder {
+
+    /**
+     * @return the directory the generation is written to until it is committed. It starts with the current content of
+     * the output directory.
+     */
+    File begin(File outputDirectory) throws IOException;
+
+    /**
+     * Replaces the output directory by the written generation.
+     */
+    void commit() throws IOException;
+
+    /**
+     * Discards the written generation. Does nothing if there is none.
+     */
+    void rollback() throws IOException;
+
+}
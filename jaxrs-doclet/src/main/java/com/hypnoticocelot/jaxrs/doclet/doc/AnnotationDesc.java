@@ -0,0 +1,26 @@
+package com.hypnoticocelot.jaxrs.doclet.doc;
+
+/**
+ * An annotation of a declaration, with the values given explicitly.
+ */
+public interface AnnotationDesc {
+
+    /**
+     * @return the annotation type, which may throw a {@link RuntimeException} if javadoc cannot resolve it.
+     */
+    ClassDoc annotationType();
+
+    ElementValuePair[] elementValues();
+
+    interface ElementValuePair {
+
+        /**
+         * @return the element of the annotation type the value is given for.
+         */
+        MethodDoc element();
+
+        AnnotationValue value();
+
+    }
+
+}
@@ -0,0 +1,14 @@
+package com.hypnoticocelot.jaxrs.doclet.doc;
+
+/**
+ * The value of an element of an annotation.
+ */
+public interface AnnotationValue {
+
+    /**
+     * @return a wrapped primitive or string, a {@link Type} for a class literal, a {@link FieldDoc} for an enum constant,
+     * an {@link AnnotationDesc} or an array of {@link AnnotationValue}s.
+     */
+    Object value();
+
+}
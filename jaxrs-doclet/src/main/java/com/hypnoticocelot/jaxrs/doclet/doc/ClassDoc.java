@@ -0,0 +1,50 @@
+package com.hypnoticocelot.jaxrs.doclet.doc;
+
+/**
+ * A class, interface, enum or annotation type, which is also the type of its uses without type arguments.
+ */
+public interface ClassDoc extends ProgramElementDoc, Type {
+
+    boolean isInterface();
+
+    boolean isEnum();
+
+    PackageDoc containingPackage();
+
+    /**
+     * @return the methods the run documents, which are all declared methods unless javadoc filters them by access.
+     */
+    MethodDoc[] methods();
+
+    /**
+     * @param filter whether to leave out the methods the run does not document, see {@link #methods()}.
+     */
+    MethodDoc[] methods(boolean filter);
+
+    /**
+     * @return the fields the run documents, without the enum constants.
+     */
+    FieldDoc[] fields();
+
+    /**
+     * @param filter whether to leave out the fields the run does not document, see {@link #methods()}.
+     */
+    FieldDoc[] fields(boolean filter);
+
+    FieldDoc[] enumConstants();
+
+    /**
+     * @return the superclass, null for interfaces and {@code java.lang.Object}.
+     */
+    ClassDoc superclass();
+
+    ClassDoc[] interfaces();
+
+    /**
+     * @return the implemented interfaces with their type arguments.
+     */
+    Type[] interfaceTypes();
+
+    TypeVariable[] typeParameters();
+
+}
@@ -0,0 +1,36 @@
+package com.hypnoticocelot.jaxrs.doclet.doc;
+
+/**
+ * A documented element with its comment. The text of the comment is given back the way javadoc gives it, with the inline
+ * tags as written.
+ */
+public interface Doc {
+
+    String name();
+
+    /**
+     * @return the main description of the comment, without the block tags, or an empty string.
+     */
+    String commentText();
+
+    /**
+     * @return the comment as it is in the source, or an empty string.
+     */
+    String getRawCommentText();
+
+    /**
+     * @return the first sentence of the main description, split into the text and the inline tags.
+     */
+    Tag[] firstSentenceTags();
+
+    /**
+     * @param tagName the name of the block tag, with or without the leading {@code @}.
+     */
+    Tag[] tags(String tagName);
+
+    /**
+     * @return the position of the declaration in its source file, null if the element was not read from a source.
+     */
+    SourcePosition position();
+
+}
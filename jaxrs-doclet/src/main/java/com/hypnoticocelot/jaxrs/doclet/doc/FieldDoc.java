@@ -0,0 +1,10 @@
+package com.hypnoticocelot.jaxrs.doclet.doc;
+
+/**
+ * A field or an enum constant.
+ */
+public interface FieldDoc extends ProgramElementDoc {
+
+    Type type();
+
+}
@@ -0,0 +1,25 @@
+package com.hypnoticocelot.jaxrs.doclet.doc;
+
+/**
+ * A method, including the elements of annotation types.
+ */
+public interface MethodDoc extends ProgramElementDoc {
+
+    Type returnType();
+
+    /**
+     * @return the parameters, which may be new objects on every call.
+     */
+    Parameter[] parameters();
+
+    /**
+     * @return the {@code @param} tags of the parameters, without those of the type parameters.
+     */
+    ParamTag[] paramTags();
+
+    /**
+     * @return the qualified types of the parameters in parentheses, for example {@code (java.util.List<java.lang.String>, int)}.
+     */
+    String signature();
+
+}
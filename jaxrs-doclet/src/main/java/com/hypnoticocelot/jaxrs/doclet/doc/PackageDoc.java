@@ -0,0 +1,13 @@
+package com.hypnoticocelot.jaxrs.doclet.doc;
+
+/**
+ * The package of a class.
+ */
+public interface PackageDoc {
+
+    /**
+     * @return the qualified name, an empty string for the unnamed package.
+     */
+    String name();
+
+}
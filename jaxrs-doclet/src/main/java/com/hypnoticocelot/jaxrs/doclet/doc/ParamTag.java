@@ -0,0 +1,15 @@
+package com.hypnoticocelot.jaxrs.doclet.doc;
+
+/**
+ * A {@code @param} tag of a method parameter.
+ */
+public interface ParamTag extends Tag {
+
+    String parameterName();
+
+    /**
+     * @return the description after the name of the parameter.
+     */
+    String parameterComment();
+
+}
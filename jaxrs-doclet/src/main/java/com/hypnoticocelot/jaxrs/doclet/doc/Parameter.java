@@ -0,0 +1,17 @@
+package com.hypnoticocelot.jaxrs.doclet.doc;
+
+/**
+ * A parameter of a method.
+ */
+public interface Parameter {
+
+    /**
+     * @return the name in the source, or in the class file if it was compiled with the names.
+     */
+    String name();
+
+    Type type();
+
+    AnnotationDesc[] annotations();
+
+}
@@ -0,0 +1,10 @@
+package com.hypnoticocelot.jaxrs.doclet.doc;
+
+/**
+ * The use of a generic class with type arguments.
+ */
+public interface ParameterizedType extends Type {
+
+    Type[] typeArguments();
+
+}
@@ -0,0 +1,20 @@
+package com.hypnoticocelot.jaxrs.doclet.doc;
+
+/**
+ * A class or one of its members.
+ */
+public interface ProgramElementDoc extends Doc {
+
+    String qualifiedName();
+
+    /**
+     * @return the class the element is declared in, null for a top-level class.
+     */
+    ClassDoc containingClass();
+
+    /**
+     * @return the annotations of the declaration, in declaration order.
+     */
+    AnnotationDesc[] annotations();
+
+}
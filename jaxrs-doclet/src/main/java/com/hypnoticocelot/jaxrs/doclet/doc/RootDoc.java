@@ -0,0 +1,21 @@
+package com.hypnoticocelot.jaxrs.doclet.doc;
+
+/**
+ * The classes of a run, as the parsers read them. This is the part of the javadoc API the parsers use, implemented on
+ * top of the javadoc of JDK 8 by {@code ServiceDoclet} and on top of {@code javax.lang.model} by the doclet, the
+ * processor and the scanner in the {@code processor} package. Every class, method and field is represented by a
+ * single object, so they can be compared by identity.
+ */
+public interface RootDoc {
+
+    /**
+     * @return the included classes, including nested classes, in the order in which they were found.
+     */
+    ClassDoc[] classes();
+
+    /**
+     * @return the class with the given qualified name, whether it is included or not, null if it cannot be found.
+     */
+    ClassDoc classNamed(String qualifiedName);
+
+}
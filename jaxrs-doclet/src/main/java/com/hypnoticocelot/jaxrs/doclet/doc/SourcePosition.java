@@ -0,0 +1,19 @@
+package com.hypnoticocelot.jaxrs.doclet.doc;
+
+import java.io.File;
+
+/**
+ * The position of a declaration in its source file.
+ */
+public interface SourcePosition {
+
+    /**
+     * @return the source file, null if it is not a file on disk.
+     */
+    File file();
+
+    int line();
+
+    int column();
+
+}
@@ -0,0 +1,18 @@
+package com.hypnoticocelot.jaxrs.doclet.doc;
+
+/**
+ * A block tag of a comment, or a part of a sentence: either an inline tag, or the text up to the next inline tag.
+ */
+public interface Tag {
+
+    /**
+     * @return the name with the leading {@code @}, or {@code Text} for text.
+     */
+    String name();
+
+    /**
+     * @return the text after the name, or the text itself.
+     */
+    String text();
+
+}
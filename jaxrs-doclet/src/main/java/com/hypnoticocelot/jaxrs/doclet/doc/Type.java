@@ -0,0 +1,37 @@
+package com.hypnoticocelot.jaxrs.doclet.doc;
+
+/**
+ * The use of a type. An array type answers for its component type, except for its {@link #dimension()}. The
+ * {@link Object#toString()} of a type is its qualified name with its type arguments.
+ */
+public interface Type {
+
+    /**
+     * @return the qualified name without the type arguments, for example {@code java.util.Map.Entry}.
+     */
+    String qualifiedTypeName();
+
+    /**
+     * @return the name without the package, including the names of the enclosing classes.
+     */
+    String typeName();
+
+    String simpleTypeName();
+
+    /**
+     * @return the brackets of an array type, for example {@code [][]}, or an empty string.
+     */
+    String dimension();
+
+    /**
+     * @return the class of the type, or of the erasure of a type variable or wildcard, null for primitive types.
+     */
+    ClassDoc asClassDoc();
+
+    ParameterizedType asParameterizedType();
+
+    TypeVariable asTypeVariable();
+
+    WildcardType asWildcardType();
+
+}
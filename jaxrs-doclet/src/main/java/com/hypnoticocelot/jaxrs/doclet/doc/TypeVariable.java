@@ -0,0 +1,13 @@
+package com.hypnoticocelot.jaxrs.doclet.doc;
+
+/**
+ * A type parameter of a class or method, or one of its uses.
+ */
+public interface TypeVariable extends Type {
+
+    /**
+     * @return the upper bounds, of which the first one determines the erasure.
+     */
+    Type[] bounds();
+
+}
@@ -0,0 +1,12 @@
+package com.hypnoticocelot.jaxrs.doclet.doc;
+
+/**
+ * A wildcard type argument, whose names are {@code ?}.
+ */
+public interface WildcardType extends Type {
+
+    Type[] extendsBounds();
+
+    Type[] superBounds();
+
+}
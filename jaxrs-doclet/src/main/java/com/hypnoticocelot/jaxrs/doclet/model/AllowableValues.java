@@ -1,5 +1,6 @@
 package com.hypnoticocelot.jaxrs.doclet.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.base.Objects;
 
 import java.util.List;
@@ -19,6 +20,12 @@ public class AllowableValues {
         return "List";
     }
 
+    @SuppressWarnings("unused")
+    @JsonProperty("valueType")
+    private void setValueType(String valueType) {
+        // always a list
+    }
+
     public List<String> getValues() {
         return values;
     }
@@ -4,9 +4,10 @@ import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import com.google.common.base.Objects;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 
-@JsonPropertyOrder({"apiVersion", "swaggerVersion", "basePath", "resourcePath", "apis", "models"})
+@JsonPropertyOrder({"apiVersion", "swaggerVersion", "basePath", "resourcePath", "apis", "models", "modelCatalog", "catalogModels"})
 public class ApiDeclaration {
 
 	private String apiVersion;
@@ -16,6 +17,8 @@ public class ApiDeclaration {
 	private String description;
 	private Collection<Api> apis;
 	private Map<String, Model> models;
+	private String modelCatalog;
+	private List<String> catalogModels;
 
 	@SuppressWarnings("unused")
 	private ApiDeclaration() {
@@ -59,6 +62,36 @@ public class ApiDeclaration {
 		return description;
 	}
 
+	/**
+	 * @return the file of the shared model catalog the models listed by {@link #getCatalogModels()} are defined in, or
+	 * null if all models are defined in this declaration.
+	 */
+	public String getModelCatalog() {
+		return modelCatalog;
+	}
+
+	public List<String> getCatalogModels() {
+		return catalogModels;
+	}
+
+	/**
+	 * @return a copy of this declaration that takes the given models from a catalog and only defines the given inline
+	 * models itself.
+	 */
+	public ApiDeclaration withModelCatalog(String modelCatalog, List<String> catalogModels, Map<String, Model> inlineModels) {
+		ApiDeclaration declaration = new ApiDeclaration();
+		declaration.apiVersion = apiVersion;
+		declaration.swaggerVersion = swaggerVersion;
+		declaration.basePath = basePath;
+		declaration.resourcePath = resourcePath;
+		declaration.apis = apis;
+		declaration.models = inlineModels.isEmpty() ? null : inlineModels;
+		declaration.description = description;
+		declaration.modelCatalog = modelCatalog;
+		declaration.catalogModels = catalogModels.isEmpty() ? null : catalogModels;
+		return declaration;
+	}
+
 	@Override
 	public boolean equals(Object o) {
 		if (this == o) {
@@ -74,12 +107,14 @@ public class ApiDeclaration {
 				&& Objects.equal(resourcePath, that.resourcePath)
 				&& Objects.equal(apis, that.apis)
 				&& Objects.equal(description, that.description)
-				&& Objects.equal(models, that.models);
+				&& Objects.equal(models, that.models)
+				&& Objects.equal(modelCatalog, that.modelCatalog)
+				&& Objects.equal(catalogModels, that.catalogModels);
 	}
 
 	@Override
 	public int hashCode() {
-		return Objects.hashCode(apiVersion, swaggerVersion, basePath, resourcePath, apis, models, description);
+		return Objects.hashCode(apiVersion, swaggerVersion, basePath, resourcePath, apis, models, description, modelCatalog, catalogModels);
 	}
 
 	@Override
@@ -91,6 +126,8 @@ public class ApiDeclaration {
 				.add("resourcePath", resourcePath)
 				.add("apis", apis)
 				.add("models", models)
+				.add("modelCatalog", modelCatalog)
+				.add("catalogModels", catalogModels)
 				.add("description", description)
 				.toString();
 	}
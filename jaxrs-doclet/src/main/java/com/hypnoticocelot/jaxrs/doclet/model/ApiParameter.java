@@ -1,5 +1,6 @@
 package com.hypnoticocelot.jaxrs.doclet.model;
 
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import com.google.common.base.Objects;
 
 import java.util.ArrayList;
@@ -7,6 +8,7 @@ import java.util.List;
 
 import static com.google.common.base.Strings.emptyToNull;
 
+@JsonPropertyOrder({"paramType", "name", "description", "dataType", "required", "allowableValues"})
 public class ApiParameter {
     private String paramType;
     private String name;
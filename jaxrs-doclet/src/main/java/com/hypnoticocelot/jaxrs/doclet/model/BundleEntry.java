@@ -0,0 +1,58 @@
+package com.hypnoticocelot.jaxrs.doclet.model;
+
+import com.google.common.base.Objects;
+
+public class BundleEntry {
+    private String path;
+    private long offset;
+    private long length;
+
+    @SuppressWarnings("unused")
+    private BundleEntry() {
+    }
+
+    public BundleEntry(String path, long offset, long length) {
+        this.path = path;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     * @return the path of the declaration in the resource listing.
+     */
+    public String getPath() {
+        return path;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public long getLength() {
+        return length;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        BundleEntry that = (BundleEntry) o;
+        return Objects.equal(path, that.path)
+                && offset == that.offset
+                && length == that.length;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(path, offset, length);
+    }
+
+    @Override
+    public String toString() {
+        return Objects.toStringHelper(this)
+                .add("path", path)
+                .add("offset", offset)
+                .add("length", length)
+                .toString();
+    }
+}
@@ -0,0 +1,64 @@
+package com.hypnoticocelot.jaxrs.doclet.model;
+
+import com.google.common.base.Objects;
+
+import java.util.List;
+
+/**
+ * Index of a bundle, a JSON array of all declarations of a resource listing. Every entry gives the byte range of one
+ * declaration within the bundle, so a single declaration can be read without parsing the others.
+ */
+public class BundleIndex {
+    private String bundle;
+    private long length;
+    private List<BundleEntry> declarations;
+
+    @SuppressWarnings("unused")
+    private BundleIndex() {
+    }
+
+    public BundleIndex(String bundle, long length, List<BundleEntry> declarations) {
+        this.bundle = bundle;
+        this.length = length;
+        this.declarations = declarations;
+    }
+
+    /**
+     * @return the name of the bundle file, relative to the index.
+     */
+    public String getBundle() {
+        return bundle;
+    }
+
+    public long getLength() {
+        return length;
+    }
+
+    public List<BundleEntry> getDeclarations() {
+        return declarations;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        BundleIndex that = (BundleIndex) o;
+        return Objects.equal(bundle, that.bundle)
+                && length == that.length
+                && Objects.equal(declarations, that.declarations);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(bundle, length, declarations);
+    }
+
+    @Override
+    public String toString() {
+        return Objects.toStringHelper(this)
+                .add("bundle", bundle)
+                .add("length", length)
+                .add("declarations", declarations)
+                .toString();
+    }
+}
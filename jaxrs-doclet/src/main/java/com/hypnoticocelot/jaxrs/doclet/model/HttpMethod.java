@@ -1,10 +1,10 @@
 package com.hypnoticocelot.jaxrs.doclet.model;
 
-import com.sun.javadoc.AnnotationDesc;
-import com.sun.javadoc.MethodDoc;
+import com.hypnoticocelot.jaxrs.doclet.doc.AnnotationDesc;
+import com.hypnoticocelot.jaxrs.doclet.doc.MethodDoc;
+import com.hypnoticocelot.jaxrs.doclet.parser.DocCache;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Map;
 
 public enum HttpMethod {
     GET("javax.ws.rs.GET"),
@@ -18,18 +18,13 @@ public enum HttpMethod {
         this.canonicalClassname = canonicalClassname;
     }
 
-    public static HttpMethod fromMethod(MethodDoc method) {
-        List<String> typeNames = new ArrayList<String>();
-        for (AnnotationDesc annotation : method.annotations()) {
-            typeNames.add(annotation.annotationType().qualifiedTypeName());
-        }
-        HttpMethod found = null;
+    public static HttpMethod fromMethod(MethodDoc method, DocCache docCache) {
+        Map<String, AnnotationDesc> annotations = docCache.annotations(method);
         for (HttpMethod value : HttpMethod.values()) {
-            if (typeNames.contains(value.canonicalClassname)) {
-                found = value;
-                break;
+            if (annotations.containsKey(value.canonicalClassname)) {
+                return value;
             }
         }
-        return found;
+        return null;
     }
 }
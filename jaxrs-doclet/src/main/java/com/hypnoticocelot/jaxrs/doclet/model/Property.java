@@ -1,8 +1,10 @@
 package com.hypnoticocelot.jaxrs.doclet.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.base.Function;
 import com.google.common.base.Objects;
-import com.sun.javadoc.FieldDoc;
+import com.hypnoticocelot.jaxrs.doclet.doc.FieldDoc;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -57,6 +59,14 @@ public class Property {
         return allowableValues;
     }
 
+    /**
+     * @return the type of the elements if this is a container, which is serialized as {@link #getItems()}.
+     */
+    @JsonIgnore
+    public String getContainerOf() {
+        return containerOf;
+    }
+
     public Map<String, String> getItems() {
         Map<String, String> result = null;
         if (containerOf != null) {
@@ -66,6 +76,12 @@ public class Property {
         return result;
     }
 
+    @SuppressWarnings("unused")
+    @JsonProperty("items")
+    private void setItems(Map<String, String> items) {
+        containerOf = items == null ? null : items.get("$ref");
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
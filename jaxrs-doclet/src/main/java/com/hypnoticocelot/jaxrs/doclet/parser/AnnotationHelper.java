@@ -2,9 +2,9 @@ package com.hypnoticocelot.jaxrs.doclet.parser;
 
 import com.google.common.base.Predicate;
 import com.hypnoticocelot.jaxrs.doclet.DocletOptions;
-import com.sun.javadoc.AnnotationDesc;
-import com.sun.javadoc.Parameter;
-import com.sun.javadoc.Type;
+import com.hypnoticocelot.jaxrs.doclet.doc.Parameter;
+import com.hypnoticocelot.jaxrs.doclet.doc.ProgramElementDoc;
+import com.hypnoticocelot.jaxrs.doclet.doc.Type;
 import java.math.BigDecimal;
 
 import java.util.ArrayList;
@@ -30,21 +30,15 @@ public class AnnotationHelper {
         add("Date");
     }};
 
-    public static String parsePath(AnnotationDesc[] annotations) {
-        for (AnnotationDesc annotationDesc : annotations) {
-            if (annotationDesc.annotationType().qualifiedTypeName().equals(JAX_RS_PATH)) {
-                for (AnnotationDesc.ElementValuePair pair : annotationDesc.elementValues()) {
-                    if (pair.element().name().equals("value")) {
-                        String path = pair.value().value().toString();
-                        if (path.endsWith("/")) {
-                            path = path.substring(0, path.length() - 1);
-                        }
-                        return path.isEmpty() || path.startsWith("/") ? path : "/" + path;
-                    }
-                }
-            }
+    public static String parsePath(ProgramElementDoc element, DocCache docCache) {
+        String path = new AnnotationParser(element, docCache).getAnnotationValue(JAX_RS_PATH, "value");
+        if (path == null) {
+            return null;
+        }
+        if (path.endsWith("/")) {
+            path = path.substring(0, path.length() - 1);
         }
-        return null;
+        return path.isEmpty() || path.startsWith("/") ? path : "/" + path;
     }
 
     /**
@@ -80,8 +74,8 @@ public class AnnotationHelper {
     /**
      * Determines the string representation of the parameter type.
      */
-    public static String paramTypeOf(Parameter parameter) {
-        AnnotationParser p = new AnnotationParser(parameter);
+    public static String paramTypeOf(Parameter parameter, DocCache docCache) {
+        AnnotationParser p = new AnnotationParser(parameter, docCache);
         if (p.isAnnotatedBy(JAX_RS_PATH_PARAM)) {
             return "path";
         } else if (p.isAnnotatedBy(JAX_RS_QUERY_PARAM)) {
@@ -95,9 +89,9 @@ public class AnnotationHelper {
     /**
      * Determines the string representation of the parameter name.
      */
-    public static String paramNameOf(Parameter parameter) {
+    public static String paramNameOf(Parameter parameter, DocCache docCache) {
         // TODO (DL): make this part of Translator?
-        AnnotationParser p = new AnnotationParser(parameter);
+        AnnotationParser p = new AnnotationParser(parameter, docCache);
         String name = p.getAnnotationValue(JAX_RS_PATH_PARAM, "value");
         if (name == null) {
             name = p.getAnnotationValue(JAX_RS_QUERY_PARAM, "value");
@@ -112,7 +106,7 @@ public class AnnotationHelper {
         return PRIMITIVES.contains(typeOf(type.qualifiedTypeName()));
     }
 
-    public static class ExcludedAnnotations implements Predicate<AnnotationDesc> {
+    public static class ExcludedAnnotations implements Predicate<String> {
         private final DocletOptions options;
 
         public ExcludedAnnotations(DocletOptions options) {
@@ -120,17 +114,15 @@ public class AnnotationHelper {
         }
 
         @Override
-        public boolean apply(AnnotationDesc annotationDesc) {
-            String annotationClass = annotationDesc.annotationType().qualifiedTypeName();
-            return options.getExcludeAnnotationClasses().contains(annotationClass);
+        public boolean apply(String qualifiedAnnotationType) {
+            return options.getExcludeAnnotationClasses().contains(qualifiedAnnotationType);
         }
     }
 
-    public static class JaxRsAnnotations implements Predicate<AnnotationDesc> {
+    public static class JaxRsAnnotations implements Predicate<String> {
         @Override
-        public boolean apply(AnnotationDesc annotationDesc) {
-            String annotationClass = annotationDesc.annotationType().qualifiedTypeName();
-            return annotationClass.startsWith(JAX_RS_ANNOTATION_PACKAGE);
+        public boolean apply(String qualifiedAnnotationType) {
+            return qualifiedAnnotationType.startsWith(JAX_RS_ANNOTATION_PACKAGE);
         }
     }
 
@@ -1,23 +1,25 @@
 package com.hypnoticocelot.jaxrs.doclet.parser;
 
-import com.sun.javadoc.AnnotationDesc;
-import com.sun.javadoc.Parameter;
-import com.sun.javadoc.ProgramElementDoc;
+import com.hypnoticocelot.jaxrs.doclet.doc.AnnotationDesc;
+import com.hypnoticocelot.jaxrs.doclet.doc.Parameter;
+import com.hypnoticocelot.jaxrs.doclet.doc.ProgramElementDoc;
+
+import java.util.Map;
 
 public class AnnotationParser {
 
-    private final AnnotationDesc[] annotations;
+    private final Map<String, AnnotationDesc> annotations;
 
-    public AnnotationParser(ProgramElementDoc element) {
-        annotations = element.annotations();
+    public AnnotationParser(ProgramElementDoc element, DocCache docCache) {
+        annotations = docCache.annotations(element);
     }
 
-    public AnnotationParser(Parameter parameter) {
-        annotations = parameter.annotations();
+    public AnnotationParser(Parameter parameter, DocCache docCache) {
+        annotations = docCache.annotations(parameter);
     }
 
     public String getAnnotationValue(String qualifiedAnnotationType, String key) {
-        AnnotationDesc annotation = getAnnotation(qualifiedAnnotationType);
+        AnnotationDesc annotation = annotations.get(qualifiedAnnotationType);
         if (annotation == null) {
             return null;
         }
@@ -30,22 +32,7 @@ public class AnnotationParser {
     }
 
     public boolean isAnnotatedBy(String qualifiedAnnotationType) {
-        return getAnnotation(qualifiedAnnotationType) != null;
-    }
-
-    private AnnotationDesc getAnnotation(String qualifiedAnnotationType) {
-        AnnotationDesc found = null;
-        for (AnnotationDesc annotation : annotations) {
-            try {
-                if (annotation.annotationType().qualifiedTypeName().equals(qualifiedAnnotationType)) {
-                    found = annotation;
-                    break;
-                }
-            } catch (RuntimeException e) {
-                System.err.println(annotation + " has invalid javadoc: " + e.getClass() + ": " + e.getMessage());
-            }
-        }
-        return found;
+        return annotations.containsKey(qualifiedAnnotationType);
     }
 
 }
@@ -2,13 +2,13 @@ package com.hypnoticocelot.jaxrs.doclet.parser;
 
 import com.google.common.base.Function;
 import com.hypnoticocelot.jaxrs.doclet.DocletOptions;
+import com.hypnoticocelot.jaxrs.doclet.doc.ClassDoc;
+import com.hypnoticocelot.jaxrs.doclet.doc.MethodDoc;
+import com.hypnoticocelot.jaxrs.doclet.doc.Type;
 import com.hypnoticocelot.jaxrs.doclet.model.Api;
 import com.hypnoticocelot.jaxrs.doclet.model.Method;
 import com.hypnoticocelot.jaxrs.doclet.model.Model;
 import com.hypnoticocelot.jaxrs.doclet.model.Operation;
-import com.sun.javadoc.ClassDoc;
-import com.sun.javadoc.MethodDoc;
-import com.sun.javadoc.Type;
 
 import java.util.*;
 
@@ -22,28 +22,37 @@ public class ApiClassParser {
     private final ClassDoc classDoc;
     private final String rootPath;
     private final Set<Model> models;
-    private final Collection<ClassDoc> classes;
+    private final Set<ClassDoc> dependencies;
+    private final Set<String> unresolvedSubResources;
+    private final ModelRegistry modelRegistry;
+    private final Map<String, ClassDoc> classes;
+    private final Set<String> visited;
     private final Method parentMethod;
 
-    public ApiClassParser(DocletOptions options, ClassDoc classDoc, Collection<ClassDoc> classes) {
-        this.options = options;
-        this.classDoc = classDoc;
-        this.rootPath = firstNonNull(parsePath(classDoc.annotations()), "");
-        this.models = new LinkedHashSet<Model>();
-        this.classes = classes;
-        this.parentMethod = null;
+    /**
+     * @param modelRegistry the run-wide registry the models of all parameters and return types are taken from.
+     * @param classes the classes that can be resolved as sub-resources, indexed by their qualified name.
+     */
+    public ApiClassParser(DocletOptions options, ModelRegistry modelRegistry, ClassDoc classDoc, Map<String, ClassDoc> classes) {
+        this(options, modelRegistry, classDoc, classes, new HashSet<String>(), null);
     }
 
     /**
      * Creates sub-resource class parser.
+     * @param visited qualified names of the enclosing resource classes, which are not resolved again to handle
+     * recursive sub-resources.
      * @param parentMethod method that creates the sub-resource.
      */
-    public ApiClassParser(DocletOptions options, ClassDoc classDoc, Collection<ClassDoc> classes, Method parentMethod) {
+    public ApiClassParser(DocletOptions options, ModelRegistry modelRegistry, ClassDoc classDoc, Map<String, ClassDoc> classes, Set<String> visited, Method parentMethod) {
         this.options = options;
+        this.modelRegistry = modelRegistry;
         this.classDoc = classDoc;
-        this.rootPath = firstNonNull(parsePath(classDoc.annotations()), "");
+        this.rootPath = firstNonNull(parsePath(classDoc, options.getDocCache()), "");
         this.models = new LinkedHashSet<Model>();
+        this.dependencies = new LinkedHashSet<ClassDoc>();
+        this.unresolvedSubResources = new TreeSet<String>();
         this.classes = classes;
+        this.visited = visited;
         this.parentMethod = parentMethod;
     }
 
@@ -54,25 +63,39 @@ public class ApiClassParser {
     public Collection<Api> parse() {
         List<Api> apis = new ArrayList<Api>();
         Map<String, Collection<Method>> apiMethods = new HashMap<String, Collection<Method>>();
+        // the documentation of overridden methods may be inherited from the direct supertypes
+        dependencies.add(classDoc);
+        if (classDoc.superclass() != null) {
+            dependencies.add(classDoc.superclass());
+        }
+        dependencies.addAll(Arrays.asList(classDoc.interfaces()));
 
-        for (MethodDoc method : classDoc.methods()) {
+        for (MethodDoc method : options.getDocCache().methods(classDoc)) {
             ApiMethodParser methodParser = parentMethod == null ?
-                    new ApiMethodParser(options, rootPath, method) :
-                    new ApiMethodParser(options, parentMethod, method);
+                    new ApiMethodParser(options, modelRegistry, rootPath, method) :
+                    new ApiMethodParser(options, modelRegistry, parentMethod, method);
             Method parsedMethod = methodParser.parse();
             if (parsedMethod == null) {
                 continue;
             }
+            dependencies.addAll(methodParser.dependencies());
             if (parsedMethod.isSubResource()) {
                 ClassDoc subResourceClassDoc = lookUpClassDoc(method.returnType());
+                if (!classes.containsKey(method.returnType().qualifiedTypeName())) {
+                    unresolvedSubResources.add(method.returnType().qualifiedTypeName());
+                }
                 if (subResourceClassDoc != null) {
-                    // delete class from the dictionary to handle recursive sub-resources
-                    Collection<ClassDoc> shrunkClasses = new ArrayList<ClassDoc>(classes);
-                    shrunkClasses.remove(classDoc);
+                    // hide this class from the lookup to handle recursive sub-resources
+                    boolean added = visited.add(classDoc.qualifiedTypeName());
                     // recursively parse the sub-resource class
-                    ApiClassParser subResourceParser = new ApiClassParser(options, subResourceClassDoc, shrunkClasses, parsedMethod);
+                    ApiClassParser subResourceParser = new ApiClassParser(options, modelRegistry, subResourceClassDoc, classes, visited, parsedMethod);
                     apis.addAll(subResourceParser.parse());
                     models.addAll(subResourceParser.models());
+                    dependencies.addAll(subResourceParser.dependencies());
+                    unresolvedSubResources.addAll(subResourceParser.unresolvedSubResources());
+                    if (added) {
+                        visited.remove(classDoc.qualifiedTypeName());
+                    }
                 }
                 continue;
             }
@@ -108,16 +131,28 @@ public class ApiClassParser {
     }
 
     private ClassDoc lookUpClassDoc(Type type) {
-        for (ClassDoc subResourceClassDoc : classes) {
-            if (subResourceClassDoc.qualifiedTypeName().equals(type.qualifiedTypeName())) {
-                return subResourceClassDoc;
-            }
-        }
-        return null;
+        String qualifiedName = type.qualifiedTypeName();
+        return visited.contains(qualifiedName) ? null : classes.get(qualifiedName);
     }
 
     public Collection<Model> models() {
         return models;
     }
 
+    /**
+     * @return the classes whose source the parsed apis depend on, including the parsed class itself, its
+     * sub-resources and the classes of all models.
+     */
+    public Set<ClassDoc> dependencies() {
+        return dependencies;
+    }
+
+    /**
+     * @return the qualified names of sub-resource types that were not among the resolvable classes, so the apis
+     * change if such a class is documented later on.
+     */
+    public Set<String> unresolvedSubResources() {
+        return unresolvedSubResources;
+    }
+
 }
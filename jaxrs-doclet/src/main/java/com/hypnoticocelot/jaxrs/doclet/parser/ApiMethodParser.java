@@ -1,16 +1,16 @@
 package com.hypnoticocelot.jaxrs.doclet.parser;
 
 import com.hypnoticocelot.jaxrs.doclet.DocletOptions;
+import com.hypnoticocelot.jaxrs.doclet.doc.*;
 import com.hypnoticocelot.jaxrs.doclet.model.*;
 import com.hypnoticocelot.jaxrs.doclet.translator.Translator;
-import com.sun.javadoc.*;
 
 import java.util.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import static com.google.common.base.Objects.firstNonNull;
-import static com.google.common.collect.Collections2.filter;
+import static com.google.common.collect.Iterables.any;
 import static com.hypnoticocelot.jaxrs.doclet.parser.AnnotationHelper.parsePath;
 
 public class ApiMethodParser {
@@ -19,58 +19,69 @@ public class ApiMethodParser {
 	private static final String TAG_RETURN = "return";
 	private final DocletOptions options;
 	private final Translator translator;
+	private final ModelRegistry modelRegistry;
 	private final String parentPath;
 	private final MethodDoc methodDoc;
 	private final Set<Model> models;
+	private final Set<ClassDoc> dependencies;
 	private final HttpMethod httpMethod;
 	private final Method parentMethod;
 
-	public ApiMethodParser(DocletOptions options, String parentPath, MethodDoc methodDoc) {
+	public ApiMethodParser(DocletOptions options, ModelRegistry modelRegistry, String parentPath, MethodDoc methodDoc) {
 		this.options = options;
 		this.translator = options.getTranslator();
+		this.modelRegistry = modelRegistry;
 		this.parentPath = parentPath;
 		this.methodDoc = methodDoc;
 		this.models = new LinkedHashSet<Model>();
-		this.httpMethod = HttpMethod.fromMethod(methodDoc);
+		this.dependencies = new LinkedHashSet<ClassDoc>();
+		this.httpMethod = HttpMethod.fromMethod(methodDoc, options.getDocCache());
 		this.parentMethod = null;
 	}
 
-	public ApiMethodParser(DocletOptions options, Method parentMethod, MethodDoc methodDoc) {
+	public ApiMethodParser(DocletOptions options, ModelRegistry modelRegistry, Method parentMethod, MethodDoc methodDoc) {
 		this.options = options;
 		this.translator = options.getTranslator();
+		this.modelRegistry = modelRegistry;
 		this.methodDoc = methodDoc;
 		this.models = new LinkedHashSet<Model>();
-		this.httpMethod = HttpMethod.fromMethod(methodDoc);
+		this.dependencies = new LinkedHashSet<ClassDoc>();
+		this.httpMethod = HttpMethod.fromMethod(methodDoc, options.getDocCache());
 		this.parentPath = parentMethod.getPath();
 		this.parentMethod = parentMethod;
 	}
 
 	public Method parse() {
-		String methodPath = firstNonNull(parsePath(methodDoc.annotations()), "");
+		String methodPath = firstNonNull(parsePath(methodDoc, options.getDocCache()), "");
 		if (httpMethod == null && methodPath.isEmpty()) {
 			return null;
 		}
 		String path = parentPath + methodPath;
 
 		MethodDoc realMethodDoc = findMethodDocumentation(methodDoc);
+		if (realMethodDoc != methodDoc) {
+			dependencies.add(realMethodDoc.containingClass());
+		}
 
 		// parameters
 		List<ApiParameter> parameters = new LinkedList<ApiParameter>();
 
-		for (int i = 0; i < methodDoc.parameters().length; i++) {
-			Parameter parameter = methodDoc.parameters()[i];
+		Parameter[] methodParameters = options.getDocCache().parameters(methodDoc);
+		Parameter[] documentedParameters = options.getDocCache().parameters(realMethodDoc);
+		for (int i = 0; i < methodParameters.length; i++) {
+			Parameter parameter = methodParameters[i];
 			if (!shouldIncludeParameter(httpMethod, parameter)) {
 				continue;
 			}
-			if (options.isParseModels()) {
-				models.addAll(new ApiModelParser(options, translator, parameter.type()).parse());
-			}
-			parameters.add(new ApiParameter(
-					AnnotationHelper.paramTypeOf(parameter),
-					AnnotationHelper.paramNameOf(parameter),
-					commentForParameter(realMethodDoc, realMethodDoc.parameters()[i]),
+			addTypeDependencies(parameter.type());
+			ApiParameter apiParameter = new ApiParameter(
+					AnnotationHelper.paramTypeOf(parameter, options.getDocCache()),
+					AnnotationHelper.paramNameOf(parameter, options.getDocCache()),
+					commentForParameter(realMethodDoc, documentedParameters[i]),
 					translator.typeName(parameter.type()).value()
-			));
+			);
+			options.getListener().onParameter(methodDoc, parameter, apiParameter);
+			parameters.add(apiParameter);
 		}
 
 		// parent method parameters are inherited
@@ -82,7 +93,7 @@ public class ApiMethodParser {
 		Pattern pattern = Pattern.compile("(\\d+) (.+)"); // matches "<code><space><text>"
 		List<ApiResponseMessage> responseMessages = new LinkedList<ApiResponseMessage>();
 		for (String tagName : options.getErrorTags()) {
-			for (Tag tagValue : realMethodDoc.tags(tagName)) {
+			for (Tag tagValue : options.getDocCache().tags(realMethodDoc, tagName)) {
 				Matcher matcher = pattern.matcher(tagValue.text());
 				if (matcher.find()) {
 					responseMessages.add(new ApiResponseMessage(Integer.valueOf(matcher.group(1)),
@@ -94,9 +105,7 @@ public class ApiMethodParser {
 		// return type
 		Type type = methodDoc.returnType();
 		String returnType = translator.typeName(type).value();
-		if (options.isParseModels()) {
-			models.addAll(new ApiModelParser(options, translator, type).parse());
-		}
+		addTypeDependencies(type);
 
 		String firstSentencesComment = parseDocs(realMethodDoc);
 		if (firstSentencesComment.isEmpty()) {
@@ -105,7 +114,7 @@ public class ApiMethodParser {
 		String implementationNote = methodDoc.commentText().
 				replace(firstSentencesComment, "").replace("{" + TAG_INHERIT_DOC + "}", "");
 
-		return new Method(
+		Method method = new Method(
 				httpMethod,
 				methodDoc.name(),
 				path,
@@ -115,12 +124,32 @@ public class ApiMethodParser {
 				implementationNote,
 				returnType
 		);
+		options.getListener().onOperation(methodDoc, method);
+		return method;
 	}
 
 	public Set<Model> models() {
 		return models;
 	}
 
+	/**
+	 * @return the classes other than the containing class whose source the parsed method depends on: the types of
+	 * its parameters and return value, their models and the class the documentation was inherited from.
+	 */
+	public Set<ClassDoc> dependencies() {
+		return dependencies;
+	}
+
+	private void addTypeDependencies(Type type) {
+		if (type.asClassDoc() != null) {
+			dependencies.add(type.asClassDoc());
+		}
+		if (options.isParseModels()) {
+			models.addAll(modelRegistry.modelsOf(type));
+			dependencies.addAll(modelRegistry.classesOf(type));
+		}
+	}
+
 	/**
 	 * Looks for the method documentation in parent classes and interfaces if there is no documentation at the method
 	 * level.
@@ -135,7 +164,7 @@ public class ApiMethodParser {
 
 			ClassDoc containingClass = methodDoc.containingClass();
 			ClassDoc superClass = containingClass.superclass().asClassDoc();
-			for (MethodDoc md : superClass.methods()) {
+			for (MethodDoc md : options.getDocCache().methods(superClass)) {
 				if (md.name().equalsIgnoreCase(methodDoc.name())
 						&& md.signature().equalsIgnoreCase(methodDoc.signature())) {
 					return md;
@@ -147,7 +176,7 @@ public class ApiMethodParser {
 
 				List<TypeReplacement> typeReplacements = getTypeVariableMapping(interfaceType.asParameterizedType(), cd);
 
-				for (MethodDoc md : cd.methods()) {
+				for (MethodDoc md : options.getDocCache().methods(cd)) {
 					String typerizedSignature = md.signature();
 
 					for (TypeReplacement tr : typeReplacements) {
@@ -165,12 +194,7 @@ public class ApiMethodParser {
 	}
 
 	private boolean hasOverrideAnnotation(MethodDoc methodDoc) {
-		for (AnnotationDesc annotation : methodDoc.annotations()) {
-			if (annotation.annotationType().qualifiedTypeName().equals(Override.class.getName())) {
-				return true;
-			}
-		}
-		return false;
+		return new AnnotationParser(methodDoc, options.getDocCache()).isAnnotatedBy(Override.class.getName());
 	}
 
 	/**
@@ -212,29 +236,28 @@ public class ApiMethodParser {
 
 	private String getTextForTag(Doc doc, String tagname) {
 		StringBuilder sentences = new StringBuilder();
-		for (Tag tag : doc.tags(tagname)) {
+		for (Tag tag : options.getDocCache().tags(doc, tagname)) {
 			sentences.append(tag.text());
 		}
 		return sentences.toString();
 	}
 
 	private boolean shouldIncludeParameter(HttpMethod httpMethod, Parameter parameter) {
-		List<AnnotationDesc> allAnnotations = Arrays.asList(parameter.annotations());
-		Collection<AnnotationDesc> excluded = filter(allAnnotations, new AnnotationHelper.ExcludedAnnotations(options));
-		if (!excluded.isEmpty()) {
+		Set<String> annotationTypes = options.getDocCache().annotations(parameter).keySet();
+		if (any(annotationTypes, new AnnotationHelper.ExcludedAnnotations(options))) {
 			return false;
 		}
 
-		Collection<AnnotationDesc> jaxRsAnnotations = filter(allAnnotations, new AnnotationHelper.JaxRsAnnotations());
-		if (!jaxRsAnnotations.isEmpty()) {
+		if (any(annotationTypes, new AnnotationHelper.JaxRsAnnotations())) {
 			return true;
 		}
 
-		return (allAnnotations.isEmpty() || httpMethod == HttpMethod.POST);
+		// the index leaves out annotations whose type javadoc cannot resolve, which still rule out an entity parameter
+		return (parameter.annotations().length == 0 || httpMethod == HttpMethod.POST);
 	}
 
 	private String commentForParameter(MethodDoc method, Parameter parameter) {
-		for (ParamTag tag : method.paramTags()) {
+		for (ParamTag tag : options.getDocCache().paramTags(method)) {
 			if (tag.parameterName().equals(parameter.name())) {
 				return tag.parameterComment();
 			}
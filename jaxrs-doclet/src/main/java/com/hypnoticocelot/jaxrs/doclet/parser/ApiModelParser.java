@@ -1,12 +1,10 @@
 package com.hypnoticocelot.jaxrs.doclet.parser;
 
-import com.google.common.base.Predicate;
-import static com.google.common.collect.Collections2.filter;
 import com.hypnoticocelot.jaxrs.doclet.DocletOptions;
+import com.hypnoticocelot.jaxrs.doclet.doc.*;
 import com.hypnoticocelot.jaxrs.doclet.model.Model;
 import com.hypnoticocelot.jaxrs.doclet.model.Property;
 import com.hypnoticocelot.jaxrs.doclet.translator.Translator;
-import com.sun.javadoc.*;
 
 import java.util.*;
 
@@ -16,12 +14,18 @@ public class ApiModelParser {
 	private final Translator translator;
 	private final Type rootType;
 	private final Set<Model> models;
+	private final Set<String> modelIds;
+	private final Set<ClassDoc> classes;
+	private final Map<String, ClassDoc> classesByModelId;
 
 	public ApiModelParser(DocletOptions options, Translator translator, Type rootType) {
 		this.options = options;
 		this.translator = translator;
 		this.rootType = rootType;
 		this.models = new LinkedHashSet<Model>();
+		this.modelIds = new HashSet<String>();
+		this.classes = new LinkedHashSet<ClassDoc>();
+		this.classesByModelId = new HashMap<String, ClassDoc>();
 	}
 
 	public Set<Model> parse() {
@@ -29,6 +33,20 @@ public class ApiModelParser {
 		return models;
 	}
 
+	/**
+	 * @return the classes whose members or enum constants were read while parsing the models.
+	 */
+	public Set<ClassDoc> classes() {
+		return classes;
+	}
+
+	/**
+	 * @return the class a parsed model was generated from.
+	 */
+	public ClassDoc classOf(Model model) {
+		return classesByModelId.get(model.getId());
+	}
+
 	private void parseModel(Type type) {
 		boolean isPrimitive = AnnotationHelper.isPrimitive(type);
 		boolean isJavaxType = type.qualifiedTypeName().startsWith("javax.");
@@ -39,13 +57,14 @@ public class ApiModelParser {
 			return;
 		}
 
+		classes.add(classDoc);
 		parseProperties(classDoc);
 	}
 
 	private void parseProperties(ClassDoc classDoc) {
 		Map<String, Type> types = new HashMap<String, Type>();
 		Map<String, Property> elements = new HashMap<String, Property>();
-		MethodDoc[] methodDocs = classDoc.methods();
+		MethodDoc[] methodDocs = options.getDocCache().methods(classDoc);
 		if (methodDocs != null) {
 			for (MethodDoc method : methodDocs) {
 				String name = translator.methodName(method).value();
@@ -56,7 +75,7 @@ public class ApiModelParser {
 			}
 		}
 
-		FieldDoc[] fieldDocs = classDoc.fields();
+		FieldDoc[] fieldDocs = options.getDocCache().fields(classDoc);
 		if (fieldDocs != null) {
 			for (FieldDoc field : fieldDocs) {
 				String name = translator.fieldName(field).value();
@@ -68,7 +87,10 @@ public class ApiModelParser {
 		}
 
 		if (!elements.isEmpty()) {
-			models.add(new Model(translator.typeName(classDoc).value(), elements));
+			Model model = new Model(translator.typeName(classDoc).value(), elements);
+			models.add(model);
+			modelIds.add(model.getId());
+			classesByModelId.put(model.getId(), classDoc);
 			parseNestedModels(types.values());
 		}
 	}
@@ -86,7 +108,7 @@ public class ApiModelParser {
 
 	private String getDescription(MethodDoc method) {
 		String comment;
-		Tag[] returnTag = method.tags("@return");
+		Tag[] returnTag = options.getDocCache().tags(method, "@return");
 		if (returnTag.length > 0) {
 			comment = returnTag[0].text();
 		} else {
@@ -102,6 +124,7 @@ public class ApiModelParser {
 		String propertyName = translator.typeName(type).value();
 		Property property;
 		if (typeClassDoc != null && typeClassDoc.isEnum()) {
+			classes.add(typeClassDoc);
 			property = new Property(typeClassDoc.enumConstants(), description);
 		} else {
 			property = new Property(propertyName, description, containerTypeOf);
@@ -138,12 +161,7 @@ public class ApiModelParser {
 		}
 	}
 
-	private boolean alreadyStoredType(final Type type) {
-		return filter(models, new Predicate<Model>() {
-			@Override
-			public boolean apply(Model model) {
-				return model.getId().equals(translator.typeName(type).value());
-			}
-		}).size() > 0;
+	private boolean alreadyStoredType(Type type) {
+		return modelIds.contains(translator.typeName(type).value());
 	}
 }
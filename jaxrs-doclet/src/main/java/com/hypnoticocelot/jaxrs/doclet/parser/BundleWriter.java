@@ -0,0 +1,88 @@
+package com.hypnoticocelot.jaxrs.doclet.parser;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.Files;
+import com.google.common.io.InputSupplier;
+import com.hypnoticocelot.jaxrs.doclet.DocletOptions;
+import com.hypnoticocelot.jaxrs.doclet.model.BundleEntry;
+import com.hypnoticocelot.jaxrs.doclet.model.BundleIndex;
+import com.hypnoticocelot.jaxrs.doclet.model.ResourceListing;
+import com.hypnoticocelot.jaxrs.doclet.model.ResourceListingAPI;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.google.common.base.Charsets.UTF_8;
+
+/**
+ * Concatenates the declaration files of a resource listing into a bundle, a JSON array that holds the whole api, and
+ * writes an index with the byte range of every declaration in the bundle. The declarations are taken from the files in
+ * the output directory, so the bundle also covers declarations that were not generated in this run, and streamed into
+ * the bundle one after the other. Without an output directory there is nothing to bundle.
+ */
+class BundleWriter {
+
+	static final String BUNDLE_FILE_NAME = "service-bundle.json";
+	static final String INDEX_FILE_NAME = "service-bundle.index.json";
+	private static final byte[] START = "[\n".getBytes(UTF_8);
+	private static final byte[] SEPARATOR = ",\n".getBytes(UTF_8);
+	private static final byte[] END = "\n]\n".getBytes(UTF_8);
+
+	private final DocletOptions options;
+
+	BundleWriter(DocletOptions options) {
+		this.options = options;
+	}
+
+	void write(ResourceListing listing) throws IOException {
+		File outputDirectory = options.getOutputDirectory();
+		if (outputDirectory == null) {
+			return;
+		}
+		List<InputSupplier<? extends InputStream>> parts = new ArrayList<InputSupplier<? extends InputStream>>();
+		List<BundleEntry> entries = new ArrayList<BundleEntry>();
+		long length = START.length;
+		parts.add(ByteStreams.newInputStreamSupplier(START));
+		for (ResourceListingAPI api : listing.getApis()) {
+			File declarationFile = new File(outputDirectory, declarationFileOf(api));
+			if (!declarationFile.isFile()) {
+				System.out.println("Leaving " + api.getPath() + " out of the bundle, " + declarationFile + " does not exist");
+				continue;
+			}
+			if (!entries.isEmpty()) {
+				parts.add(ByteStreams.newInputStreamSupplier(SEPARATOR));
+				length += SEPARATOR.length;
+			}
+			entries.add(new BundleEntry(api.getPath(), length, declarationFile.length()));
+			parts.add(Files.newInputStreamSupplier(declarationFile));
+			length += declarationFile.length();
+		}
+		parts.add(ByteStreams.newInputStreamSupplier(END));
+		length += END.length;
+
+		BundleIndex index = new BundleIndex(BUNDLE_FILE_NAME, length, entries);
+		byte[] indexContent = new ObjectMapper().configure(SerializationFeature.INDENT_OUTPUT, true).writeValueAsBytes(index);
+		// the declarations are opened one after the other while the bundle is recorded
+		InputStream bundle = ByteStreams.join(parts).getInput();
+		try {
+			options.getRecorder().record(new File(outputDirectory, BUNDLE_FILE_NAME), bundle);
+		} finally {
+			bundle.close();
+		}
+		options.getRecorder().record(new File(outputDirectory, INDEX_FILE_NAME), new ByteArrayInputStream(indexContent));
+	}
+
+	/**
+	 * @return the name of the file a listing entry refers to, e.g. "foo.json" for "/foo.{format}".
+	 */
+	private static String declarationFileOf(ResourceListingAPI api) {
+		return api.getPath().replaceFirst("^/", "").replace("{format}", "json");
+	}
+
+}
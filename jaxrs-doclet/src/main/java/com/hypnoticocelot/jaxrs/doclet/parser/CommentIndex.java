@@ -0,0 +1,93 @@
+package com.hypnoticocelot.jaxrs.doclet.parser;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.hypnoticocelot.jaxrs.doclet.doc.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The raw comments of the classes and their members, written by a run over the sources so a run over the compiled
+ * classes can document them the same way. Classes are keyed by their qualified name, fields by
+ * {@code class#field} and methods by {@code class#method(erased parameter types)}.
+ */
+public class CommentIndex {
+
+    private Map<String, String> comments = new TreeMap<String, String>();
+
+    public static CommentIndex of(ClassDoc[] classes) {
+        CommentIndex index = new CommentIndex();
+        for (ClassDoc classDoc : classes) {
+            index.put(classDoc.qualifiedTypeName(), classDoc);
+            for (FieldDoc field : classDoc.fields(false)) {
+                index.put(fieldKey(classDoc.qualifiedTypeName(), field.name()), field);
+            }
+            for (FieldDoc constant : classDoc.enumConstants()) {
+                index.put(fieldKey(classDoc.qualifiedTypeName(), constant.name()), constant);
+            }
+            for (MethodDoc method : classDoc.methods(false)) {
+                String[] parameterTypes = new String[method.parameters().length];
+                for (int i = 0; i < parameterTypes.length; i++) {
+                    parameterTypes[i] = erasureOf(method.parameters()[i].type());
+                }
+                index.put(methodKey(classDoc.qualifiedTypeName(), method.name(), parameterTypes), method);
+            }
+        }
+        return index;
+    }
+
+    public static CommentIndex read(File file) throws IOException {
+        return new ObjectMapper().readValue(file, CommentIndex.class);
+    }
+
+    public void write(File file) throws IOException {
+        new ObjectMapper().configure(SerializationFeature.INDENT_OUTPUT, true).writeValue(file, this);
+    }
+
+    public static String fieldKey(String className, String fieldName) {
+        return className + "#" + fieldName;
+    }
+
+    public static String methodKey(String className, String methodName, String[] parameterTypes) {
+        StringBuilder key = new StringBuilder(className).append('#').append(methodName).append('(');
+        for (int i = 0; i < parameterTypes.length; i++) {
+            key.append(i == 0 ? "" : ",").append(parameterTypes[i]);
+        }
+        return key.append(')').toString();
+    }
+
+    /**
+     * @return the comment with the given key, null if there is none.
+     */
+    public String commentOf(String key) {
+        return comments.get(key);
+    }
+
+    public Map<String, String> getComments() {
+        return comments;
+    }
+
+    private void put(String key, Doc doc) {
+        String comment = doc.getRawCommentText();
+        if (comment != null && !comment.trim().isEmpty()) {
+            comments.put(key, comment);
+        }
+    }
+
+    /**
+     * @return the qualified name of the erasure of the type as {@code javax.lang.model} prints it.
+     */
+    private static String erasureOf(Type type) {
+        TypeVariable variable = type.asTypeVariable();
+        if (variable != null) {
+            Type[] bounds = variable.bounds();
+            String bound = bounds.length == 0 ? "java.lang.Object" : erasureOf(bounds[0]);
+            return bound + type.dimension();
+        }
+        return type.qualifiedTypeName() + type.dimension();
+    }
+
+}
@@ -0,0 +1,154 @@
+package com.hypnoticocelot.jaxrs.doclet.parser;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.hypnoticocelot.jaxrs.doclet.DocletOptions;
+import com.hypnoticocelot.jaxrs.doclet.doc.AnnotationDesc;
+import com.hypnoticocelot.jaxrs.doclet.doc.ClassDoc;
+import com.hypnoticocelot.jaxrs.doclet.doc.Doc;
+import com.hypnoticocelot.jaxrs.doclet.doc.FieldDoc;
+import com.hypnoticocelot.jaxrs.doclet.doc.MethodDoc;
+import com.hypnoticocelot.jaxrs.doclet.doc.ParamTag;
+import com.hypnoticocelot.jaxrs.doclet.doc.Parameter;
+import com.hypnoticocelot.jaxrs.doclet.doc.ProgramElementDoc;
+import com.hypnoticocelot.jaxrs.doclet.doc.Tag;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Memoizing facade over the accessors the parsers and translators call over and over. The implementations build a new
+ * array on every call to {@link ClassDoc#methods()}, {@link MethodDoc#parameters()}, {@link Doc#tags(String)} and
+ * friends, and javadoc resolves the type of every annotation again on each lookup.
+ * <p/>
+ * There is one cache per {@link DocletOptions}, which {@link JaxRsAnnotationParser} clears at the end of every run: the
+ * cached arrays refer back to their elements, so the entries would otherwise keep the whole
+ * {@link com.hypnoticocelot.jaxrs.doclet.doc.RootDoc} alive. Elements are compared by identity, which is why they are held as weak keys.
+ * {@link Parameter}s are only cached by identity, so look them up through {@link #parameters(MethodDoc)}. The returned
+ * arrays are shared and must not be modified.
+ */
+public final class DocCache {
+
+    private final LoadingCache<ClassDoc, MethodDoc[]> methods = CacheBuilder.newBuilder().weakKeys()
+            .build(new CacheLoader<ClassDoc, MethodDoc[]>() {
+                @Override
+                public MethodDoc[] load(ClassDoc classDoc) {
+                    return classDoc.methods();
+                }
+            });
+
+    private final LoadingCache<ClassDoc, FieldDoc[]> fields = CacheBuilder.newBuilder().weakKeys()
+            .build(new CacheLoader<ClassDoc, FieldDoc[]>() {
+                @Override
+                public FieldDoc[] load(ClassDoc classDoc) {
+                    return classDoc.fields();
+                }
+            });
+
+    private final LoadingCache<MethodDoc, Parameter[]> parameters = CacheBuilder.newBuilder().weakKeys()
+            .build(new CacheLoader<MethodDoc, Parameter[]>() {
+                @Override
+                public Parameter[] load(MethodDoc methodDoc) {
+                    return methodDoc.parameters();
+                }
+            });
+
+    private final LoadingCache<MethodDoc, ParamTag[]> paramTags = CacheBuilder.newBuilder().weakKeys()
+            .build(new CacheLoader<MethodDoc, ParamTag[]>() {
+                @Override
+                public ParamTag[] load(MethodDoc methodDoc) {
+                    return methodDoc.paramTags();
+                }
+            });
+
+    private final LoadingCache<Doc, ConcurrentMap<String, Tag[]>> tags = CacheBuilder.newBuilder().weakKeys()
+            .build(new CacheLoader<Doc, ConcurrentMap<String, Tag[]>>() {
+                @Override
+                public ConcurrentMap<String, Tag[]> load(Doc doc) {
+                    return new ConcurrentHashMap<String, Tag[]>();
+                }
+            });
+
+    private final LoadingCache<Object, Map<String, AnnotationDesc>> annotations = CacheBuilder.newBuilder().weakKeys()
+            .build(new CacheLoader<Object, Map<String, AnnotationDesc>>() {
+                @Override
+                public Map<String, AnnotationDesc> load(Object element) {
+                    if (element instanceof Parameter) {
+                        return index(((Parameter) element).annotations());
+                    }
+                    return index(((ProgramElementDoc) element).annotations());
+                }
+            });
+
+    /**
+     * Drops all cached entries.
+     */
+    public void clear() {
+        methods.invalidateAll();
+        fields.invalidateAll();
+        parameters.invalidateAll();
+        paramTags.invalidateAll();
+        tags.invalidateAll();
+        annotations.invalidateAll();
+    }
+
+    public MethodDoc[] methods(ClassDoc classDoc) {
+        return methods.getUnchecked(classDoc);
+    }
+
+    public FieldDoc[] fields(ClassDoc classDoc) {
+        return fields.getUnchecked(classDoc);
+    }
+
+    public Parameter[] parameters(MethodDoc methodDoc) {
+        return parameters.getUnchecked(methodDoc);
+    }
+
+    public ParamTag[] paramTags(MethodDoc methodDoc) {
+        return paramTags.getUnchecked(methodDoc);
+    }
+
+    public Tag[] tags(Doc doc, String tagName) {
+        ConcurrentMap<String, Tag[]> byName = tags.getUnchecked(doc);
+        Tag[] found = byName.get(tagName);
+        if (found == null) {
+            found = doc.tags(tagName);
+            byName.putIfAbsent(tagName, found);
+        }
+        return found;
+    }
+
+    /**
+     * @return the annotations of the element by their qualified type name, in declaration order.
+     */
+    public Map<String, AnnotationDesc> annotations(ProgramElementDoc element) {
+        return annotations.getUnchecked(element);
+    }
+
+    /**
+     * @return the annotations of the parameter by their qualified type name, in declaration order.
+     */
+    public Map<String, AnnotationDesc> annotations(Parameter parameter) {
+        return annotations.getUnchecked(parameter);
+    }
+
+    private static Map<String, AnnotationDesc> index(AnnotationDesc[] annotations) {
+        Map<String, AnnotationDesc> index = new LinkedHashMap<String, AnnotationDesc>();
+        for (AnnotationDesc annotation : annotations) {
+            try {
+                String qualifiedTypeName = annotation.annotationType().qualifiedTypeName();
+                if (!index.containsKey(qualifiedTypeName)) {
+                    index.put(qualifiedTypeName, annotation);
+                }
+            } catch (RuntimeException e) {
+                System.err.println(annotation + " has invalid javadoc: " + e.getClass() + ": " + e.getMessage());
+            }
+        }
+        return Collections.unmodifiableMap(index);
+    }
+
+}
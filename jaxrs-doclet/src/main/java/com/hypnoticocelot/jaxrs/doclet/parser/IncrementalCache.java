@@ -0,0 +1,224 @@
+package com.hypnoticocelot.jaxrs.doclet.parser;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.google.common.base.Joiner;
+import com.google.common.base.Objects;
+import com.google.common.hash.Hashing;
+import com.google.common.io.Files;
+import com.hypnoticocelot.jaxrs.doclet.DocletOptions;
+import com.hypnoticocelot.jaxrs.doclet.doc.ClassDoc;
+import com.hypnoticocelot.jaxrs.doclet.doc.RootDoc;
+import com.hypnoticocelot.jaxrs.doclet.doc.SourcePosition;
+import com.hypnoticocelot.jaxrs.doclet.model.ResourceListingAPI;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static com.google.common.base.Charsets.UTF_8;
+
+/**
+ * Remembers for every documented class the fingerprints of the source files its declaration was generated from, so an
+ * incremental run only parses the classes whose sources changed. The fingerprints are keyed by class name, so the cache
+ * does not reveal where the sources are located. Classes that are only available in binary form are not fingerprinted.
+ */
+class IncrementalCache {
+
+    static final String FILE_NAME = ".jaxrs-doclet-cache.json";
+    static final String MODEL_ID_FILE_NAME = ".jaxrs-doclet-model-ids.json";
+    private static final String NO_SOURCE = "";
+
+    private String settings;
+    private Map<String, Entry> classes;
+    private final transient ConcurrentMap<File, String> fingerprints = new ConcurrentHashMap<File, String>();
+
+    @SuppressWarnings("unused")
+    private IncrementalCache() {
+    }
+
+    private IncrementalCache(String settings) {
+        this.settings = settings;
+        this.classes = new TreeMap<String, Entry>();
+    }
+
+    /**
+     * @return the cache stored in the given directory, or an empty cache if there is none, it cannot be read or it was
+     * written with other settings.
+     */
+    static IncrementalCache read(File directory, DocletOptions options) {
+        String settings = settingsOf(options);
+        File file = new File(directory, FILE_NAME);
+        if (file.exists()) {
+            try {
+                IncrementalCache cache = new ObjectMapper().readValue(file, IncrementalCache.class);
+                if (settings.equals(cache.settings) && cache.classes != null) {
+                    cache.classes = new TreeMap<String, Entry>(cache.classes);
+                    return cache;
+                }
+            } catch (IOException e) {
+                System.out.println("Ignoring unreadable incremental cache " + file + ": " + e.getMessage());
+            }
+        }
+        return new IncrementalCache(settings);
+    }
+
+    void write(File directory) throws IOException {
+        new ObjectMapper().configure(SerializationFeature.INDENT_OUTPUT, true).writeValue(new File(directory, FILE_NAME), this);
+    }
+
+    /**
+     * @return the entry of the given class if none of the sources it was generated from changed, none of its unresolved
+     * sub-resources became resolvable and its declaration file still exists; null otherwise.
+     */
+    Entry upToDate(ClassDoc classDoc, RootDoc rootDoc, Map<String, ClassDoc> classIndex, File directory) {
+        Entry entry = classes.get(classDoc.qualifiedTypeName());
+        if (entry == null || entry.sources == null) {
+            return null;
+        }
+        if (entry.declarationFile != null && !new File(directory, entry.declarationFile).isFile()) {
+            return null;
+        }
+        if (entry.unresolved != null) {
+            for (String subResource : entry.unresolved) {
+                if (classIndex.containsKey(subResource)) {
+                    return null;
+                }
+            }
+        }
+        for (Map.Entry<String, String> source : entry.sources.entrySet()) {
+            ClassDoc dependency = rootDoc.classNamed(source.getKey());
+            if (dependency == null || !source.getValue().equals(fingerprintOf(dependency))) {
+                return null;
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * Replaces the entries by the given ones, dropping the entries of classes that are no longer documented.
+     */
+    void retain(Map<String, Entry> entries) {
+        classes = new TreeMap<String, Entry>(entries);
+    }
+
+    /**
+     * @param dependencies the classes the declaration was generated from. Their superclasses and interfaces are
+     * fingerprinted as well, up to the root of the hierarchy.
+     */
+    Entry entryOf(Collection<ClassDoc> dependencies, Collection<String> unresolved, String declarationFile,
+            ResourceListingAPI listing) {
+        Map<String, String> sources = new TreeMap<String, String>();
+        for (ClassDoc dependency : dependencies) {
+            addWithSupertypes(dependency, sources);
+        }
+        return new Entry(sources, new ArrayList<String>(unresolved), declarationFile, listing);
+    }
+
+    private void addWithSupertypes(ClassDoc classDoc, Map<String, String> sources) {
+        if (classDoc == null || sources.containsKey(classDoc.qualifiedTypeName())) {
+            return;
+        }
+        sources.put(classDoc.qualifiedTypeName(), fingerprintOf(classDoc));
+        addWithSupertypes(classDoc.superclass(), sources);
+        for (ClassDoc superInterface : classDoc.interfaces()) {
+            addWithSupertypes(superInterface, sources);
+        }
+    }
+
+    private String fingerprintOf(ClassDoc classDoc) {
+        SourcePosition position = classDoc.position();
+        File file = position == null ? null : position.file();
+        if (file == null || !file.isFile()) {
+            return NO_SOURCE;
+        }
+        String fingerprint = fingerprints.get(file);
+        if (fingerprint == null) {
+            fingerprint = hashOf(file);
+            fingerprints.putIfAbsent(file, fingerprint);
+        }
+        return fingerprint;
+    }
+
+    private static String hashOf(File file) {
+        try {
+            return Files.hash(file, Hashing.sha1()).toString();
+        } catch (IOException e) {
+            return NO_SOURCE;
+        }
+    }
+
+    /**
+     * Everything besides the sources that the generated declarations depend on, including the doclet itself if it runs
+     * from a jar.
+     */
+    private static String settingsOf(DocletOptions options) {
+        String doclet = NO_SOURCE;
+        File docletJar = new File(DocletOptions.class.getProtectionDomain().getCodeSource().getLocation().getPath());
+        if (docletJar.isFile()) {
+            doclet = hashOf(docletJar);
+        }
+        String settings = Joiner.on('\n').useForNull("").join(doclet, options.getApiVersion(), options.getApiBasePath(),
+                options.getDocBasePath(), options.isParseModels(), options.getExcludeAnnotationClasses(),
+                options.getErrorTags(), options.getTypesToTreatAsOpaque(), options.isModelCatalog(),
+                options.isModelCatalogInline());
+        return Hashing.sha1().hashString(settings, UTF_8).toString();
+    }
+
+    public String getSettings() {
+        return settings;
+    }
+
+    public Map<String, Entry> getClasses() {
+        return classes;
+    }
+
+    static class Entry {
+        private Map<String, String> sources;
+        private List<String> unresolved;
+        private String declarationFile;
+        private ResourceListingAPI listing;
+
+        @SuppressWarnings("unused")
+        private Entry() {
+        }
+
+        private Entry(Map<String, String> sources, List<String> unresolved, String declarationFile,
+                ResourceListingAPI listing) {
+            this.sources = sources;
+            this.unresolved = unresolved;
+            this.declarationFile = declarationFile;
+            this.listing = listing;
+        }
+
+        public Map<String, String> getSources() {
+            return sources;
+        }
+
+        public List<String> getUnresolved() {
+            return unresolved;
+        }
+
+        /**
+         * @return the declaration file relative to the output directory, null if the class is no resource.
+         */
+        public String getDeclarationFile() {
+            return declarationFile;
+        }
+
+        public ResourceListingAPI getListing() {
+            return listing;
+        }
+
+        @Override
+        public String toString() {
+            return Objects.toStringHelper(this)
+                    .add("declarationFile", declarationFile)
+                    .add("sources", sources)
+                    .toString();
+        }
+    }
+
+}
@@ -2,26 +2,34 @@ package com.hypnoticocelot.jaxrs.doclet.parser;
 
 import com.google.common.base.Function;
 import com.google.common.base.Strings;
+import com.hypnoticocelot.jaxrs.doclet.ArchiveWriter;
 import com.hypnoticocelot.jaxrs.doclet.DocletOptions;
+import com.hypnoticocelot.jaxrs.doclet.FileRecorder;
 import com.hypnoticocelot.jaxrs.doclet.Recorder;
+import com.hypnoticocelot.jaxrs.doclet.TransactionalRecorder;
+import com.hypnoticocelot.jaxrs.doclet.doc.ClassDoc;
+import com.hypnoticocelot.jaxrs.doclet.doc.RootDoc;
+import com.hypnoticocelot.jaxrs.doclet.doc.Tag;
 import com.hypnoticocelot.jaxrs.doclet.model.*;
-import com.sun.javadoc.ClassDoc;
-import com.sun.javadoc.RootDoc;
 
 import java.io.File;
+import java.io.Flushable;
 import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileLock;
+import java.nio.file.StandardCopyOption;
 import java.util.*;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipInputStream;
 
 import static com.google.common.collect.Maps.uniqueIndex;
 import com.hypnoticocelot.jaxrs.doclet.ObjectMapperReader;
-import com.hypnoticocelot.jaxrs.doclet.ServiceDoclet;
-import com.sun.javadoc.Tag;
-import java.io.FileInputStream;
 
 public class JaxRsAnnotationParser {
 
+	/**
+	 * Guards the listing against concurrent runs in the same JVM, which the file lock does not exclude.
+	 */
+	private static final Object LISTING_LOCK = new Object();
+
 	private final DocletOptions options;
 	private final RootDoc rootDoc;
 
@@ -31,32 +39,257 @@ public class JaxRsAnnotationParser {
 	}
 
 	public boolean run() {
+		return run(null);
+	}
+
+	/**
+	 * Records the declarations and listings of the partial outputs written by runs with {@code -partition}, in their
+	 * order, as if they had been parsed by this run. The root doc is not used and may be null.
+	 */
+	public boolean merge(List<File> partialOutputs) {
+		return run(partialOutputs);
+	}
+
+	private boolean run(List<File> partialOutputs) {
 		try {
-			Collection<ApiDeclaration> declarations = new ArrayList<ApiDeclaration>();
-			for (ClassDoc classDoc : rootDoc.classes()) {
-				ApiClassParser classParser = new ApiClassParser(options, classDoc, Arrays.asList(rootDoc.classes()));
-				Collection<Api> apis = classParser.parse();
-				if (apis.isEmpty()) {
-					continue;
+			return publish(partialOutputs);
+		} finally {
+			// the cached javadoc arrays refer back to the root doc
+			options.getDocCache().clear();
+		}
+	}
+
+	private boolean publish(List<File> partialOutputs) {
+		File outputDirectory = options.getOutputDirectory();
+		if (!(options.getRecorder() instanceof TransactionalRecorder) || outputDirectory == null) {
+			return partialOutputs == null ? generate() : mergePartialOutputs(partialOutputs);
+		}
+		TransactionalRecorder transaction = (TransactionalRecorder) options.getRecorder();
+		boolean committed = false;
+		try {
+			options.setOutputDirectory(transaction.begin(outputDirectory));
+			boolean generated = partialOutputs == null ? generate() : mergePartialOutputs(partialOutputs);
+			options.setOutputDirectory(outputDirectory);
+			if (generated) {
+				transaction.commit();
+				committed = true;
+			}
+			return committed;
+		} catch (IOException e) {
+			System.out.println("Unable to publish the output to " + outputDirectory + ": " + e.getMessage());
+			return false;
+		} finally {
+			options.setOutputDirectory(outputDirectory);
+			if (!committed) {
+				try {
+					transaction.rollback();
+				} catch (IOException e) {
+					System.out.println("Unable to discard the staged output: " + e.getMessage());
+				}
+			}
+		}
+	}
+
+	private boolean generate() {
+		try {
+			ClassDoc[] included = rootDoc.classes();
+			ClassDoc[] classes = documentedClasses(included);
+			File outputDirectory = options.getOutputDirectory();
+			File modelIdFile = options.getModelIdFile();
+			if (modelIdFile == null && options.isIncremental()) {
+				// cached declarations must keep the model ids they were generated with
+				modelIdFile = new File(outputDirectory, IncrementalCache.MODEL_ID_FILE_NAME);
+			}
+			if (modelIdFile != null && modelIdFile.exists()) {
+				options.getModelIdAllocator().readFrom(modelIdFile);
+			}
+			reserveModelIds(classes);
+			// classes outside the partition are still looked up as sub-resources
+			Map<String, ClassDoc> classIndex = indexClasses(included);
+
+			IncrementalCache cache = options.isIncremental() ? IncrementalCache.read(outputDirectory, options) : null;
+			Map<ClassDoc, IncrementalCache.Entry> upToDate = new HashMap<ClassDoc, IncrementalCache.Entry>();
+			for (ClassDoc classDoc : classes) {
+				IncrementalCache.Entry entry = cache == null ? null : cache.upToDate(classDoc, rootDoc, classIndex, outputDirectory);
+				if (entry != null) {
+					upToDate.put(classDoc, entry);
 				}
+			}
 
-				Map<String, Model> models = uniqueIndex(classParser.models(), new Function<Model, String>() {
-					@Override
-					public String apply(Model model) {
-						return model.getId();
+			ModelRegistry modelRegistry = new ModelRegistry(options);
+			ModelCatalog catalog = options.isModelCatalog() ? new ModelCatalog(options) : null;
+
+			// record the declarations in the order of the classes, whether they were parsed or taken from the cache.
+			// Every declaration is recorded as soon as it is parsed and then released, only the listing entries are
+			// kept until the end. The classes are parsed on this thread, as javadoc is not thread-safe; only the
+			// recorder may write the declarations on other threads.
+			List<ResourceListingAPI> resources = new LinkedList<ResourceListingAPI>();
+			Map<String, IncrementalCache.Entry> entries = new HashMap<String, IncrementalCache.Entry>();
+			if (!upToDate.isEmpty()) {
+				System.out.println("Skipping " + upToDate.size() + " unchanged of " + classes.length + " classes");
+			}
+			for (ClassDoc classDoc : classes) {
+				IncrementalCache.Entry entry = upToDate.get(classDoc);
+				ResourceListingAPI resource;
+				if (entry != null) {
+					resource = entry.getListing();
+				} else {
+					ParsedClass parsedClass = parseClass(classDoc, classIndex, modelRegistry);
+					String declarationFile = null;
+					resource = null;
+					if (parsedClass.declaration != null) {
+						String resourceName = resourceNameOf(parsedClass.declaration);
+						if (resourceName != null) {
+							declarationFile = resourceName + ".json";
+							resource = new ResourceListingAPI("/" + resourceName + ".{format}", parsedClass.declaration.getDescription());
+							ApiDeclaration declaration = catalog == null ? parsedClass.declaration : catalog.extract(parsedClass.declaration);
+							options.getRecorder().record(new File(outputDirectory, declarationFile), declaration);
+						}
 					}
-				});
-				// The idea (and need) for the declaration is that "/foo" and "/foo/annotated" are stored in separate
-				// Api classes but are part of the same resource.
-				declarations.add(new ApiDeclaration(options.getApiVersion(), options.getApiBasePath(), classParser.getRootPath(), apis, models, getApiDescription(classDoc)));
+					if (cache != null) {
+						// the types the methods and models reach, which the parser may have visited only in part
+						Set<ClassDoc> dependencies = new LinkedHashSet<ClassDoc>(parsedClass.dependencies);
+						dependencies.addAll(new ModelTypes(options).reachableFrom(new ClassDoc[]{classDoc}));
+						entry = cache.entryOf(dependencies, parsedClass.unresolvedSubResources, declarationFile, resource);
+					}
+				}
+				if (resource != null) {
+					resources.add(resource);
+				}
+				if (entry != null && !entries.containsKey(classDoc.qualifiedTypeName())) {
+					entries.put(classDoc.qualifiedTypeName(), entry);
+				}
+			}
+			writeApis(resources, catalog);
+
+			if (modelIdFile != null) {
+				options.getModelIdAllocator().writeTo(modelIdFile);
+			}
+			if (options.getCommentIndex() != null) {
+				CommentIndex.of(classes).write(options.getCommentIndex());
+			}
+			if (cache != null) {
+				cache.retain(entries);
+				cache.write(outputDirectory);
+			}
+			ArchiveWriter archive = archiveOf(options.getRecorder());
+			if (archive != null) {
+				archive.close();
+			}
+			return true;
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Reads the declarations of the partial outputs in their order and records them like parsed ones, so the model
+	 * catalog, the bundle and the merged listing are written as by a single run. Declarations with the same resource
+	 * path replace each other and the listing keeps the first entry of every path, as for classes of a single run.
+	 */
+	private boolean mergePartialOutputs(List<File> partialOutputs) {
+		try {
+			File outputDirectory = options.getOutputDirectory();
+			ObjectMapperReader reader = new ObjectMapperReader();
+			ModelCatalog catalog = options.isModelCatalog() ? new ModelCatalog(options) : null;
+			List<ResourceListingAPI> resources = new LinkedList<ResourceListingAPI>();
+			for (File partialOutput : partialOutputs) {
+				File listingFile = new File(partialOutput, "service.json");
+				if (!listingFile.isFile()) {
+					continue;
+				}
+				for (ResourceListingAPI resource : reader.read(listingFile).getApis()) {
+					String declarationFile = resource.getPath().substring(1, resource.getPath().lastIndexOf(".{format}")) + ".json";
+					ApiDeclaration declaration = reader.readDeclaration(new File(partialOutput, declarationFile));
+					options.getRecorder().record(new File(outputDirectory, declarationFile), catalog == null ? declaration : catalog.extract(declaration));
+					resources.add(resource);
+				}
+			}
+			writeApis(resources, catalog);
+
+			ArchiveWriter archive = archiveOf(options.getRecorder());
+			if (archive != null) {
+				archive.close();
 			}
-			writeApis(declarations);
 			return true;
 		} catch (IOException e) {
 			return false;
 		}
 	}
 
+	/**
+	 * @return the classes to document, which are those of the packages of the partition if there is one.
+	 */
+	private ClassDoc[] documentedClasses(ClassDoc[] classes) {
+		Set<String> partition = options.getPartition();
+		if (partition == null) {
+			return classes;
+		}
+		List<ClassDoc> documented = new ArrayList<ClassDoc>(classes.length);
+		for (ClassDoc classDoc : classes) {
+			if (partition.contains(classDoc.containingPackage().name())) {
+				documented.add(classDoc);
+			}
+		}
+		return documented.toArray(new ClassDoc[documented.size()]);
+	}
+
+	/**
+	 * Translates the names of all classes and of the types they reach, see {@link ModelTypes}, in the order of their
+	 * qualified names before any of them is parsed, so the types claim colliding model ids in the same order no matter
+	 * in which order they are parsed.
+	 */
+	private void reserveModelIds(ClassDoc[] classes) {
+		for (ClassDoc classDoc : new ModelTypes(options).reachableFrom(classes)) {
+			options.getTranslator().typeName(classDoc);
+		}
+	}
+
+	/**
+	 * Indexes the classes by their qualified name, so sub-resources can be resolved without scanning all classes. The
+	 * first class wins if a name occurs twice.
+	 */
+	private Map<String, ClassDoc> indexClasses(ClassDoc[] classes) {
+		Map<String, ClassDoc> classIndex = new HashMap<String, ClassDoc>(classes.length * 2);
+		for (ClassDoc classDoc : classes) {
+			if (!classIndex.containsKey(classDoc.qualifiedTypeName())) {
+				classIndex.put(classDoc.qualifiedTypeName(), classDoc);
+			}
+		}
+		return classIndex;
+	}
+
+	private ParsedClass parseClass(ClassDoc classDoc, Map<String, ClassDoc> classIndex, ModelRegistry modelRegistry) {
+		ApiClassParser classParser = new ApiClassParser(options, modelRegistry, classDoc, classIndex);
+		Collection<Api> apis = classParser.parse();
+		if (apis.isEmpty()) {
+			return new ParsedClass(null, classParser);
+		}
+
+		Map<String, Model> models = uniqueIndex(classParser.models(), new Function<Model, String>() {
+			@Override
+			public String apply(Model model) {
+				return model.getId();
+			}
+		});
+		// The idea (and need) for the declaration is that "/foo" and "/foo/annotated" are stored in separate
+		// Api classes but are part of the same resource.
+		ApiDeclaration declaration = new ApiDeclaration(options.getApiVersion(), options.getApiBasePath(), classParser.getRootPath(), apis, models, getApiDescription(classDoc));
+		options.getListener().onResource(classDoc, declaration);
+		return new ParsedClass(declaration, classParser);
+	}
+
+	/**
+	 * @return the name of the file the declaration is stored in without extension, or null if it has no resource path.
+	 */
+	private static String resourceNameOf(ApiDeclaration declaration) {
+		String resourcePath = declaration.getResourcePath();
+		if (Strings.isNullOrEmpty(resourcePath)) {
+			return null;
+		}
+		return resourcePath.replaceFirst("/", "").replaceAll("/", "_").replaceAll("[\\{\\}]", "");
+	}
+
 	private String getApiDescription(ClassDoc classDoc) {
 		String description;
 		Tag[] firstSentenceTag = classDoc.firstSentenceTags();
@@ -68,70 +301,138 @@ public class JaxRsAnnotationParser {
 		return description;
 	}
 
-	private void writeApis(Collection<ApiDeclaration> apis) throws IOException {
-		List<ResourceListingAPI> resources = new LinkedList<ResourceListingAPI>();
+	private void writeApis(List<ResourceListingAPI> resources, ModelCatalog catalog) throws IOException {
 		File outputDirectory = options.getOutputDirectory();
-		String swaggerUiZipPath = options.getSwaggerUiZipPath();
 		Recorder recorder = options.getRecorder();
-		for (ApiDeclaration api : apis) {
-			String resourcePath = api.getResourcePath();
-			if (!Strings.isNullOrEmpty(resourcePath)) {
-				String resourceName = resourcePath.replaceFirst("/", "").replaceAll("/", "_").replaceAll("[\\{\\}]", "");
-				resources.add(new ResourceListingAPI("/" + resourceName + ".{format}", api.getDescription()));
-				File apiFile = new File(outputDirectory, resourceName + ".json");
-				recorder.record(apiFile, api);
-			}
-		}
+		// the listing is only written once all declarations are in place
+		flush(recorder);
 
 		//If multiple maven modules write their API doc to the same directory we test if there service.json already exists
 		//and then read the existing resources to join them with the current resources
 		File docFile = new File(outputDirectory, "service.json");
-		if (docFile.exists()) {
-			ObjectMapperReader reader = new ObjectMapperReader();
-			ResourceListing resourceListing = reader.read(docFile);
+		File catalogFile = new File(outputDirectory, ModelCatalog.FILE_NAME);
+		ResourceListing listing;
+		// an archive is only published once it is complete, so it needs no lock
+		if (outputDirectory == null || archiveOf(recorder) != null) {
+			listing = writeListing(mergeListing(resources, docFile), docFile);
+			if (catalog != null) {
+				catalog.write(catalogFile);
+			}
+		} else {
+			// modules built in parallel merge and record the listing and the model catalog one after the other, and
+			// the listing is swapped in atomically whatever the recorder, so readers never see it partially written.
+			// The lock file lives next to the output directory, so it is not published with it.
+			synchronized (LISTING_LOCK) {
+				File absoluteDirectory = outputDirectory.getAbsoluteFile();
+				RandomAccessFile lockFile = new RandomAccessFile(new File(absoluteDirectory.getParentFile(),
+						"." + absoluteDirectory.getName() + ".service.json.lock"), "rw");
+				try {
+					FileLock lock = lockFile.getChannel().lock();
+					try {
+						File temporary = File.createTempFile(".service.json", ".tmp", outputDirectory);
+						File compressed = new File(temporary.getPath() + ".gz");
+						try {
+							listing = writeListing(mergeListing(resources, docFile), temporary);
+							if (catalog != null) {
+								catalog.write(catalogFile);
+							}
+							flush(recorder);
+							replace(temporary, docFile);
+							replace(compressed, new File(docFile.getPath() + ".gz"));
+						} finally {
+							java.nio.file.Files.deleteIfExists(temporary.toPath());
+							java.nio.file.Files.deleteIfExists(compressed.toPath());
+						}
+					} finally {
+						lock.release();
+					}
+				} finally {
+					lockFile.close();
+				}
+			}
+		}
+
+		// Copy swagger-ui into the output directory.
+		new SwaggerUiExtractor(options).extract();
+		flush(recorder);
+		options.getListener().onComplete(listing);
+	}
+
+	/**
+	 * @return the given resources followed by those of the existing listing file with a path that is not among them,
+	 * see {@link DocletOptions#isMergeExistingOutput()}.
+	 */
+	private List<ResourceListingAPI> mergeListing(List<ResourceListingAPI> resources, File docFile) throws IOException {
+		Map<String, ResourceListingAPI> merged = new LinkedHashMap<String, ResourceListingAPI>();
+		for (ResourceListingAPI resource : resources) {
+			if (!merged.containsKey(resource.getPath())) {
+				merged.put(resource.getPath(), resource);
+			}
+		}
+		if (options.isMergeExistingOutput() && docFile.exists()) {
+			ResourceListing resourceListing = new ObjectMapperReader().read(docFile);
 			for (ResourceListingAPI resourceListingApi : resourceListing.getApis()) {
 				// Make sure we dont add an API twice (in case of common shared libs across modules)
-				if (!resources.contains(resourceListingApi)) {
-					resources.add(resourceListingApi);
+				if (!merged.containsKey(resourceListingApi.getPath())) {
+					merged.put(resourceListingApi.getPath(), resourceListingApi);
 				}
 			}
 		}
+		return new ArrayList<ResourceListingAPI>(merged.values());
+	}
+
+	private ResourceListing writeListing(List<ResourceListingAPI> resources, File file) throws IOException {
 		//write out json for api
 		ResourceListing listing = new ResourceListing(options.getApiVersion(), options.getDocBasePath(), resources);
-		recorder.record(docFile, listing);
+		options.getRecorder().record(file, listing);
+		if (options.isBundle()) {
+			new BundleWriter(options).write(listing);
+		}
+		return listing;
+	}
 
-		// Copy swagger-ui into the output directory.
-		ZipInputStream swaggerZip;
-		if (DocletOptions.DEFAULT_SWAGGER_UI_ZIP_PATH.equals(swaggerUiZipPath)) {
-			swaggerZip = new ZipInputStream(ServiceDoclet.class.getResourceAsStream("/swagger-ui.zip"));
-			System.out.println("Using default swagger-ui.zip file from SwaggerDoclet jar file");
-		} else {
-			if (new File(swaggerUiZipPath).exists()) {
-				swaggerZip = new ZipInputStream(new FileInputStream(swaggerUiZipPath));
-				System.out.println("Using swagger-ui.zip file from: " + swaggerUiZipPath);
-			} else {
-				File f = new File(".");
-				System.out.println("SwaggerDoclet working directory: " + f.getAbsolutePath());
-				System.out.println("-swaggerUiZipPath not set correct: " + swaggerUiZipPath);
+	/**
+	 * Renames the source over the target if it exists and differs from the target, otherwise leaves the target alone,
+	 * so an unchanged listing keeps its modification time.
+	 */
+	private static void replace(File source, File target) throws IOException {
+		if (!source.isFile() || (target.isFile() && com.google.common.io.Files.equal(source, target))) {
+			return;
+		}
+		java.nio.file.Files.move(source.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE,
+				StandardCopyOption.REPLACE_EXISTING);
+	}
 
-				throw new RuntimeException("-swaggerUiZipPath not set correct, file not found: " + swaggerUiZipPath);
-			}
+	/**
+	 * Waits for the files a recorder writes in the background, see {@link java.io.Flushable}.
+	 */
+	static void flush(Recorder recorder) throws IOException {
+		if (recorder instanceof Flushable) {
+			((Flushable) recorder).flush();
 		}
+	}
 
-		ZipEntry entry = swaggerZip.getNextEntry();
-		while (entry != null) {
-			final File swaggerFile = new File(outputDirectory, entry.getName());
-			if (entry.isDirectory()) {
-				if (!swaggerFile.isDirectory() && !swaggerFile.mkdirs()) {
-					throw new RuntimeException("Unable to create directory: " + swaggerFile);
-				}
-			} else {
-				recorder.record(swaggerFile, swaggerZip);
-			}
+	/**
+	 * @return the archive the recorder writes into instead of the output directory, null if it writes to disk.
+	 */
+	static ArchiveWriter archiveOf(Recorder recorder) {
+		return recorder instanceof FileRecorder ? ((FileRecorder) recorder).getArchive() : null;
+	}
+
+	/**
+	 * The declaration of a parsed class, null if it has no apis, and the sources it was generated from.
+	 */
+	private static class ParsedClass {
+
+		private final ApiDeclaration declaration;
+		private final Set<ClassDoc> dependencies;
+		private final Set<String> unresolvedSubResources;
 
-			entry = swaggerZip.getNextEntry();
+		private ParsedClass(ApiDeclaration declaration, ApiClassParser classParser) {
+			this.declaration = declaration;
+			this.dependencies = classParser.dependencies();
+			this.unresolvedSubResources = classParser.unresolvedSubResources();
 		}
-		swaggerZip.close();
 	}
 
 }
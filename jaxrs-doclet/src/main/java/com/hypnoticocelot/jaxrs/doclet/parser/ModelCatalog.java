@@ -0,0 +1,82 @@
+package com.hypnoticocelot.jaxrs.doclet.parser;
+
+import com.hypnoticocelot.jaxrs.doclet.DocletOptions;
+import com.hypnoticocelot.jaxrs.doclet.ObjectMapperReader;
+import com.hypnoticocelot.jaxrs.doclet.model.Api;
+import com.hypnoticocelot.jaxrs.doclet.model.ApiDeclaration;
+import com.hypnoticocelot.jaxrs.doclet.model.Model;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Collects the models of all declarations into a shared catalog, so every model is written once instead of once per
+ * declaration that uses it. The catalog is written as a declaration without apis. The first model with a given id is
+ * taken into the catalog; a different model with the same id stays inline in its declaration.
+ */
+class ModelCatalog {
+
+	static final String FILE_NAME = "models.json";
+
+	private final DocletOptions options;
+	private final Map<String, Model> models = new TreeMap<String, Model>();
+
+	ModelCatalog(DocletOptions options) {
+		this.options = options;
+	}
+
+	/**
+	 * @return a copy of the declaration that takes its models from the catalog. The models are still defined inline
+	 * as well if {@link DocletOptions#isModelCatalogInline()} is set.
+	 */
+	ApiDeclaration extract(ApiDeclaration declaration) {
+		if (declaration.getModels() == null) {
+			return declaration;
+		}
+		List<String> catalogModels = new ArrayList<String>();
+		Map<String, Model> inlineModels = new LinkedHashMap<String, Model>();
+		synchronized (models) {
+			for (Map.Entry<String, Model> model : declaration.getModels().entrySet()) {
+				Model cataloged = models.get(model.getKey());
+				if (cataloged == null) {
+					models.put(model.getKey(), model.getValue());
+					cataloged = model.getValue();
+				}
+				if (cataloged.equals(model.getValue())) {
+					catalogModels.add(model.getKey());
+					if (options.isModelCatalogInline()) {
+						inlineModels.put(model.getKey(), model.getValue());
+					}
+				} else {
+					inlineModels.put(model.getKey(), model.getValue());
+				}
+			}
+		}
+		return declaration.withModelCatalog(FILE_NAME, catalogModels, inlineModels);
+	}
+
+	/**
+	 * Records the catalog merged with the models of the existing catalog file that were not redefined, which may be
+	 * used by declarations of other runs.
+	 */
+	void write(File file) throws IOException {
+		Map<String, Model> merged;
+		synchronized (models) {
+			merged = new TreeMap<String, Model>(models);
+		}
+		if (options.isMergeExistingOutput() && file.isFile()) {
+			Map<String, Model> existingModels = new ObjectMapperReader().readDeclaration(file).getModels();
+			if (existingModels != null) {
+				for (Map.Entry<String, Model> model : existingModels.entrySet()) {
+					if (!merged.containsKey(model.getKey())) {
+						merged.put(model.getKey(), model.getValue());
+					}
+				}
+			}
+		}
+		options.getRecorder().record(file, new ApiDeclaration(options.getApiVersion(), options.getApiBasePath(), null,
+				Collections.<Api>emptyList(), merged, null));
+	}
+
+}
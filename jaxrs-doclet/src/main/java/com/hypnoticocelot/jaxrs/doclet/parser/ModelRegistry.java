@@ -0,0 +1,90 @@
+package com.hypnoticocelot.jaxrs.doclet.parser;
+
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.hypnoticocelot.jaxrs.doclet.DocletOptions;
+import com.hypnoticocelot.jaxrs.doclet.doc.ClassDoc;
+import com.hypnoticocelot.jaxrs.doclet.doc.Type;
+import com.hypnoticocelot.jaxrs.doclet.model.Model;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Run-wide registry of the models reachable from a type, keyed by the qualified type name. Every model graph is parsed
+ * by {@link ApiModelParser} once and the same models are then shared by all declarations that reference the type.
+ * Safe to use from several parser threads. Every model id is reported to the {@link
+ * com.hypnoticocelot.jaxrs.doclet.ParseListener} of the options once, when it is parsed first.
+ */
+public class ModelRegistry {
+
+    private final DocletOptions options;
+    private final Cache<String, ModelGraph> graphsByType;
+    private final Set<String> reportedModelIds = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+    public ModelRegistry(DocletOptions options) {
+        this.options = options;
+        this.graphsByType = CacheBuilder.newBuilder().build();
+    }
+
+    /**
+     * @return the models reachable from the given type, in the order {@link ApiModelParser#parse()} finds them.
+     */
+    public Set<Model> modelsOf(Type type) {
+        return graphOf(type).models;
+    }
+
+    /**
+     * @return the classes the models of the given type were parsed from, see {@link ApiModelParser#classes()}.
+     */
+    public Set<ClassDoc> classesOf(Type type) {
+        return graphOf(type).classes;
+    }
+
+    private ModelGraph graphOf(final Type type) {
+        // the models of a type variable or wildcard depend on its bounds, not only on its name
+        if (type.asTypeVariable() != null || type.asWildcardType() != null) {
+            return parse(type);
+        }
+        try {
+            return graphsByType.get(type.qualifiedTypeName(), new Callable<ModelGraph>() {
+                @Override
+                public ModelGraph call() {
+                    return parse(type);
+                }
+            });
+        } catch (ExecutionException e) {
+            throw Throwables.propagate(e.getCause());
+        } catch (UncheckedExecutionException e) {
+            throw Throwables.propagate(e.getCause());
+        }
+    }
+
+    private ModelGraph parse(Type type) {
+        ApiModelParser parser = new ApiModelParser(options, options.getTranslator(), type);
+        Set<Model> models = parser.parse();
+        for (Model model : models) {
+            if (reportedModelIds.add(model.getId())) {
+                options.getListener().onModel(parser.classOf(model), model);
+            }
+        }
+        return new ModelGraph(models, parser.classes());
+    }
+
+    private static final class ModelGraph {
+
+        private final Set<Model> models;
+        private final Set<ClassDoc> classes;
+
+        private ModelGraph(Set<Model> models, Set<ClassDoc> classes) {
+            this.models = Collections.unmodifiableSet(models);
+            this.classes = Collections.unmodifiableSet(classes);
+        }
+    }
+
+}
@@ -0,0 +1,112 @@
+package com.hypnoticocelot.jaxrs.doclet.parser;
+
+import com.hypnoticocelot.jaxrs.doclet.DocletOptions;
+import com.hypnoticocelot.jaxrs.doclet.doc.ClassDoc;
+import com.hypnoticocelot.jaxrs.doclet.doc.FieldDoc;
+import com.hypnoticocelot.jaxrs.doclet.doc.MethodDoc;
+import com.hypnoticocelot.jaxrs.doclet.doc.Parameter;
+import com.hypnoticocelot.jaxrs.doclet.doc.ParameterizedType;
+import com.hypnoticocelot.jaxrs.doclet.doc.Type;
+import com.hypnoticocelot.jaxrs.doclet.translator.Translator;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Collects the classes whose names the parsers translate into model ids, without parsing them: the resource classes,
+ * the types of the parameters and return values of their methods, and the types of the properties of every model
+ * reachable from those, walked the way {@link ApiModelParser} walks them. Types that are only on the class path or
+ * the source path are collected as well. Parameters that are left out of the documentation are still collected.
+ */
+class ModelTypes {
+
+	private final DocletOptions options;
+	private final Translator translator;
+	private final SortedMap<String, ClassDoc> types;
+	private final Set<String> walked;
+
+	ModelTypes(DocletOptions options) {
+		this.options = options;
+		this.translator = options.getTranslator();
+		this.types = new TreeMap<String, ClassDoc>();
+		this.walked = new HashSet<String>();
+	}
+
+	/**
+	 * @return the classes reachable from the given resource classes, in the order of their qualified names.
+	 */
+	Collection<ClassDoc> reachableFrom(ClassDoc[] classes) {
+		for (ClassDoc classDoc : classes) {
+			add(classDoc);
+			for (MethodDoc method : options.getDocCache().methods(classDoc)) {
+				for (Parameter parameter : options.getDocCache().parameters(method)) {
+					addWithModels(parameter.type());
+				}
+				addWithModels(method.returnType());
+			}
+		}
+		return types.values();
+	}
+
+	private void addWithModels(Type type) {
+		add(type);
+		if (options.isParseModels()) {
+			walk(type);
+		}
+	}
+
+	private void add(Type type) {
+		ClassDoc classDoc = type.asClassDoc();
+		if (classDoc != null && !types.containsKey(classDoc.qualifiedTypeName())) {
+			types.put(classDoc.qualifiedTypeName(), classDoc);
+		}
+		ParameterizedType parameterizedType = type.asParameterizedType();
+		if (parameterizedType != null) {
+			for (Type typeArgument : parameterizedType.typeArguments()) {
+				add(typeArgument);
+			}
+		}
+	}
+
+	/**
+	 * Adds the types of the properties of the model of the given type and of their models, see
+	 * {@link ApiModelParser#parse()}.
+	 */
+	private void walk(Type type) {
+		ClassDoc classDoc = type.asClassDoc();
+		String qualifiedTypeName = type.qualifiedTypeName();
+		if (AnnotationHelper.isPrimitive(type) || qualifiedTypeName.startsWith("javax.")
+				|| qualifiedTypeName.equals("java.lang.Object")
+				|| options.getTypesToTreatAsOpaque().contains(qualifiedTypeName)
+				|| classDoc == null || !walked.add(classDoc.qualifiedTypeName())) {
+			walkTypeArguments(type);
+			return;
+		}
+		for (MethodDoc method : options.getDocCache().methods(classDoc)) {
+			if (translator.methodName(method).value() != null) {
+				add(method.returnType());
+				walk(method.returnType());
+			}
+		}
+		for (FieldDoc field : options.getDocCache().fields(classDoc)) {
+			if (translator.fieldName(field).value() != null) {
+				add(field.type());
+				walk(field.type());
+			}
+		}
+		walkTypeArguments(type);
+	}
+
+	private void walkTypeArguments(Type type) {
+		ParameterizedType parameterizedType = type.asParameterizedType();
+		if (parameterizedType != null) {
+			for (Type typeArgument : parameterizedType.typeArguments()) {
+				walk(typeArgument);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,223 @@
+package com.hypnoticocelot.jaxrs.doclet.parser;
+
+import com.google.common.base.Joiner;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.Files;
+import com.hypnoticocelot.jaxrs.doclet.ArchiveWriter;
+import com.hypnoticocelot.jaxrs.doclet.DocletOptions;
+import com.hypnoticocelot.jaxrs.doclet.Recorder;
+
+import java.io.*;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static com.google.common.base.Charsets.UTF_8;
+
+/**
+ * Copies swagger-ui into the output directory. The extracted files are stamped with the checksum of the zip and the
+ * list of its files, so the extraction is skipped while the stamp matches and all files are still there. If a cache
+ * directory is configured, every zip is extracted there once and the output directory is filled from the cache. If the
+ * output goes into an archive, the entries of the zip are copied into it without being extracted.
+ */
+class SwaggerUiExtractor {
+
+	static final String STAMP_FILE_NAME = ".swagger-ui.sha1";
+
+	private final DocletOptions options;
+
+	SwaggerUiExtractor(DocletOptions options) {
+		this.options = options;
+	}
+
+	void extract() throws IOException {
+		if (options.getSwaggerUiZipPath() == null) {
+			return;
+		}
+		File outputDirectory = options.getOutputDirectory();
+		byte[] zip = readZip();
+		ArchiveWriter archive = JaxRsAnnotationParser.archiveOf(options.getRecorder());
+		if (archive != null) {
+			archive.addRaw(zip, outputDirectory);
+			return;
+		}
+		String checksum = Hashing.sha1().hashBytes(zip).toString();
+		if (outputDirectory != null && isStamped(outputDirectory, checksum)) {
+			return;
+		}
+
+		List<String> files;
+		File cacheDirectory = options.getSwaggerUiCacheDirectory();
+		if (cacheDirectory != null) {
+			File cached = cache(cacheDirectory, checksum, zip);
+			files = readStamp(cached);
+			files = files.subList(1, files.size());
+			for (String name : files) {
+				File file = new File(outputDirectory, name);
+				if (file.getParentFile() != null) {
+					makeDirectory(file.getParentFile());
+				}
+				InputStream stream = new FileInputStream(new File(cached, name));
+				try {
+					options.getRecorder().record(file, stream);
+				} finally {
+					stream.close();
+				}
+			}
+		} else {
+			files = unzip(zip, outputDirectory, options.getRecorder());
+		}
+		if (outputDirectory != null) {
+			JaxRsAnnotationParser.flush(options.getRecorder());
+			writeStamp(outputDirectory, checksum, files);
+		}
+	}
+
+	private byte[] readZip() throws IOException {
+		String swaggerUiZipPath = options.getSwaggerUiZipPath();
+		InputStream zip;
+		if (DocletOptions.DEFAULT_SWAGGER_UI_ZIP_PATH.equals(swaggerUiZipPath)) {
+			zip = DocletOptions.class.getResourceAsStream("/swagger-ui.zip");
+			System.out.println("Using default swagger-ui.zip file from SwaggerDoclet jar file");
+		} else {
+			if (new File(swaggerUiZipPath).exists()) {
+				zip = new FileInputStream(swaggerUiZipPath);
+				System.out.println("Using swagger-ui.zip file from: " + swaggerUiZipPath);
+			} else {
+				File f = new File(".");
+				System.out.println("SwaggerDoclet working directory: " + f.getAbsolutePath());
+				System.out.println("-swaggerUiZipPath not set correct: " + swaggerUiZipPath);
+
+				throw new RuntimeException("-swaggerUiZipPath not set correct, file not found: " + swaggerUiZipPath);
+			}
+		}
+		try {
+			return ByteStreams.toByteArray(zip);
+		} finally {
+			zip.close();
+		}
+	}
+
+	/**
+	 * @return the directory in the cache the zip with the given checksum is extracted to, extracting it first if
+	 * needed. Concurrent runs extract to private directories and the first one to rename its directory wins. A cached
+	 * directory that lost some of its files is moved aside and replaced.
+	 */
+	private File cache(File cacheDirectory, String checksum, byte[] zip) throws IOException {
+		File cached = new File(cacheDirectory, checksum);
+		if (isStamped(cached, checksum)) {
+			return cached;
+		}
+		File extracting = new File(cacheDirectory, checksum + "." + UUID.randomUUID() + ".tmp");
+		makeDirectory(extracting);
+		List<String> files = unzip(zip, extracting, null);
+		writeStamp(extracting, checksum, files);
+		for (boolean retry = true; ; retry = false) {
+			try {
+				java.nio.file.Files.move(extracting.toPath(), cached.toPath(), StandardCopyOption.ATOMIC_MOVE);
+				return cached;
+			} catch (IOException e) {
+				if (isStamped(cached, checksum)) {
+					// another run got there first
+					deleteRecursively(extracting);
+					return cached;
+				}
+				if (!retry) {
+					throw new IOException("Unable to cache swagger-ui in " + cached, e);
+				}
+			}
+			File discarded = new File(cacheDirectory, checksum + "." + UUID.randomUUID() + ".tmp");
+			try {
+				java.nio.file.Files.move(cached.toPath(), discarded.toPath(), StandardCopyOption.ATOMIC_MOVE);
+				deleteRecursively(discarded);
+			} catch (IOException e) {
+				// moved aside by another run, or there was nothing to move
+			}
+		}
+	}
+
+	/**
+	 * Extracts the zip through the given recorder, or straight to disk if it is null.
+	 *
+	 * @return the names of the extracted files.
+	 */
+	private static List<String> unzip(byte[] zip, File directory, Recorder recorder) throws IOException {
+		List<String> files = new ArrayList<String>();
+		ZipInputStream swaggerZip = new ZipInputStream(new ByteArrayInputStream(zip));
+		try {
+			ZipEntry entry = swaggerZip.getNextEntry();
+			while (entry != null) {
+				final File swaggerFile = new File(directory, entry.getName());
+				if (entry.isDirectory()) {
+					makeDirectory(swaggerFile);
+				} else {
+					if (recorder != null) {
+						recorder.record(swaggerFile, swaggerZip);
+					} else {
+						makeDirectory(swaggerFile.getParentFile());
+						java.nio.file.Files.copy(swaggerZip, swaggerFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+					}
+					files.add(entry.getName());
+				}
+
+				entry = swaggerZip.getNextEntry();
+			}
+		} finally {
+			swaggerZip.close();
+		}
+		return files;
+	}
+
+	private static boolean isStamped(File directory, String checksum) throws IOException {
+		List<String> stamp = readStamp(directory);
+		if (stamp.isEmpty() || !stamp.get(0).equals(checksum)) {
+			return false;
+		}
+		for (String name : stamp.subList(1, stamp.size())) {
+			if (!new File(directory, name).isFile()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return the checksum followed by the names of the files, or an empty list if the directory is not stamped.
+	 */
+	private static List<String> readStamp(File directory) throws IOException {
+		File stamp = new File(directory, STAMP_FILE_NAME);
+		if (!stamp.isFile()) {
+			return new ArrayList<String>();
+		}
+		return Files.readLines(stamp, UTF_8);
+	}
+
+	private static void writeStamp(File directory, String checksum, List<String> files) throws IOException {
+		List<String> stamp = new ArrayList<String>(files.size() + 1);
+		stamp.add(checksum);
+		stamp.addAll(files);
+		Files.write(Joiner.on('\n').join(stamp) + "\n", new File(directory, STAMP_FILE_NAME), UTF_8);
+	}
+
+	private static void makeDirectory(File directory) {
+		if (!directory.isDirectory() && !directory.mkdirs()) {
+			throw new RuntimeException("Unable to create directory: " + directory);
+		}
+	}
+
+	private static void deleteRecursively(File file) {
+		File[] children = file.listFiles();
+		if (children != null) {
+			for (File child : children) {
+				deleteRecursively(child);
+			}
+		}
+		// what is left behind only takes space, the cache never reads it
+		file.delete();
+	}
+
+}
@@ -0,0 +1,275 @@
+package com.hypnoticocelot.jaxrs.doclet.processor;
+
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Reads the parameter names of compiled methods from the class files, which javac's class reader only names
+ * {@code arg0}, {@code arg1}, ... The names are taken from the {@code MethodParameters} attribute of classes compiled
+ * with {@code -parameters}, or else from the local variable table of classes compiled with debug information. Each
+ * class file is read once, when the first of its parameters is asked for.
+ */
+class ClassFileParameterNames {
+
+    private static final int MAGIC = 0xcafebabe;
+    private static final int ACC_STATIC = 0x0008;
+
+    private final JavaFileManager fileManager;
+    private final Elements elements;
+    private final Types types;
+    private final Map<TypeElement, Map<String, String[]>> classes = new HashMap<TypeElement, Map<String, String[]>>();
+
+    ClassFileParameterNames(JavaFileManager fileManager, Elements elements, Types types) {
+        this.fileManager = fileManager;
+        this.elements = elements;
+        this.types = types;
+    }
+
+    /**
+     * @return the name of the parameter in the class file, null if it has none or the class file cannot be read.
+     */
+    String nameOf(VariableElement parameter) {
+        ExecutableElement method = (ExecutableElement) parameter.getEnclosingElement();
+        TypeElement type = (TypeElement) method.getEnclosingElement();
+        Map<String, String[]> methods = classes.get(type);
+        if (methods == null) {
+            methods = read(type);
+            classes.put(type, methods);
+        }
+        StringBuilder key = new StringBuilder(method.getSimpleName()).append('(');
+        for (VariableElement methodParameter : method.getParameters()) {
+            key.append(types.erasure(methodParameter.asType())).append(',');
+        }
+        String[] names = methods.get(key.append(')').toString());
+        int index = method.getParameters().indexOf(parameter);
+        return names == null || index >= names.length ? null : names[index];
+    }
+
+    private Map<String, String[]> read(TypeElement type) {
+        try {
+            JavaFileObject classFile = fileManager.getJavaFileForInput(StandardLocation.CLASS_PATH,
+                    elements.getBinaryName(type).toString(), JavaFileObject.Kind.CLASS);
+            if (classFile == null) {
+                return Collections.emptyMap();
+            }
+            DataInputStream input = new DataInputStream(new BufferedInputStream(classFile.openInputStream()));
+            try {
+                return read(input);
+            } finally {
+                input.close();
+            }
+        } catch (IOException e) {
+            System.out.println("Unable to read the parameter names of " + type + ": " + e.getMessage());
+            return Collections.emptyMap();
+        }
+    }
+
+    private static Map<String, String[]> read(DataInputStream input) throws IOException {
+        if (input.readInt() != MAGIC) {
+            throw new IOException("Not a class file");
+        }
+        input.skipBytes(4);
+        String[] strings = readConstantPool(input);
+        input.skipBytes(6);
+        input.skipBytes(2 * input.readUnsignedShort());
+        int fieldCount = input.readUnsignedShort();
+        for (int i = 0; i < fieldCount; i++) {
+            input.skipBytes(6);
+            skipAttributes(input);
+        }
+        Map<String, String[]> methods = new HashMap<String, String[]>();
+        int methodCount = input.readUnsignedShort();
+        for (int i = 0; i < methodCount; i++) {
+            int access = input.readUnsignedShort();
+            String name = strings[input.readUnsignedShort()];
+            List<String> parameterTypes = parameterTypesOf(strings[input.readUnsignedShort()]);
+            String[] names = readParameterNames(input, strings, parameterTypes, (access & ACC_STATIC) != 0);
+            StringBuilder key = new StringBuilder(name).append('(');
+            for (String parameterType : parameterTypes) {
+                key.append(parameterType.substring(1)).append(',');
+            }
+            methods.put(key.append(')').toString(), names);
+        }
+        return methods;
+    }
+
+    /**
+     * @return the UTF-8 constants by their index; the other constants are skipped.
+     */
+    private static String[] readConstantPool(DataInputStream input) throws IOException {
+        String[] strings = new String[input.readUnsignedShort()];
+        for (int i = 1; i < strings.length; i++) {
+            int tag = input.readUnsignedByte();
+            switch (tag) {
+                case 1:
+                    strings[i] = input.readUTF();
+                    break;
+                case 7:
+                case 8:
+                case 16:
+                case 19:
+                case 20:
+                    input.skipBytes(2);
+                    break;
+                case 15:
+                    input.skipBytes(3);
+                    break;
+                case 3:
+                case 4:
+                case 9:
+                case 10:
+                case 11:
+                case 12:
+                case 17:
+                case 18:
+                    input.skipBytes(4);
+                    break;
+                case 5:
+                case 6:
+                    // takes two entries
+                    input.skipBytes(8);
+                    i++;
+                    break;
+                default:
+                    throw new IOException("Unknown constant pool tag " + tag);
+            }
+        }
+        return strings;
+    }
+
+    private static String[] readParameterNames(DataInputStream input, String[] strings, List<String> parameterTypes,
+            boolean isStatic) throws IOException {
+        String[] parameterNames = null;
+        String[] localVariableNames = null;
+        int attributeCount = input.readUnsignedShort();
+        for (int i = 0; i < attributeCount; i++) {
+            String attribute = strings[input.readUnsignedShort()];
+            int length = input.readInt();
+            if (attribute.equals("MethodParameters")) {
+                parameterNames = new String[input.readUnsignedByte()];
+                for (int j = 0; j < parameterNames.length; j++) {
+                    int name = input.readUnsignedShort();
+                    parameterNames[j] = name == 0 ? null : strings[name];
+                    input.skipBytes(2);
+                }
+            } else if (attribute.equals("Code")) {
+                input.skipBytes(4);
+                input.skipBytes(input.readInt());
+                input.skipBytes(8 * input.readUnsignedShort());
+                localVariableNames = readLocalVariableNames(input, strings, parameterTypes, isStatic);
+            } else {
+                input.skipBytes(length);
+            }
+        }
+        return parameterNames != null ? parameterNames : localVariableNames;
+    }
+
+    /**
+     * @return the names of the local variables in the slots of the parameters at the start of the method.
+     */
+    private static String[] readLocalVariableNames(DataInputStream input, String[] strings, List<String> parameterTypes,
+            boolean isStatic) throws IOException {
+        Map<Integer, Integer> slots = new HashMap<Integer, Integer>();
+        int slot = isStatic ? 0 : 1;
+        for (int i = 0; i < parameterTypes.size(); i++) {
+            slots.put(slot, i);
+            // longs and doubles take two slots
+            slot += parameterTypes.get(i).charAt(0) == 'J' || parameterTypes.get(i).charAt(0) == 'D' ? 2 : 1;
+        }
+        String[] names = null;
+        int attributeCount = input.readUnsignedShort();
+        for (int i = 0; i < attributeCount; i++) {
+            String attribute = strings[input.readUnsignedShort()];
+            int length = input.readInt();
+            if (!attribute.equals("LocalVariableTable")) {
+                input.skipBytes(length);
+                continue;
+            }
+            if (names == null) {
+                names = new String[parameterTypes.size()];
+            }
+            int entryCount = input.readUnsignedShort();
+            for (int j = 0; j < entryCount; j++) {
+                int start = input.readUnsignedShort();
+                input.skipBytes(2);
+                String name = strings[input.readUnsignedShort()];
+                input.skipBytes(2);
+                Integer parameter = slots.get(input.readUnsignedShort());
+                if (start == 0 && parameter != null) {
+                    names[parameter] = name;
+                }
+            }
+        }
+        return names;
+    }
+
+    private static void skipAttributes(DataInputStream input) throws IOException {
+        int attributeCount = input.readUnsignedShort();
+        for (int i = 0; i < attributeCount; i++) {
+            input.skipBytes(2);
+            input.skipBytes(input.readInt());
+        }
+    }
+
+    /**
+     * @return for each parameter the first character of its descriptor followed by the erasure of its type as
+     * {@code javax.lang.model} prints it, such as {@code Ljava.util.List} or {@code [int[]}.
+     */
+    private static List<String> parameterTypesOf(String descriptor) {
+        List<String> parameterTypes = new ArrayList<String>();
+        int position = 1;
+        while (descriptor.charAt(position) != ')') {
+            int start = position;
+            while (descriptor.charAt(position) == '[') {
+                position++;
+            }
+            String elementType;
+            if (descriptor.charAt(position) == 'L') {
+                int end = descriptor.indexOf(';', position);
+                elementType = descriptor.substring(position + 1, end).replace('/', '.').replace('$', '.');
+                position = end + 1;
+            } else {
+                elementType = primitiveOf(descriptor.charAt(position));
+                position++;
+            }
+            StringBuilder parameterType = new StringBuilder().append(descriptor.charAt(start)).append(elementType);
+            for (int i = start; i < position && descriptor.charAt(i) == '['; i++) {
+                parameterType.append("[]");
+            }
+            parameterTypes.add(parameterType.toString());
+        }
+        return parameterTypes;
+    }
+
+    private static String primitiveOf(char descriptor) {
+        switch (descriptor) {
+            case 'B':
+                return "byte";
+            case 'C':
+                return "char";
+            case 'D':
+                return "double";
+            case 'F':
+                return "float";
+            case 'I':
+                return "int";
+            case 'J':
+                return "long";
+            case 'S':
+                return "short";
+            default:
+                return "boolean";
+        }
+    }
+
+}
@@ -0,0 +1,178 @@
+package com.hypnoticocelot.jaxrs.doclet.processor;
+
+import com.sun.source.doctree.BlockTagTree;
+import com.sun.source.doctree.DocCommentTree;
+import com.sun.source.doctree.DocTree;
+import com.sun.source.doctree.InlineTagTree;
+import com.sun.source.doctree.TextTree;
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.tree.VariableTree;
+import com.sun.source.util.DocSourcePositions;
+import com.sun.source.util.DocTrees;
+import com.sun.source.util.JavacTask;
+import com.sun.source.util.TreePath;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.net.URI;
+import java.util.*;
+
+/**
+ * A comment as the {@code DocTrees} of the compiler parse it: the first sentence, the rest of the main description and
+ * the block tags. The text is given back the way javadoc gives it, with the inline tags as written.
+ */
+class DocComment {
+
+    private final DocTrees trees;
+    private final CompilationUnitTree unit;
+    private final DocCommentTree tree;
+
+    private DocComment(DocTrees trees, CompilationUnitTree unit, DocCommentTree tree) {
+        this.trees = trees;
+        this.unit = unit;
+        this.tree = tree;
+    }
+
+    /**
+     * @return the comment of the declaration at the path, null if it has none.
+     */
+    static DocComment of(DocTrees trees, TreePath path) {
+        DocCommentTree tree = trees.getDocCommentTree(path);
+        return tree == null ? null : new DocComment(trees, path.getCompilationUnit(), tree);
+    }
+
+    /**
+     * Parses raw comments, such as those of a {@link com.hypnoticocelot.jaxrs.doclet.parser.CommentIndex}, by putting
+     * each of them on a field of a class that only exists in memory.
+     *
+     * @return the comments by their keys.
+     */
+    static Map<String, DocComment> parse(Map<String, String> comments) throws IOException {
+        List<String> keys = new ArrayList<String>(comments.keySet());
+        final StringBuilder source = new StringBuilder("class Comments {\n");
+        for (int i = 0; i < keys.size(); i++) {
+            source.append("/**").append(comments.get(keys.get(i)).replace("\n", "\n*")).append("\n*/ int c")
+                    .append(i).append(";\n");
+        }
+        source.append("}\n");
+        JavaFileObject file = new SimpleJavaFileObject(URI.create("string:///Comments.java"), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return source;
+            }
+        };
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        JavacTask task = (JavacTask) compiler.getTask(null, null, null, Arrays.asList("-proc:none"), null,
+                Collections.singletonList(file));
+        DocTrees trees = DocTrees.instance(task);
+        CompilationUnitTree unit = task.parse().iterator().next();
+
+        Map<String, DocComment> parsed = new HashMap<String, DocComment>();
+        for (Tree member : ((ClassTree) unit.getTypeDecls().get(0)).getMembers()) {
+            String key = keys.get(Integer.parseInt(((VariableTree) member).getName().toString().substring(1)));
+            DocComment comment = of(trees, TreePath.getPath(unit, member));
+            if (comment != null) {
+                parsed.put(key, comment);
+            }
+        }
+        return parsed;
+    }
+
+    /**
+     * @return the nodes of the first sentence of the main description.
+     */
+    List<? extends DocTree> firstSentence() {
+        return tree.getFirstSentence();
+    }
+
+    /**
+     * @return the block tags, in the order of the comment.
+     */
+    List<? extends DocTree> blockTags() {
+        return tree.getBlockTags();
+    }
+
+    /**
+     * @return the main description as javadoc gives it, with the white space between its first sentence and the rest.
+     */
+    String body() {
+        StringBuilder body = new StringBuilder(textOf(tree.getFirstSentence()));
+        if (!tree.getBody().isEmpty()) {
+            if (!tree.getFirstSentence().isEmpty()) {
+                body.append(between(last(tree.getFirstSentence()), tree.getBody().get(0)));
+            }
+            body.append(textOf(tree.getBody()));
+        }
+        return body.toString().trim();
+    }
+
+    /**
+     * @return the text of the nodes as written, without the leading asterisks of the lines.
+     */
+    static String textOf(List<? extends DocTree> nodes) {
+        StringBuilder text = new StringBuilder();
+        for (DocTree node : nodes) {
+            text.append(node instanceof TextTree ? ((TextTree) node).getBody() : node.toString());
+        }
+        return text.toString();
+    }
+
+    /**
+     * @return the text of a block tag after its name, as {@code Tag.text()} gives it.
+     */
+    static String textOf(BlockTagTree tag) {
+        return tag.toString().substring(tag.getTagName().length() + 1).trim();
+    }
+
+    /**
+     * @return the text of an inline tag between its name and the closing brace, as {@code Tag.text()} gives it.
+     */
+    static String textOf(InlineTagTree tag) {
+        String text = tag.toString();
+        return text.substring(tag.getTagName().length() + 2, text.length() - 1).trim();
+    }
+
+    /**
+     * @return the white space between two nodes in the source, which the trees do not keep.
+     */
+    private String between(DocTree before, DocTree after) {
+        DocSourcePositions positions = trees.getSourcePositions();
+        long end = positions.getEndPosition(unit, tree, before);
+        long start = positions.getStartPosition(unit, tree, after);
+        if (end < 0 || start < end) {
+            return "";
+        }
+        CharSequence source;
+        try {
+            source = unit.getSourceFile().getCharContent(true);
+        } catch (IOException e) {
+            return "";
+        }
+        StringBuilder whiteSpace = new StringBuilder();
+        int i = (int) end;
+        while (i < start) {
+            char c = source.charAt(i++);
+            whiteSpace.append(c);
+            if (c == '\n') {
+                // the indentation and the asterisks that start a line are not part of the comment
+                while (i < start && (source.charAt(i) == ' ' || source.charAt(i) == '\t' || source.charAt(i) == '\f')) {
+                    i++;
+                }
+                while (i < start && source.charAt(i) == '*') {
+                    i++;
+                }
+            }
+        }
+        return whiteSpace.toString();
+    }
+
+    private static DocTree last(List<? extends DocTree> nodes) {
+        return nodes.get(nodes.size() - 1);
+    }
+
+}
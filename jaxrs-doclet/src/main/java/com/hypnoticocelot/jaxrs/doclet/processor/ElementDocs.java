@@ -0,0 +1,954 @@
+package com.hypnoticocelot.jaxrs.doclet.processor;
+
+import com.hypnoticocelot.jaxrs.doclet.doc.*;
+import com.hypnoticocelot.jaxrs.doclet.parser.CommentIndex;
+import com.sun.source.doctree.BlockTagTree;
+import com.sun.source.doctree.DocTree;
+import com.sun.source.doctree.InlineTagTree;
+import com.sun.source.doctree.ParamTree;
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.util.DocTrees;
+import com.sun.source.util.TreePath;
+
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.TypeParameterElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Presents elements of {@code javax.lang.model} to the parsers, as the doclet for the javadoc of JDK 9 and later, the
+ * annotation processor and the scanner of compiled classes read them. All members are visible, as in javadoc with
+ * {@code -private}, and every class, method, field and parameter is represented by a single object. Not thread-safe,
+ * like the javax.lang.model implementation underneath.
+ * <p/>
+ * Tools that embed the doclet can document the classes of their own compiler task with it, for example through
+ * {@link com.hypnoticocelot.jaxrs.doclet.ServiceGenerator}:
+ * <pre>
+ * JavacTask task = (JavacTask) compiler.getTask(null, fileManager, null, options, null, units);
+ * List&lt;TypeElement&gt; classes = ... // the types of task.analyze()
+ * RootDoc rootDoc = new ElementDocs(task.getElements(), task.getTypes(), DocTrees.instance(task)).rootDoc(classes);
+ * </pre>
+ */
+public class ElementDocs {
+
+    private static final Pattern SYNTHETIC_PARAMETER_NAME = Pattern.compile("arg\\d+");
+
+    private final Elements elements;
+    private final Types types;
+    private final DocTrees trees;
+    private Map<String, DocComment> indexedComments;
+    private ClassFileParameterNames parameterNames;
+    private final Map<Element, Object> docs = new HashMap<Element, Object>();
+
+    /**
+     * @param trees the trees of the sources for the comments and the source positions, may be null if there are none.
+     */
+    public ElementDocs(Elements elements, Types types, DocTrees trees) {
+        this.elements = elements;
+        this.types = types;
+        this.trees = trees;
+    }
+
+    /**
+     * Sets the index the comments of elements without a comment of their own are taken from, such as compiled classes.
+     */
+    ElementDocs setCommentIndex(CommentIndex commentIndex) throws IOException {
+        this.indexedComments = DocComment.parse(commentIndex.getComments());
+        return this;
+    }
+
+    /**
+     * Sets where the names of parameters of compiled methods are read from, which the elements do not know.
+     */
+    ElementDocs setParameterNames(ClassFileParameterNames parameterNames) {
+        this.parameterNames = parameterNames;
+        return this;
+    }
+
+    /**
+     * @param classes the classes to document, in the order the listing should have, including nested classes.
+     */
+    public RootDoc rootDoc(final Collection<TypeElement> classes) {
+        return new RootDoc() {
+            @Override
+            public ClassDoc[] classes() {
+                List<ClassDoc> classDocs = new ArrayList<ClassDoc>();
+                for (TypeElement type : classes) {
+                    classDocs.add(classDoc(type));
+                }
+                return classDocs.toArray(new ClassDoc[classDocs.size()]);
+            }
+
+            @Override
+            public ClassDoc classNamed(String qualifiedName) {
+                TypeElement type = elements.getTypeElement(qualifiedName);
+                return type == null ? null : classDoc(type);
+            }
+
+            @Override
+            public String toString() {
+                return "RootDoc";
+            }
+        };
+    }
+
+    private ClassDoc classDoc(TypeElement element) {
+        Object doc = docs.get(element);
+        if (doc == null) {
+            doc = new ElementClassDoc(element);
+            docs.put(element, doc);
+        }
+        return (ClassDoc) doc;
+    }
+
+    private MethodDoc methodDoc(ExecutableElement element) {
+        Object doc = docs.get(element);
+        if (doc == null) {
+            doc = new ElementMethodDoc(element);
+            docs.put(element, doc);
+        }
+        return (MethodDoc) doc;
+    }
+
+    private FieldDoc fieldDoc(VariableElement element) {
+        Object doc = docs.get(element);
+        if (doc == null) {
+            doc = new ElementFieldDoc(element);
+            docs.put(element, doc);
+        }
+        return (FieldDoc) doc;
+    }
+
+    private Parameter parameter(VariableElement element) {
+        Object doc = docs.get(element);
+        if (doc == null) {
+            doc = new ElementParameter(element);
+            docs.put(element, doc);
+        }
+        return (Parameter) doc;
+    }
+
+    /**
+     * @return the type: the class itself if it has no type arguments, as in javadoc.
+     */
+    private Type type(TypeMirror mirror) {
+        switch (mirror.getKind()) {
+            case DECLARED:
+            case ERROR:
+                Element element = types.asElement(mirror);
+                if (element instanceof TypeElement) {
+                    ClassDoc classDoc = classDoc((TypeElement) element);
+                    if (((DeclaredType) mirror).getTypeArguments().isEmpty()) {
+                        return classDoc;
+                    }
+                    return new ElementParameterizedType((DeclaredType) mirror, classDoc);
+                }
+                return new ElementType<TypeMirror>(mirror);
+            case ARRAY:
+                return new ElementArrayType((ArrayType) mirror);
+            case TYPEVAR:
+                return new ElementTypeVariable((javax.lang.model.type.TypeVariable) mirror);
+            case WILDCARD:
+                return new ElementWildcardType((javax.lang.model.type.WildcardType) mirror);
+            default:
+                return new ElementType<TypeMirror>(mirror);
+        }
+    }
+
+    private Type[] types(List<? extends TypeMirror> mirrors) {
+        Type[] result = new Type[mirrors.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = type(mirrors.get(i));
+        }
+        return result;
+    }
+
+    private AnnotationDesc[] annotations(Element element) {
+        List<? extends AnnotationMirror> mirrors = element.getAnnotationMirrors();
+        AnnotationDesc[] result = new AnnotationDesc[mirrors.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = new ElementAnnotationDesc(mirrors.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * @return the value in the form of the {@code doc} interfaces, see {@link AnnotationValue#value()}.
+     */
+    private Object valueOf(Object value) {
+        if (value instanceof TypeMirror) {
+            return type((TypeMirror) value);
+        }
+        if (value instanceof VariableElement) {
+            return fieldDoc((VariableElement) value);
+        }
+        if (value instanceof AnnotationMirror) {
+            return new ElementAnnotationDesc((AnnotationMirror) value);
+        }
+        if (value instanceof List) {
+            List<?> values = (List<?>) value;
+            AnnotationValue[] result = new AnnotationValue[values.size()];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = new ElementAnnotationValue((javax.lang.model.element.AnnotationValue) values.get(i));
+            }
+            return result;
+        }
+        return value;
+    }
+
+    private DocComment commentOf(Element element) {
+        TreePath path = trees == null ? null : trees.getPath(element);
+        DocComment comment = path == null ? null : DocComment.of(trees, path);
+        if (comment != null || indexedComments == null) {
+            return comment;
+        }
+        Element enclosing = element.getEnclosingElement();
+        switch (element.getKind()) {
+            case FIELD:
+            case ENUM_CONSTANT:
+                return indexedComments.get(CommentIndex.fieldKey(qualifiedNameOf(enclosing),
+                        element.getSimpleName().toString()));
+            case METHOD:
+                List<? extends VariableElement> parameters = ((ExecutableElement) element).getParameters();
+                String[] parameterTypes = new String[parameters.size()];
+                for (int i = 0; i < parameterTypes.length; i++) {
+                    parameterTypes[i] = types.erasure(parameters.get(i).asType()).toString();
+                }
+                return indexedComments.get(CommentIndex.methodKey(qualifiedNameOf(enclosing),
+                        element.getSimpleName().toString(), parameterTypes));
+            default:
+                return element instanceof TypeElement ? indexedComments.get(qualifiedNameOf(element)) : null;
+        }
+    }
+
+    private String nameOf(VariableElement parameter) {
+        String name = parameter.getSimpleName().toString();
+        if (parameterNames != null && SYNTHETIC_PARAMETER_NAME.matcher(name).matches()) {
+            String classFileName = parameterNames.nameOf(parameter);
+            if (classFileName != null) {
+                return classFileName;
+            }
+        }
+        return name;
+    }
+
+    private static String qualifiedNameOf(Element element) {
+        return element instanceof TypeElement ? ((TypeElement) element).getQualifiedName().toString() : "";
+    }
+
+    private SourcePosition position(Element element) {
+        if (trees == null) {
+            return null;
+        }
+        TreePath path = trees.getPath(element);
+        if (path == null) {
+            return null;
+        }
+        CompilationUnitTree unit = path.getCompilationUnit();
+        URI uri = unit.getSourceFile().toUri();
+        final File file = "file".equals(uri.getScheme()) ? new File(uri) : null;
+        long start = trees.getSourcePositions().getStartPosition(unit, path.getLeaf());
+        final int line = (int) unit.getLineMap().getLineNumber(start);
+        final int column = (int) unit.getLineMap().getColumnNumber(start);
+        return new SourcePosition() {
+            @Override
+            public File file() {
+                return file;
+            }
+
+            @Override
+            public int line() {
+                return line;
+            }
+
+            @Override
+            public int column() {
+                return column;
+            }
+
+            @Override
+            public String toString() {
+                return file + ":" + line;
+            }
+        };
+    }
+
+    /**
+     * The types that are neither classes nor parameterized, such as the primitive types; the base of the others.
+     */
+    private class ElementType<T extends TypeMirror> implements Type {
+        final T mirror;
+
+        private ElementType(T mirror) {
+            this.mirror = mirror;
+        }
+
+        @Override
+        public String qualifiedTypeName() {
+            return mirror.toString();
+        }
+
+        @Override
+        public String typeName() {
+            return qualifiedTypeName();
+        }
+
+        @Override
+        public String simpleTypeName() {
+            return qualifiedTypeName();
+        }
+
+        @Override
+        public String dimension() {
+            return "";
+        }
+
+        @Override
+        public ClassDoc asClassDoc() {
+            return null;
+        }
+
+        @Override
+        public ParameterizedType asParameterizedType() {
+            return null;
+        }
+
+        @Override
+        public TypeVariable asTypeVariable() {
+            return null;
+        }
+
+        @Override
+        public WildcardType asWildcardType() {
+            return null;
+        }
+
+        @Override
+        public String toString() {
+            return mirror.toString();
+        }
+    }
+
+    private class ElementArrayType extends ElementType<ArrayType> {
+        private final Type componentType;
+
+        private ElementArrayType(ArrayType mirror) {
+            super(mirror);
+            this.componentType = type(mirror.getComponentType());
+        }
+
+        @Override
+        public String qualifiedTypeName() {
+            return componentType.qualifiedTypeName();
+        }
+
+        @Override
+        public String typeName() {
+            return componentType.typeName();
+        }
+
+        @Override
+        public String simpleTypeName() {
+            return componentType.simpleTypeName();
+        }
+
+        @Override
+        public String dimension() {
+            return componentType.dimension() + "[]";
+        }
+
+        @Override
+        public ClassDoc asClassDoc() {
+            return componentType.asClassDoc();
+        }
+
+        @Override
+        public ParameterizedType asParameterizedType() {
+            return componentType.asParameterizedType();
+        }
+
+        @Override
+        public TypeVariable asTypeVariable() {
+            return componentType.asTypeVariable();
+        }
+
+        @Override
+        public WildcardType asWildcardType() {
+            return componentType.asWildcardType();
+        }
+    }
+
+    private class ElementParameterizedType extends ElementType<DeclaredType> implements ParameterizedType {
+        private final ClassDoc classDoc;
+
+        private ElementParameterizedType(DeclaredType mirror, ClassDoc classDoc) {
+            super(mirror);
+            this.classDoc = classDoc;
+        }
+
+        @Override
+        public String qualifiedTypeName() {
+            return classDoc.qualifiedTypeName();
+        }
+
+        @Override
+        public String typeName() {
+            return classDoc.typeName();
+        }
+
+        @Override
+        public String simpleTypeName() {
+            return classDoc.simpleTypeName();
+        }
+
+        @Override
+        public ClassDoc asClassDoc() {
+            return classDoc;
+        }
+
+        @Override
+        public ParameterizedType asParameterizedType() {
+            return this;
+        }
+
+        @Override
+        public Type[] typeArguments() {
+            return types(mirror.getTypeArguments());
+        }
+    }
+
+    private class ElementTypeVariable extends ElementType<javax.lang.model.type.TypeVariable> implements TypeVariable {
+
+        private ElementTypeVariable(javax.lang.model.type.TypeVariable mirror) {
+            super(mirror);
+        }
+
+        @Override
+        public ClassDoc asClassDoc() {
+            return type(types.erasure(mirror)).asClassDoc();
+        }
+
+        @Override
+        public TypeVariable asTypeVariable() {
+            return this;
+        }
+
+        @Override
+        public Type[] bounds() {
+            return new Type[]{type(mirror.getUpperBound())};
+        }
+    }
+
+    private class ElementWildcardType extends ElementType<javax.lang.model.type.WildcardType> implements WildcardType {
+
+        private ElementWildcardType(javax.lang.model.type.WildcardType mirror) {
+            super(mirror);
+        }
+
+        @Override
+        public String qualifiedTypeName() {
+            return "?";
+        }
+
+        @Override
+        public ClassDoc asClassDoc() {
+            return type(types.erasure(mirror)).asClassDoc();
+        }
+
+        @Override
+        public WildcardType asWildcardType() {
+            return this;
+        }
+
+        @Override
+        public Type[] extendsBounds() {
+            return mirror.getExtendsBound() == null ? new Type[0] : new Type[]{type(mirror.getExtendsBound())};
+        }
+
+        @Override
+        public Type[] superBounds() {
+            return mirror.getSuperBound() == null ? new Type[0] : new Type[]{type(mirror.getSuperBound())};
+        }
+    }
+
+    private class ElementAnnotationDesc implements AnnotationDesc {
+        private final AnnotationMirror mirror;
+
+        private ElementAnnotationDesc(AnnotationMirror mirror) {
+            this.mirror = mirror;
+        }
+
+        @Override
+        public ClassDoc annotationType() {
+            return classDoc((TypeElement) mirror.getAnnotationType().asElement());
+        }
+
+        @Override
+        public ElementValuePair[] elementValues() {
+            List<ElementValuePair> pairs = new ArrayList<ElementValuePair>();
+            for (final Map.Entry<? extends ExecutableElement, ? extends javax.lang.model.element.AnnotationValue> value
+                    : mirror.getElementValues().entrySet()) {
+                pairs.add(new ElementValuePair() {
+                    @Override
+                    public MethodDoc element() {
+                        return methodDoc(value.getKey());
+                    }
+
+                    @Override
+                    public AnnotationValue value() {
+                        return new ElementAnnotationValue(value.getValue());
+                    }
+
+                    @Override
+                    public String toString() {
+                        return value.getKey().getSimpleName() + "=" + value.getValue();
+                    }
+                });
+            }
+            return pairs.toArray(new ElementValuePair[pairs.size()]);
+        }
+
+        @Override
+        public String toString() {
+            return mirror.toString();
+        }
+    }
+
+    private class ElementAnnotationValue implements AnnotationValue {
+        private final javax.lang.model.element.AnnotationValue value;
+
+        private ElementAnnotationValue(javax.lang.model.element.AnnotationValue value) {
+            this.value = value;
+        }
+
+        @Override
+        public Object value() {
+            return valueOf(value.getValue());
+        }
+
+        @Override
+        public String toString() {
+            return value.toString();
+        }
+    }
+
+    /**
+     * The names, annotations and the comment shared by all elements.
+     */
+    private abstract class ElementDoc<T extends Element> implements ProgramElementDoc {
+        final T element;
+        private DocComment comment;
+        private boolean commentRead;
+
+        private ElementDoc(T element) {
+            this.element = element;
+        }
+
+        @Override
+        public String name() {
+            return element.getSimpleName().toString();
+        }
+
+        @Override
+        public String qualifiedName() {
+            Element enclosing = element.getEnclosingElement();
+            if (enclosing instanceof TypeElement) {
+                return ((TypeElement) enclosing).getQualifiedName() + "." + element.getSimpleName();
+            }
+            return element.getSimpleName().toString();
+        }
+
+        @Override
+        public ClassDoc containingClass() {
+            Element enclosing = element.getEnclosingElement();
+            return enclosing instanceof TypeElement ? classDoc((TypeElement) enclosing) : null;
+        }
+
+        @Override
+        public AnnotationDesc[] annotations() {
+            return ElementDocs.this.annotations(element);
+        }
+
+        @Override
+        public SourcePosition position() {
+            return ElementDocs.this.position(element);
+        }
+
+        @Override
+        public String getRawCommentText() {
+            // only written to the comment index, which keeps the comments as they are in the sources
+            String rawComment = elements.getDocComment(element);
+            return rawComment == null ? "" : rawComment;
+        }
+
+        @Override
+        public String commentText() {
+            return comment() == null ? "" : comment().body();
+        }
+
+        /**
+         * @return the text between the inline tags as Text tags, and the inline tags with their text, as javadoc
+         * splits the comment.
+         */
+        @Override
+        public Tag[] firstSentenceTags() {
+            if (comment() == null) {
+                return new Tag[0];
+            }
+            List<Tag> tags = new ArrayList<Tag>();
+            List<DocTree> text = new ArrayList<DocTree>();
+            for (DocTree node : comment().firstSentence()) {
+                if (node instanceof InlineTagTree) {
+                    if (!text.isEmpty()) {
+                        tags.add(new ElementTag("Text", DocComment.textOf(text)));
+                        text.clear();
+                    }
+                    InlineTagTree inlineTag = (InlineTagTree) node;
+                    tags.add(new ElementTag("@" + inlineTag.getTagName(), DocComment.textOf(inlineTag)));
+                } else {
+                    text.add(node);
+                }
+            }
+            if (!text.isEmpty()) {
+                tags.add(new ElementTag("Text", DocComment.textOf(text)));
+            }
+            return tags.toArray(new Tag[tags.size()]);
+        }
+
+        @Override
+        public Tag[] tags(String tagName) {
+            List<Tag> tags = new ArrayList<Tag>();
+            if (comment() == null) {
+                return new Tag[0];
+            }
+            String name = tagName.startsWith("@") ? tagName : "@" + tagName;
+            for (DocTree node : comment().blockTags()) {
+                BlockTagTree blockTag = (BlockTagTree) node;
+                if (name.equals("@" + blockTag.getTagName())) {
+                    tags.add(blockTag instanceof ParamTree ? new ElementParamTag((ParamTree) blockTag)
+                            : new ElementTag(name, DocComment.textOf(blockTag)));
+                }
+            }
+            return tags.toArray(new Tag[tags.size()]);
+        }
+
+        @Override
+        public String toString() {
+            return qualifiedName();
+        }
+
+        private DocComment comment() {
+            if (!commentRead) {
+                comment = commentOf(element);
+                commentRead = true;
+            }
+            return comment;
+        }
+    }
+
+    private class ElementClassDoc extends ElementDoc<TypeElement> implements ClassDoc {
+
+        private ElementClassDoc(TypeElement type) {
+            super(type);
+        }
+
+        @Override
+        public String name() {
+            return typeName();
+        }
+
+        @Override
+        public String qualifiedName() {
+            return element.getQualifiedName().toString();
+        }
+
+        @Override
+        public String qualifiedTypeName() {
+            return qualifiedName();
+        }
+
+        /**
+         * @return the name without the package, including the names of the enclosing classes.
+         */
+        @Override
+        public String typeName() {
+            String packageName = containingPackage().name();
+            String qualifiedName = qualifiedName();
+            return packageName.isEmpty() ? qualifiedName : qualifiedName.substring(packageName.length() + 1);
+        }
+
+        @Override
+        public String simpleTypeName() {
+            return element.getSimpleName().toString();
+        }
+
+        @Override
+        public String dimension() {
+            return "";
+        }
+
+        @Override
+        public ClassDoc asClassDoc() {
+            return this;
+        }
+
+        @Override
+        public ParameterizedType asParameterizedType() {
+            return null;
+        }
+
+        @Override
+        public TypeVariable asTypeVariable() {
+            return null;
+        }
+
+        @Override
+        public WildcardType asWildcardType() {
+            return null;
+        }
+
+        @Override
+        public boolean isInterface() {
+            return element.getKind().isInterface();
+        }
+
+        @Override
+        public boolean isEnum() {
+            return element.getKind() == ElementKind.ENUM;
+        }
+
+        @Override
+        public PackageDoc containingPackage() {
+            final String name = elements.getPackageOf(element).getQualifiedName().toString();
+            return new PackageDoc() {
+                @Override
+                public String name() {
+                    return name;
+                }
+
+                @Override
+                public String toString() {
+                    return name;
+                }
+            };
+        }
+
+        @Override
+        public MethodDoc[] methods() {
+            List<MethodDoc> methods = new ArrayList<MethodDoc>();
+            for (ExecutableElement executable : ElementFilter.methodsIn(element.getEnclosedElements())) {
+                methods.add(methodDoc(executable));
+            }
+            return methods.toArray(new MethodDoc[methods.size()]);
+        }
+
+        @Override
+        public MethodDoc[] methods(boolean filter) {
+            return methods();
+        }
+
+        @Override
+        public FieldDoc[] fields() {
+            return fields(ElementKind.FIELD);
+        }
+
+        @Override
+        public FieldDoc[] fields(boolean filter) {
+            return fields();
+        }
+
+        @Override
+        public FieldDoc[] enumConstants() {
+            return fields(ElementKind.ENUM_CONSTANT);
+        }
+
+        @Override
+        public ClassDoc superclass() {
+            TypeMirror superclass = element.getSuperclass();
+            return superclass.getKind() == TypeKind.NONE ? null : type(superclass).asClassDoc();
+        }
+
+        @Override
+        public ClassDoc[] interfaces() {
+            List<ClassDoc> interfaces = new ArrayList<ClassDoc>();
+            for (TypeMirror mirror : element.getInterfaces()) {
+                interfaces.add(type(mirror).asClassDoc());
+            }
+            return interfaces.toArray(new ClassDoc[interfaces.size()]);
+        }
+
+        @Override
+        public Type[] interfaceTypes() {
+            return types(element.getInterfaces());
+        }
+
+        @Override
+        public TypeVariable[] typeParameters() {
+            List<? extends TypeParameterElement> parameters = element.getTypeParameters();
+            TypeVariable[] variables = new TypeVariable[parameters.size()];
+            for (int i = 0; i < variables.length; i++) {
+                variables[i] = type(parameters.get(i).asType()).asTypeVariable();
+            }
+            return variables;
+        }
+
+        private FieldDoc[] fields(ElementKind kind) {
+            List<FieldDoc> fields = new ArrayList<FieldDoc>();
+            for (VariableElement field : ElementFilter.fieldsIn(element.getEnclosedElements())) {
+                if (field.getKind() == kind) {
+                    fields.add(fieldDoc(field));
+                }
+            }
+            return fields.toArray(new FieldDoc[fields.size()]);
+        }
+    }
+
+    private class ElementMethodDoc extends ElementDoc<ExecutableElement> implements MethodDoc {
+
+        private ElementMethodDoc(ExecutableElement method) {
+            super(method);
+        }
+
+        @Override
+        public Type returnType() {
+            return type(element.getReturnType());
+        }
+
+        @Override
+        public Parameter[] parameters() {
+            List<? extends VariableElement> elements = element.getParameters();
+            Parameter[] parameters = new Parameter[elements.size()];
+            for (int i = 0; i < parameters.length; i++) {
+                parameters[i] = parameter(elements.get(i));
+            }
+            return parameters;
+        }
+
+        @Override
+        public ParamTag[] paramTags() {
+            List<ParamTag> paramTags = new ArrayList<ParamTag>();
+            for (Tag tag : tags("@param")) {
+                if (!((ElementParamTag) tag).isTypeParameter()) {
+                    paramTags.add((ParamTag) tag);
+                }
+            }
+            return paramTags.toArray(new ParamTag[paramTags.size()]);
+        }
+
+        @Override
+        public String signature() {
+            StringBuilder signature = new StringBuilder("(");
+            for (VariableElement parameter : element.getParameters()) {
+                if (signature.length() > 1) {
+                    signature.append(", ");
+                }
+                signature.append(type(parameter.asType()));
+            }
+            return signature.append(")").toString();
+        }
+    }
+
+    private class ElementFieldDoc extends ElementDoc<VariableElement> implements FieldDoc {
+
+        private ElementFieldDoc(VariableElement field) {
+            super(field);
+        }
+
+        @Override
+        public Type type() {
+            return ElementDocs.this.type(element.asType());
+        }
+    }
+
+    private class ElementParameter implements Parameter {
+        private final VariableElement parameter;
+
+        private ElementParameter(VariableElement parameter) {
+            this.parameter = parameter;
+        }
+
+        @Override
+        public String name() {
+            return nameOf(parameter);
+        }
+
+        @Override
+        public Type type() {
+            return ElementDocs.this.type(parameter.asType());
+        }
+
+        @Override
+        public AnnotationDesc[] annotations() {
+            return ElementDocs.this.annotations(parameter);
+        }
+
+        @Override
+        public String toString() {
+            return parameter.asType() + " " + parameter.getSimpleName();
+        }
+    }
+
+    private static class ElementTag implements Tag {
+        private final String name;
+        private final String text;
+
+        private ElementTag(String name, String text) {
+            this.name = name;
+            this.text = text;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public String text() {
+            return text;
+        }
+
+        @Override
+        public String toString() {
+            return name + ":" + text;
+        }
+    }
+
+    private static class ElementParamTag extends ElementTag implements ParamTag {
+        private final ParamTree tree;
+
+        private ElementParamTag(ParamTree tree) {
+            super("@param", DocComment.textOf(tree));
+            this.tree = tree;
+        }
+
+        @Override
+        public String parameterName() {
+            return tree.getName().getName().toString();
+        }
+
+        @Override
+        public String parameterComment() {
+            return DocComment.textOf(tree.getDescription()).trim();
+        }
+
+        boolean isTypeParameter() {
+            return tree.isTypeParameter();
+        }
+    }
+
+}
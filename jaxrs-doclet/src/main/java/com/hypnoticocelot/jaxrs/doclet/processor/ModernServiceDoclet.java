@@ -0,0 +1,124 @@
+package com.hypnoticocelot.jaxrs.doclet.processor;
+
+import com.hypnoticocelot.jaxrs.doclet.DocletOptions;
+import com.hypnoticocelot.jaxrs.doclet.parser.JaxRsAnnotationParser;
+import jdk.javadoc.doclet.Doclet;
+import jdk.javadoc.doclet.DocletEnvironment;
+import jdk.javadoc.doclet.Reporter;
+
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import java.util.*;
+
+/**
+ * The doclet for the javadoc of JDK 9 and later, which takes the same options as the doclet for JDK 8:
+ * <pre>
+ * javadoc -doclet com.hypnoticocelot.jaxrs.doclet.processor.ModernServiceDoclet -docletpath jaxrs-doclet.jar ...
+ * </pre>
+ * The included classes are read through {@link ElementDocs}, with the comments and positions from the {@code DocTrees}
+ * of the environment. Comments are only read for the elements the parsers look at, which are the resources and the
+ * models reachable from them.
+ */
+public class ModernServiceDoclet implements Doclet {
+
+    private final List<String[]> options = new ArrayList<String[]>();
+
+    @Override
+    public void init(Locale locale, Reporter reporter) {
+        // the parsers print their messages to standard output, as with the doclet for JDK 8
+    }
+
+    @Override
+    public String getName() {
+        return "JAX-RS Doclet";
+    }
+
+    @Override
+    public Set<? extends Option> getSupportedOptions() {
+        Set<Option> supportedOptions = new LinkedHashSet<Option>();
+        for (Map.Entry<String, Integer> option : DocletOptions.optionLengths().entrySet()) {
+            supportedOptions.add(new DocletOption(option.getKey(), option.getValue() - 1));
+        }
+        return supportedOptions;
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latest();
+    }
+
+    @Override
+    public boolean run(DocletEnvironment environment) {
+        // javadoc lists the packages in the order it found them, but the classes of a package in the order of
+        // -subpackages or of the source files, whichever it was given, so those are sorted by name
+        final Elements elements = environment.getElementUtils();
+        final Map<Element, Integer> packageOrder = new HashMap<Element, Integer>();
+        List<TypeElement> classes = new ArrayList<TypeElement>();
+        for (TypeElement type : ElementFilter.typesIn(environment.getIncludedElements())) {
+            Element packageElement = elements.getPackageOf(type);
+            if (!packageOrder.containsKey(packageElement)) {
+                packageOrder.put(packageElement, packageOrder.size());
+            }
+            classes.add(type);
+        }
+        Collections.sort(classes, new Comparator<TypeElement>() {
+            @Override
+            public int compare(TypeElement left, TypeElement right) {
+                int packages = packageOrder.get(elements.getPackageOf(left)) - packageOrder.get(elements.getPackageOf(right));
+                return packages != 0 ? packages
+                        : left.getQualifiedName().toString().compareTo(right.getQualifiedName().toString());
+            }
+        });
+        ElementDocs docs = new ElementDocs(elements, environment.getTypeUtils(), environment.getDocTrees());
+        DocletOptions parsedOptions = DocletOptions.parse(options.toArray(new String[options.size()][]));
+        return new JaxRsAnnotationParser(parsedOptions, docs.rootDoc(classes)).run();
+    }
+
+    private class DocletOption implements Option {
+        private final String name;
+        private final int argumentCount;
+
+        private DocletOption(String name, int argumentCount) {
+            this.name = name;
+            this.argumentCount = argumentCount;
+        }
+
+        @Override
+        public int getArgumentCount() {
+            return argumentCount;
+        }
+
+        @Override
+        public String getDescription() {
+            return "see the JAX-RS Doclet documentation";
+        }
+
+        @Override
+        public Kind getKind() {
+            return Kind.STANDARD;
+        }
+
+        @Override
+        public List<String> getNames() {
+            return Collections.singletonList(name);
+        }
+
+        @Override
+        public String getParameters() {
+            return argumentCount == 0 ? "" : "<value>";
+        }
+
+        @Override
+        public boolean process(String option, List<String> arguments) {
+            List<String> values = new ArrayList<String>();
+            values.add(option);
+            values.addAll(arguments);
+            options.add(values.toArray(new String[values.size()]));
+            return true;
+        }
+    }
+
+}
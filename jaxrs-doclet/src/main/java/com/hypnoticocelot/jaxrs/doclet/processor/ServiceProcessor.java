@@ -0,0 +1,112 @@
+package com.hypnoticocelot.jaxrs.doclet.processor;
+
+import com.google.common.base.CharMatcher;
+import com.google.common.base.Splitter;
+import com.google.common.collect.Lists;
+import com.hypnoticocelot.jaxrs.doclet.DocletOptions;
+import com.hypnoticocelot.jaxrs.doclet.parser.JaxRsAnnotationParser;
+import com.sun.source.util.DocTrees;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.util.*;
+
+/**
+ * Generates the documentation while javac compiles the sources, instead of in a separate javadoc run. The doclet
+ * options are passed as a single processor option, for example:
+ * <pre>
+ * javac -processor com.hypnoticocelot.jaxrs.doclet.processor.ServiceProcessor -AjaxrsDoclet="-d target/api -apiVersion 1" ...
+ * </pre>
+ * The classes compiled in all rounds are documented once the last round is over, in the order they were compiled.
+ * Classes that are only on the class path have no comments, as in javadoc. The processor claims no annotations, so other processors still see them.
+ */
+@SupportedAnnotationTypes("*")
+@SupportedOptions(ServiceProcessor.OPTIONS)
+public class ServiceProcessor extends AbstractProcessor {
+
+    public static final String OPTIONS = "jaxrsDoclet";
+
+    // in the order of the rounds and, within a round, of the source files, as javadoc lists them
+    private final Set<String> classNames = new LinkedHashSet<String>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (!roundEnv.processingOver()) {
+            collect(ElementFilter.typesIn(roundEnv.getRootElements()));
+            return false;
+        }
+        if (classNames.isEmpty()) {
+            return false;
+        }
+        String[][] options = optionsOf(processingEnv.getOptions().get(OPTIONS));
+        if (options == null) {
+            return false;
+        }
+        DocletOptions docletOptions = DocletOptions.parse(options);
+        // javac replaces the elements of earlier rounds, which then lose their comments
+        List<TypeElement> classes = new ArrayList<TypeElement>();
+        for (String className : classNames) {
+            TypeElement type = processingEnv.getElementUtils().getTypeElement(className);
+            if (type != null) {
+                classes.add(type);
+            }
+        }
+        DocTrees trees;
+        try {
+            trees = DocTrees.instance(processingEnv);
+        } catch (IllegalArgumentException e) {
+            // not running in javac, so there are no comments or source positions
+            trees = null;
+        }
+        ElementDocs docs = new ElementDocs(processingEnv.getElementUtils(), processingEnv.getTypeUtils(), trees);
+        try {
+            if (!new JaxRsAnnotationParser(docletOptions, docs.rootDoc(classes)).run()) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Unable to generate the documentation");
+            }
+        } catch (RuntimeException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Unable to generate the documentation: " + e);
+        }
+        return false;
+    }
+
+    private void collect(Collection<TypeElement> types) {
+        for (TypeElement type : types) {
+            classNames.add(type.getQualifiedName().toString());
+            collect(ElementFilter.typesIn(type.getEnclosedElements()));
+        }
+    }
+
+    /**
+     * @return the options grouped like javadoc groups them, or null after reporting an unknown option.
+     */
+    private String[][] optionsOf(String value) {
+        List<String> arguments = value == null ? Collections.<String>emptyList()
+                : Lists.newArrayList(Splitter.on(CharMatcher.WHITESPACE).omitEmptyStrings().split(value));
+        List<String[]> options = new ArrayList<String[]>();
+        for (int i = 0; i < arguments.size(); ) {
+            int length = DocletOptions.optionLength(arguments.get(i));
+            if (length <= 0 || i + length > arguments.size()) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "Invalid " + OPTIONS + " option " + arguments.get(i));
+                return null;
+            }
+            options.add(arguments.subList(i, i + length).toArray(new String[length]));
+            i += length;
+        }
+        return options.toArray(new String[options.size()][]);
+    }
+
+}
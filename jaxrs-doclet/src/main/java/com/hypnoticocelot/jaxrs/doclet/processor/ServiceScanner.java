@@ -0,0 +1,194 @@
+package com.hypnoticocelot.jaxrs.doclet.processor;
+
+import com.google.common.base.Splitter;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.Files;
+import com.hypnoticocelot.jaxrs.doclet.DocletOptions;
+import com.hypnoticocelot.jaxrs.doclet.parser.CommentIndex;
+import com.hypnoticocelot.jaxrs.doclet.parser.JaxRsAnnotationParser;
+import com.sun.source.util.JavacTask;
+
+import javax.lang.model.element.TypeElement;
+import javax.tools.*;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static com.google.common.base.Charsets.ISO_8859_1;
+import static com.google.common.base.Charsets.UTF_8;
+
+/**
+ * Generates the documentation from compiled classes, without javadoc. The class files in the scanned directories and
+ * jars that refer to a JAX-RS annotation are documented; the classes they use, such as the models, are read from the
+ * scanned path and the class path. The class files are read by javac's class reader, so nothing is compiled.
+ * <p/>
+ * Class files have no comments. They are taken from the comment index given with {@code -commentIndex}, which a
+ * javadoc run over the sources writes. Parameter names are only known if the classes were compiled with debug
+ * information or with {@code -parameters}, see {@link ClassFileParameterNames}. The listing is in the order of the
+ * class names.
+ * <pre>
+ * java -cp jaxrs-doclet.jar com.hypnoticocelot.jaxrs.doclet.processor.ServiceScanner \
+ *     -scanpath target/classes -classpath jsr311-api.jar -d target/apidocs -commentIndex target/comments.json
+ * </pre>
+ */
+public class ServiceScanner {
+
+    // the descriptors of all annotations in the javax.ws.rs packages start with it
+    private static final byte[] JAX_RS_DESCRIPTOR = "Ljavax/ws/rs/".getBytes(ISO_8859_1);
+
+    private final DocletOptions options;
+
+    public ServiceScanner(DocletOptions options) {
+        this.options = options;
+    }
+
+    /**
+     * @param scanPath the directories and jars with the classes to document.
+     * @param classPath the directories and jars with the classes they depend on, including the JAX-RS annotations.
+     */
+    public boolean scan(List<File> scanPath, List<File> classPath) throws IOException {
+        Set<String> classNames = new TreeSet<String>();
+        for (File file : scanPath) {
+            if (file.isDirectory()) {
+                scanDirectory(file, "", classNames);
+            } else if (file.isFile()) {
+                scanJar(file, classNames);
+            }
+        }
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new IOException("No Java compiler available to read the classes");
+        }
+        StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, UTF_8);
+        try {
+            List<File> path = new ArrayList<File>(scanPath);
+            path.addAll(classPath);
+            fileManager.setLocation(StandardLocation.CLASS_PATH, path);
+            JavacTask task = (JavacTask) compiler.getTask(null, fileManager, null, Arrays.asList("-proc:none"), null,
+                    Collections.<JavaFileObject>emptyList());
+            List<TypeElement> classes = new ArrayList<TypeElement>();
+            for (String className : classNames) {
+                // anonymous and local classes cannot be resolved and are not documented anyway
+                TypeElement type = task.getElements().getTypeElement(className.replace('$', '.'));
+                if (type != null) {
+                    classes.add(type);
+                }
+            }
+
+            ElementDocs docs = new ElementDocs(task.getElements(), task.getTypes(), null)
+                    .setParameterNames(new ClassFileParameterNames(fileManager, task.getElements(), task.getTypes()));
+            if (options.getCommentIndex() != null) {
+                docs.setCommentIndex(CommentIndex.read(options.getCommentIndex()));
+            }
+            // the index is only read: written from these classes, it would lose the comments of all other classes.
+            // Without sources there is nothing to compare either.
+            options.setCommentIndex(null)
+                    .setIncremental(false);
+            return new JaxRsAnnotationParser(options, docs.rootDoc(classes)).run();
+        } finally {
+            fileManager.close();
+        }
+    }
+
+    private static void scanDirectory(File directory, String packagePrefix, Set<String> classNames) throws IOException {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            if (file.isDirectory()) {
+                scanDirectory(file, packagePrefix + file.getName() + ".", classNames);
+            } else if (isClassFile(file.getName()) && refersToJaxRs(Files.toByteArray(file))) {
+                classNames.add(packagePrefix + file.getName().substring(0, file.getName().length() - ".class".length()));
+            }
+        }
+    }
+
+    private static void scanJar(File jar, Set<String> classNames) throws IOException {
+        ZipFile zip = new ZipFile(jar);
+        try {
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                String name = entry.getName();
+                if (entry.isDirectory() || !isClassFile(name.substring(name.lastIndexOf('/') + 1))) {
+                    continue;
+                }
+                InputStream stream = zip.getInputStream(entry);
+                try {
+                    if (refersToJaxRs(ByteStreams.toByteArray(stream))) {
+                        classNames.add(name.substring(0, name.length() - ".class".length()).replace('/', '.'));
+                    }
+                } finally {
+                    stream.close();
+                }
+            }
+        } finally {
+            zip.close();
+        }
+    }
+
+    private static boolean isClassFile(String name) {
+        return name.endsWith(".class") && !name.equals("package-info.class") && !name.equals("module-info.class");
+    }
+
+    /**
+     * @return whether the constant pool of the class file names a JAX-RS annotation, found by a plain byte search.
+     */
+    private static boolean refersToJaxRs(byte[] classFile) {
+        int last = classFile.length - JAX_RS_DESCRIPTOR.length;
+        outer:
+        for (int i = 0; i <= last; i++) {
+            for (int j = 0; j < JAX_RS_DESCRIPTOR.length; j++) {
+                if (classFile[i + j] != JAX_RS_DESCRIPTOR[j]) {
+                    continue outer;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Takes {@code -scanpath} and {@code -classpath} with the directories and jars separated by the path separator,
+     * followed by the options of the doclet.
+     */
+    public static void main(String[] args) throws IOException {
+        List<File> scanPath = new ArrayList<File>();
+        List<File> classPath = new ArrayList<File>();
+        List<String[]> docletOptions = new ArrayList<String[]>();
+        for (int i = 0; i < args.length; ) {
+            int length = args[i].equals("-scanpath") || args[i].equals("-classpath") ? 2
+                    : DocletOptions.optionLength(args[i]);
+            if (length <= 0 || i + length > args.length) {
+                System.err.println("Invalid option " + args[i]);
+                System.exit(2);
+            }
+            if (args[i].equals("-scanpath")) {
+                scanPath.addAll(pathOf(args[i + 1]));
+            } else if (args[i].equals("-classpath")) {
+                classPath.addAll(pathOf(args[i + 1]));
+            } else {
+                docletOptions.add(Arrays.copyOfRange(args, i, i + length));
+            }
+            i += length;
+        }
+        DocletOptions options = DocletOptions.parse(docletOptions.toArray(new String[docletOptions.size()][]));
+        if (!new ServiceScanner(options).scan(scanPath, classPath)) {
+            System.exit(1);
+        }
+    }
+
+    private static List<File> pathOf(String path) {
+        List<File> files = new ArrayList<File>();
+        for (String file : Splitter.on(File.pathSeparatorChar).omitEmptyStrings().split(path)) {
+            files.add(new File(file));
+        }
+        return files;
+    }
+
+}
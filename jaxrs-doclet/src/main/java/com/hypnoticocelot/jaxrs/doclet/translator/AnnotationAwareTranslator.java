@@ -1,22 +1,20 @@
 package com.hypnoticocelot.jaxrs.doclet.translator;
 
+import com.hypnoticocelot.jaxrs.doclet.doc.FieldDoc;
+import com.hypnoticocelot.jaxrs.doclet.doc.MethodDoc;
+import com.hypnoticocelot.jaxrs.doclet.doc.ProgramElementDoc;
+import com.hypnoticocelot.jaxrs.doclet.doc.Type;
 import com.hypnoticocelot.jaxrs.doclet.parser.AnnotationHelper;
 import com.hypnoticocelot.jaxrs.doclet.parser.AnnotationParser;
-import com.sun.javadoc.FieldDoc;
-import com.sun.javadoc.MethodDoc;
-import com.sun.javadoc.ProgramElementDoc;
-import com.sun.javadoc.Type;
-
-import java.util.HashMap;
-import java.util.Map;
+import com.hypnoticocelot.jaxrs.doclet.parser.DocCache;
 
 import static com.hypnoticocelot.jaxrs.doclet.translator.Translator.OptionalName.ignored;
 import static com.hypnoticocelot.jaxrs.doclet.translator.Translator.OptionalName.presentOrMissing;
 
 public class AnnotationAwareTranslator implements Translator {
 
-    private final Map<OptionalName, Type> reverseIndex;
-    private final Map<Type, OptionalName> namedTypes;
+    private final ModelIdAllocator modelIds;
+    private final DocCache docCache;
 
     private String ignore;
     private String element;
@@ -24,9 +22,14 @@ public class AnnotationAwareTranslator implements Translator {
     private String rootElement;
     private String rootElementProperty;
 
-    public AnnotationAwareTranslator() {
-        reverseIndex = new HashMap<OptionalName, Type>();
-        namedTypes = new HashMap<Type, OptionalName>();
+    /**
+     * @param modelIds allocates the ids of root elements, possibly shared with other translators.
+     * @param docCache the annotations of the translated elements are looked up in, the one of the options the
+     *                 translator is used with, which is cleared after every run.
+     */
+    public AnnotationAwareTranslator(ModelIdAllocator modelIds, DocCache docCache) {
+        this.modelIds = modelIds;
+        this.docCache = docCache;
     }
 
     public AnnotationAwareTranslator ignore(String qualifiedAnnotationType) {
@@ -48,22 +51,14 @@ public class AnnotationAwareTranslator implements Translator {
 
     @Override
     public OptionalName typeName(Type type) {
-        if (namedTypes.containsKey(type)) {
-            return namedTypes.get(type);
-        }
         if (AnnotationHelper.isPrimitive(type) || type.asClassDoc() == null) {
             return null;
         }
 
         OptionalName name = nameFor(rootElement, rootElementProperty, type.asClassDoc());
         if (name.isPresent()) {
-            StringBuilder nameBuilder = new StringBuilder(name.value());
-            while (reverseIndex.containsKey(name)) {
-                nameBuilder.append('_');
-                name = presentOrMissing(nameBuilder.toString());
-            }
-            namedTypes.put(type, name);
-            reverseIndex.put(name, type);
+            // javadoc creates a new Type for every use of a parameterized type, so the class name is the key
+            name = presentOrMissing(modelIds.allocate(rootElement, type.asClassDoc().qualifiedTypeName(), name.value()));
         }
         return name;
     }
@@ -79,7 +74,7 @@ public class AnnotationAwareTranslator implements Translator {
     }
 
     private OptionalName nameFor(String annotation, String property, ProgramElementDoc doc) {
-        AnnotationParser element = new AnnotationParser(doc);
+        AnnotationParser element = new AnnotationParser(doc, docCache);
         if (element.isAnnotatedBy(ignore)) {
             return ignored();
         }
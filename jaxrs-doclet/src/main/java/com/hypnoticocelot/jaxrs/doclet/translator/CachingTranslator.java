@@ -0,0 +1,97 @@
+package com.hypnoticocelot.jaxrs.doclet.translator;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.hypnoticocelot.jaxrs.doclet.doc.FieldDoc;
+import com.hypnoticocelot.jaxrs.doclet.doc.MethodDoc;
+import com.hypnoticocelot.jaxrs.doclet.doc.ParameterizedType;
+import com.hypnoticocelot.jaxrs.doclet.doc.Type;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Memoizes the names of another translator. Type names are cached by the qualified name of the type including its type
+ * arguments, field and method names by the (canonical) javadoc element. Type variables and wildcards are not cached
+ * because their names depend on their bounds. Safe to use from several threads if the delegate is.
+ */
+public class CachingTranslator implements Translator {
+
+    private final Translator delegate;
+    private final Cache<String, Optional<OptionalName>> typeNames;
+    private final Cache<FieldDoc, Optional<OptionalName>> fieldNames;
+    private final Cache<MethodDoc, Optional<OptionalName>> methodNames;
+
+    public CachingTranslator(Translator delegate) {
+        this.delegate = delegate;
+        this.typeNames = CacheBuilder.newBuilder().recordStats().build();
+        this.fieldNames = CacheBuilder.newBuilder().weakKeys().recordStats().build();
+        this.methodNames = CacheBuilder.newBuilder().weakKeys().recordStats().build();
+    }
+
+    @Override
+    public OptionalName typeName(final Type type) {
+        if (type.asTypeVariable() != null || type.asWildcardType() != null) {
+            return delegate.typeName(type);
+        }
+        return get(typeNames, keyOf(type), new Callable<Optional<OptionalName>>() {
+            @Override
+            public Optional<OptionalName> call() {
+                return Optional.fromNullable(delegate.typeName(type));
+            }
+        });
+    }
+
+    @Override
+    public OptionalName fieldName(final FieldDoc field) {
+        return get(fieldNames, field, new Callable<Optional<OptionalName>>() {
+            @Override
+            public Optional<OptionalName> call() {
+                return Optional.fromNullable(delegate.fieldName(field));
+            }
+        });
+    }
+
+    @Override
+    public OptionalName methodName(final MethodDoc method) {
+        return get(methodNames, method, new Callable<Optional<OptionalName>>() {
+            @Override
+            public Optional<OptionalName> call() {
+                return Optional.fromNullable(delegate.methodName(method));
+            }
+        });
+    }
+
+    public CacheStats typeNameStats() {
+        return typeNames.stats();
+    }
+
+    public CacheStats fieldNameStats() {
+        return fieldNames.stats();
+    }
+
+    public CacheStats methodNameStats() {
+        return methodNames.stats();
+    }
+
+    private static String keyOf(Type type) {
+        ParameterizedType parameterizedType = type.asParameterizedType();
+        String name = parameterizedType != null ? parameterizedType.toString() : type.qualifiedTypeName();
+        return name + type.dimension();
+    }
+
+    private static <K> OptionalName get(Cache<K, Optional<OptionalName>> cache, K key, Callable<Optional<OptionalName>> loader) {
+        try {
+            return cache.get(key, loader).orNull();
+        } catch (ExecutionException e) {
+            throw Throwables.propagate(e.getCause());
+        } catch (UncheckedExecutionException e) {
+            throw Throwables.propagate(e.getCause());
+        }
+    }
+
+}
@@ -1,12 +1,10 @@
 package com.hypnoticocelot.jaxrs.doclet.translator;
 
-import com.google.common.base.Function;
-import com.sun.javadoc.FieldDoc;
-import com.sun.javadoc.MethodDoc;
-import com.sun.javadoc.Type;
+import com.hypnoticocelot.jaxrs.doclet.doc.FieldDoc;
+import com.hypnoticocelot.jaxrs.doclet.doc.MethodDoc;
+import com.hypnoticocelot.jaxrs.doclet.doc.Type;
 
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
 
 public class FirstNotNullTranslator implements Translator {
@@ -23,42 +21,34 @@ public class FirstNotNullTranslator implements Translator {
     }
 
     @Override
-    public OptionalName typeName(final Type type) {
-        return firstNotNullOf(new Function<Translator, OptionalName>() {
-            @Override
-            public OptionalName apply(Translator translator) {
-                return translator.typeName(type);
-            }
-        });
+    public OptionalName typeName(Type type) {
+        OptionalName name = null;
+        for (int i = 0; i < chain.size() && isUnnamed(name); i++) {
+            name = chain.get(i).typeName(type);
+        }
+        return name;
     }
 
     @Override
-    public OptionalName fieldName(final FieldDoc field) {
-        return firstNotNullOf(new Function<Translator, OptionalName>() {
-            @Override
-            public OptionalName apply(Translator translator) {
-                return translator.fieldName(field);
-            }
-        });
+    public OptionalName fieldName(FieldDoc field) {
+        OptionalName name = null;
+        for (int i = 0; i < chain.size() && isUnnamed(name); i++) {
+            name = chain.get(i).fieldName(field);
+        }
+        return name;
     }
 
     @Override
-    public OptionalName methodName(final MethodDoc method) {
-        return firstNotNullOf(new Function<Translator, OptionalName>() {
-            @Override
-            public OptionalName apply(Translator translator) {
-                return translator.methodName(method);
-            }
-        });
-    }
-
-    private OptionalName firstNotNullOf(Function<Translator, OptionalName> function) {
+    public OptionalName methodName(MethodDoc method) {
         OptionalName name = null;
-        Iterator<Translator> iterator = chain.iterator();
-        while ((name == null || name.isMissing()) && iterator.hasNext()) {
-            name = function.apply(iterator.next());
+        for (int i = 0; i < chain.size() && isUnnamed(name); i++) {
+            name = chain.get(i).methodName(method);
         }
         return name;
     }
 
+    private static boolean isUnnamed(OptionalName name) {
+        return name == null || name.isMissing();
+    }
+
 }
@@ -0,0 +1,106 @@
+package com.hypnoticocelot.jaxrs.doclet.translator;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Hands out collision-free model ids for the names types ask for, e.g. through {@code @XmlRootElement}. Ids are unique
+ * within a namespace, which is the qualified name of the annotation the name comes from. A type keeps the first id it
+ * is given. If the name it asks for already belongs to another type, the id is the name followed by the qualified
+ * type name, so it depends on the two types involved and not on how many other types collided before.
+ * <p/>
+ * Which of two colliding types gets the plain name depends on the order of the requests. Callers that need ids
+ * independent of the processing order claim them up front in a fixed order, or load the assignments of a previous run
+ * with {@link #readFrom(File)}. Safe to use from several threads.
+ */
+public class ModelIdAllocator {
+
+    private final Map<String, Map<String, String>> idsByType;
+    private final Map<String, Map<String, String>> typesById;
+
+    public ModelIdAllocator() {
+        idsByType = new HashMap<String, Map<String, String>>();
+        typesById = new HashMap<String, Map<String, String>>();
+    }
+
+    /**
+     * @return the id of the given type, allocating one based on the given name if the type has none yet.
+     */
+    public synchronized String allocate(String namespace, String qualifiedTypeName, String name) {
+        String id = idsOf(namespace).get(qualifiedTypeName);
+        if (id != null) {
+            return id;
+        }
+        id = name;
+        if (typesOf(namespace).containsKey(id)) {
+            id = name + "_" + qualifiedTypeName.replace('.', '_').replace('$', '_');
+            while (typesOf(namespace).containsKey(id)) {
+                id += "_";
+            }
+        }
+        assign(namespace, qualifiedTypeName, id);
+        return id;
+    }
+
+    /**
+     * @return the ids allocated so far by namespace and qualified type name, both sorted.
+     */
+    public synchronized Map<String, Map<String, String>> assignments() {
+        Map<String, Map<String, String>> assignments = new TreeMap<String, Map<String, String>>();
+        for (Map.Entry<String, Map<String, String>> namespace : idsByType.entrySet()) {
+            assignments.put(namespace.getKey(), new TreeMap<String, String>(namespace.getValue()));
+        }
+        return assignments;
+    }
+
+    /**
+     * Adds the assignments stored by {@link #writeTo(File)}. Types that already have an id keep it.
+     */
+    public synchronized void readFrom(File file) throws IOException {
+        Map<String, Map<String, String>> assignments = new ObjectMapper().readValue(file,
+                new TypeReference<Map<String, Map<String, String>>>() {
+                });
+        for (Map.Entry<String, Map<String, String>> namespace : assignments.entrySet()) {
+            for (Map.Entry<String, String> assignment : namespace.getValue().entrySet()) {
+                if (!idsOf(namespace.getKey()).containsKey(assignment.getKey())
+                        && !typesOf(namespace.getKey()).containsKey(assignment.getValue())) {
+                    assign(namespace.getKey(), assignment.getKey(), assignment.getValue());
+                }
+            }
+        }
+    }
+
+    public void writeTo(File file) throws IOException {
+        new ObjectMapper().configure(SerializationFeature.INDENT_OUTPUT, true).writeValue(file, assignments());
+    }
+
+    private void assign(String namespace, String qualifiedTypeName, String id) {
+        idsOf(namespace).put(qualifiedTypeName, id);
+        typesOf(namespace).put(id, qualifiedTypeName);
+    }
+
+    private Map<String, String> idsOf(String namespace) {
+        return namespaceOf(idsByType, namespace);
+    }
+
+    private Map<String, String> typesOf(String namespace) {
+        return namespaceOf(typesById, namespace);
+    }
+
+    private static Map<String, String> namespaceOf(Map<String, Map<String, String>> maps, String namespace) {
+        Map<String, String> map = maps.get(namespace);
+        if (map == null) {
+            map = new HashMap<String, String>();
+            maps.put(namespace, map);
+        }
+        return map;
+    }
+
+}
@@ -1,9 +1,9 @@
 package com.hypnoticocelot.jaxrs.doclet.translator;
 
+import com.hypnoticocelot.jaxrs.doclet.doc.FieldDoc;
+import com.hypnoticocelot.jaxrs.doclet.doc.MethodDoc;
+import com.hypnoticocelot.jaxrs.doclet.doc.Type;
 import com.hypnoticocelot.jaxrs.doclet.parser.AnnotationHelper;
-import com.sun.javadoc.FieldDoc;
-import com.sun.javadoc.MethodDoc;
-import com.sun.javadoc.Type;
 
 import static com.hypnoticocelot.jaxrs.doclet.translator.Translator.OptionalName.presentOrMissing;
 
@@ -2,9 +2,9 @@ package com.hypnoticocelot.jaxrs.doclet.translator;
 
 import com.google.common.base.Objects;
 import com.google.common.base.Strings;
-import com.sun.javadoc.FieldDoc;
-import com.sun.javadoc.MethodDoc;
-import com.sun.javadoc.Type;
+import com.hypnoticocelot.jaxrs.doclet.doc.FieldDoc;
+import com.hypnoticocelot.jaxrs.doclet.doc.MethodDoc;
+import com.hypnoticocelot.jaxrs.doclet.doc.Type;
 
 public interface Translator {
 
@@ -0,0 +1,106 @@
+package com.hypnoticocelot.jaxrs.doclet.apidocs;
+
+import com.hypnoticocelot.jaxrs.doclet.DocletOptions;
+import com.hypnoticocelot.jaxrs.doclet.doc.AnnotationDesc;
+import com.hypnoticocelot.jaxrs.doclet.doc.MethodDoc;
+import com.hypnoticocelot.jaxrs.doclet.doc.Parameter;
+import com.hypnoticocelot.jaxrs.doclet.model.ApiParameter;
+import com.hypnoticocelot.jaxrs.doclet.model.Method;
+import com.hypnoticocelot.jaxrs.doclet.parser.ApiMethodParser;
+import com.hypnoticocelot.jaxrs.doclet.parser.ModelRegistry;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Collections;
+
+import static com.hypnoticocelot.jaxrs.doclet.apidocs.GeneratedOutput.options;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Parses a GET method of the fixtures whose parameter carries an annotation javadoc cannot resolve.
+ */
+public class ApiMethodParserTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private DocletOptions options;
+    private MethodDoc sayHello;
+
+    @Before
+    public void setup() throws IOException {
+        options = options(folder.getRoot());
+        for (MethodDoc methodDoc : RootDocLoader.fromFixtures("fixtures.sample").classNamed("fixtures.sample.Service").methods()) {
+            if (methodDoc.name().equals("sayHello")) {
+                sayHello = methodDoc;
+            }
+        }
+    }
+
+    @Test
+    public void testAnnotatedParameter() {
+        Method method = new ApiMethodParser(options, new ModelRegistry(options), "", sayHello).parse();
+        assertThat(method.getParameters().size(), equalTo(1));
+        assertThat(method.getParameters().get(0).getName(), equalTo("name"));
+    }
+
+    @Test
+    public void testUnresolvedAnnotationExcludesParameter() {
+        // an annotated parameter of a GET method is not the entity, even if the annotation cannot be resolved
+        Method method = new ApiMethodParser(options, new ModelRegistry(options), "", withUnresolvedAnnotations(sayHello)).parse();
+        assertThat(method.getParameters(), equalTo(Collections.<ApiParameter>emptyList()));
+    }
+
+    /**
+     * @return the method, with parameters whose only annotation has a type that fails to resolve as javadoc's does
+     * for a type that is not an annotation type.
+     */
+    private static MethodDoc withUnresolvedAnnotations(final MethodDoc methodDoc) {
+        final Parameter[] parameters = methodDoc.parameters();
+        for (int i = 0; i < parameters.length; i++) {
+            parameters[i] = proxy(Parameter.class, parameters[i], "annotations", new AnnotationDesc[]{
+                    proxy(AnnotationDesc.class, null, "annotationType", null)});
+        }
+        return proxy(MethodDoc.class, methodDoc, "parameters", parameters);
+    }
+
+    /**
+     * @return a proxy that returns the result for the given method, or throws a {@link ClassCastException} for it if
+     * the result is null, and delegates all other methods to the delegate if there is one.
+     */
+    private static <T> T proxy(Class<T> type, final T delegate, final String methodName, final Object result) {
+        return type.cast(java.lang.reflect.Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, java.lang.reflect.Method method, Object[] args) throws Throwable {
+                        if (method.getName().equals(methodName)) {
+                            if (result == null) {
+                                throw new ClassCastException("not an annotation type");
+                            }
+                            return result;
+                        }
+                        if (method.getName().equals("equals")) {
+                            return proxy == args[0];
+                        }
+                        if (method.getName().equals("hashCode")) {
+                            return System.identityHashCode(proxy);
+                        }
+                        if (delegate == null) {
+                            return "@Unresolved";
+                        }
+                        try {
+                            return method.invoke(delegate, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    }
+                }));
+    }
+
+}
@@ -0,0 +1,62 @@
+package com.hypnoticocelot.jaxrs.doclet.apidocs;
+
+import com.google.common.io.ByteStreams;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Enumeration;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static com.google.common.base.Charsets.ISO_8859_1;
+import static com.hypnoticocelot.jaxrs.doclet.apidocs.GeneratedOutput.contentsOf;
+import static com.hypnoticocelot.jaxrs.doclet.apidocs.GeneratedOutput.generate;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Documents all fixtures into an archive with {@code -archive} and compares its entries with the files of a run
+ * without options.
+ */
+public class ArchiveTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testArchive() throws IOException {
+        File plain = folder.newFolder("plain");
+        assertTrue(generate("fixtures", plain));
+
+        File output = folder.newFolder("output");
+        File archive = new File(folder.getRoot(), "apidocs.zip");
+        assertTrue(generate("fixtures", output, "-archive", archive.getPath()));
+        assertThat(entriesOf(archive), equalTo(contentsOf(plain)));
+        // nothing is written to the output directory
+        assertThat(output.list().length, equalTo(0));
+    }
+
+    private static SortedMap<String, String> entriesOf(File archive) throws IOException {
+        SortedMap<String, String> entries = new TreeMap<String, String>();
+        ZipFile zip = new ZipFile(archive);
+        try {
+            Enumeration<? extends ZipEntry> zipEntries = zip.entries();
+            while (zipEntries.hasMoreElements()) {
+                ZipEntry entry = zipEntries.nextElement();
+                if (!entry.isDirectory()) {
+                    entries.put(entry.getName(), new String(ByteStreams.toByteArray(zip.getInputStream(entry)), ISO_8859_1));
+                }
+            }
+        } finally {
+            zip.close();
+        }
+        return entries;
+    }
+
+}
@@ -0,0 +1,129 @@
+package com.hypnoticocelot.jaxrs.doclet.apidocs;
+
+import com.google.common.io.ByteStreams;
+import com.hypnoticocelot.jaxrs.doclet.AsyncRecorder;
+import com.hypnoticocelot.jaxrs.doclet.DocletOptions;
+import com.hypnoticocelot.jaxrs.doclet.Recorder;
+import com.hypnoticocelot.jaxrs.doclet.model.Api;
+import com.hypnoticocelot.jaxrs.doclet.model.ApiDeclaration;
+import com.hypnoticocelot.jaxrs.doclet.model.Model;
+import com.hypnoticocelot.jaxrs.doclet.model.ResourceListing;
+import com.hypnoticocelot.jaxrs.doclet.parser.JaxRsAnnotationParser;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static com.hypnoticocelot.jaxrs.doclet.apidocs.GeneratedOutput.options;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Records through an {@link AsyncRecorder} into a recorder that writes slowly and logs what it is given.
+ */
+public class AsyncRecorderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final List<String> recorded = Collections.synchronizedList(new ArrayList<String>());
+
+    @Test
+    public void testSameFileInOrder() throws IOException {
+        AsyncRecorder recorder = new AsyncRecorder(new SlowRecorder(), 4);
+        File file = new File("same.json");
+        for (int i = 0; i < 10; i++) {
+            recorder.record(file, declaration("/" + i));
+            recorder.record(new File("other" + i + ".json"), declaration("/other"));
+        }
+        recorder.flush();
+
+        List<String> same = new ArrayList<String>();
+        for (String record : recorded) {
+            if (record.startsWith("same.json")) {
+                same.add(record);
+            }
+        }
+        assertThat(same, equalTo(Arrays.asList("same.json /0", "same.json /1", "same.json /2", "same.json /3",
+                "same.json /4", "same.json /5", "same.json /6", "same.json /7", "same.json /8", "same.json /9")));
+    }
+
+    @Test
+    public void testFlushFails() throws IOException {
+        AsyncRecorder recorder = new AsyncRecorder(new SlowRecorder(), 4);
+        recorder.record(new File("first.json"), declaration("/first"));
+        recorder.record(new File("failing.json"), declaration("/failing"));
+        recorder.record(new File("last.json"), declaration("/last"));
+        try {
+            recorder.flush();
+            fail("failed write not reported");
+        } catch (IOException e) {
+            assertThat(e.getMessage(), equalTo("failing.json not writable"));
+        }
+        // the other files are written all the same
+        assertTrue(recorded.contains("first.json /first"));
+        assertTrue(recorded.contains("last.json /last"));
+
+        // the failure is reported once
+        recorder.record(new File("first.json"), declaration("/again"));
+        recorder.flush();
+    }
+
+    @Test
+    public void testListingAfterDeclarations() throws IOException {
+        File output = folder.newFolder("output");
+        DocletOptions options = options(output).setSwaggerUiZipPath(null)
+                .setRecorder(new AsyncRecorder(new SlowRecorder(), 4));
+        assertTrue(new JaxRsAnnotationParser(options, RootDocLoader.fromFixtures("fixtures")).run());
+
+        assertTrue(recorded.size() > 1);
+        // the listing goes to a temporary file that replaces service.json
+        assertThat(recorded.get(recorded.size() - 1), equalTo("listing"));
+        assertThat(recorded.indexOf("listing"), equalTo(recorded.size() - 1));
+    }
+
+    private static ApiDeclaration declaration(String resourcePath) {
+        return new ApiDeclaration("0", "/", resourcePath, Collections.<Api>emptyList(),
+                Collections.<String, Model>emptyMap(), null);
+    }
+
+    /**
+     * Takes a while for every declaration, so later files overtake it unless they wait, and fails on failing.json.
+     */
+    private class SlowRecorder implements Recorder {
+
+        @Override
+        public void record(File file, ResourceListing listing) {
+            recorded.add("listing");
+        }
+
+        @Override
+        public void record(File file, ApiDeclaration declaration) throws IOException {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+            if (file.getName().equals("failing.json")) {
+                throw new IOException("failing.json not writable");
+            }
+            recorded.add(file.getName() + " " + declaration.getResourcePath());
+        }
+
+        @Override
+        public void record(File file, InputStream stream) throws IOException {
+            ByteStreams.toByteArray(stream);
+            recorded.add(file.getName());
+        }
+    }
+
+}
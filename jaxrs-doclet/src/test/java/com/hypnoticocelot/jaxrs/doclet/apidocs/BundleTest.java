@@ -0,0 +1,56 @@
+package com.hypnoticocelot.jaxrs.doclet.apidocs;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hypnoticocelot.jaxrs.doclet.model.BundleEntry;
+import com.hypnoticocelot.jaxrs.doclet.model.BundleIndex;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.SortedMap;
+
+import static com.hypnoticocelot.jaxrs.doclet.apidocs.GeneratedOutput.contentsOf;
+import static com.hypnoticocelot.jaxrs.doclet.apidocs.GeneratedOutput.generate;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Documents all fixtures with {@code -bundle} and checks that the bundle holds the declarations of a run without
+ * options at the byte ranges of its index.
+ */
+public class BundleTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testBundle() throws IOException {
+        File plain = folder.newFolder("plain");
+        assertTrue(generate("fixtures", plain));
+        SortedMap<String, String> expected = contentsOf(plain);
+
+        File output = folder.newFolder("bundle");
+        assertTrue(generate("fixtures", output, "-bundle"));
+        SortedMap<String, String> actual = contentsOf(output);
+        String bundle = actual.remove("service-bundle.json");
+        BundleIndex index = new ObjectMapper().readValue(actual.remove("service-bundle.index.json"), BundleIndex.class);
+        assertThat(actual, equalTo(expected));
+
+        assertThat(index.getLength(), equalTo((long) bundle.length()));
+        assertThat(index.getDeclarations().size(),
+                equalTo(new ObjectMapper().readTree(expected.get("service.json")).get("apis").size()));
+        JsonNode declarations = new ObjectMapper().readTree(bundle);
+        for (int i = 0; i < index.getDeclarations().size(); i++) {
+            BundleEntry entry = index.getDeclarations().get(i);
+            String file = entry.getPath().replaceFirst("^/", "").replace("{format}", "json");
+            String declaration = bundle.substring((int) entry.getOffset(), (int) (entry.getOffset() + entry.getLength()));
+            assertThat(entry.getPath(), declaration, equalTo(expected.get(file)));
+            assertThat(declarations.get(i), equalTo(new ObjectMapper().readTree(expected.get(file))));
+        }
+    }
+
+}
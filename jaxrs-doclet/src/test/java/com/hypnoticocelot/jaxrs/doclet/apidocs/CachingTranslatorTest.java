@@ -0,0 +1,125 @@
+package com.hypnoticocelot.jaxrs.doclet.apidocs;
+
+import com.hypnoticocelot.jaxrs.doclet.doc.ClassDoc;
+import com.hypnoticocelot.jaxrs.doclet.doc.FieldDoc;
+import com.hypnoticocelot.jaxrs.doclet.doc.MethodDoc;
+import com.hypnoticocelot.jaxrs.doclet.doc.RootDoc;
+import com.hypnoticocelot.jaxrs.doclet.doc.Type;
+import com.hypnoticocelot.jaxrs.doclet.parser.DocCache;
+import com.hypnoticocelot.jaxrs.doclet.translator.AnnotationAwareTranslator;
+import com.hypnoticocelot.jaxrs.doclet.translator.CachingTranslator;
+import com.hypnoticocelot.jaxrs.doclet.translator.ModelIdAllocator;
+import com.hypnoticocelot.jaxrs.doclet.translator.Translator;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.hypnoticocelot.jaxrs.doclet.translator.Translator.OptionalName.ignored;
+import static com.hypnoticocelot.jaxrs.doclet.translator.Translator.OptionalName.presentOrMissing;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Translates the elements of the JAXB fixtures twice through a {@link CachingTranslator} and checks that the second
+ * time is answered from the cache with the same names.
+ */
+public class CachingTranslatorTest {
+
+    private final List<String> translated = new ArrayList<String>();
+    private RootDoc rootDoc;
+    private CachingTranslator translator;
+
+    @Before
+    public void setup() throws IOException {
+        rootDoc = RootDocLoader.fromFixtures("fixtures.jaxb");
+        translator = new CachingTranslator(new LoggingTranslator(new AnnotationAwareTranslator(new ModelIdAllocator(), new DocCache())
+                .ignore("javax.xml.bind.annotation.XmlTransient")
+                .element("javax.xml.bind.annotation.XmlElement", "name")
+                .rootElement("javax.xml.bind.annotation.XmlRootElement", "name")));
+    }
+
+    @Test
+    public void testTypeName() {
+        ClassDoc model = rootDoc.classNamed("fixtures.jaxb.ResponseModel");
+        Translator.OptionalName first = translator.typeName(model);
+        assertThat(first, equalTo(presentOrMissing("response")));
+        assertThat(translator.typeName(model), sameInstance(first));
+        assertThat(translated, equalTo(Arrays.asList("type fixtures.jaxb.ResponseModel")));
+        assertThat(translator.typeNameStats().missCount(), equalTo(1L));
+        assertThat(translator.typeNameStats().hitCount(), equalTo(1L));
+    }
+
+    @Test
+    public void testTypeNameOfAnotherUse() {
+        // javadoc creates a new type for every use, so types are cached by their names
+        ClassDoc model = rootDoc.classNamed("fixtures.jaxb.ResponseModel");
+        Type returnType = methodNamed(rootDoc.classNamed("fixtures.jaxb.JaxbResource"), "get").returnType();
+        Translator.OptionalName first = translator.typeName(model);
+        assertThat(translator.typeName(returnType), sameInstance(first));
+        assertThat(translated, equalTo(Arrays.asList("type fixtures.jaxb.ResponseModel")));
+        assertThat(translator.typeNameStats().missCount(), equalTo(1L));
+        assertThat(translator.typeNameStats().hitCount(), equalTo(1L));
+    }
+
+    @Test
+    public void testMethodNames() {
+        ClassDoc model = rootDoc.classNamed("fixtures.jaxb.PayloadModel");
+        MethodDoc oddlyNamed = methodNamed(model, "oddlyNamedField");
+        MethodDoc invisible = methodNamed(model, "getInvisibleField");
+        Translator.OptionalName oddName = translator.methodName(oddlyNamed);
+        Translator.OptionalName ignoredName = translator.methodName(invisible);
+        assertThat(oddName, equalTo(presentOrMissing("odd-name")));
+        assertThat(ignoredName, equalTo(ignored()));
+
+        assertThat(translator.methodName(oddlyNamed), sameInstance(oddName));
+        assertThat(translator.methodName(invisible), sameInstance(ignoredName));
+        assertThat(translated, equalTo(Arrays.asList("method oddlyNamedField", "method getInvisibleField")));
+        assertThat(translator.methodNameStats().missCount(), equalTo(2L));
+        assertThat(translator.methodNameStats().hitCount(), equalTo(2L));
+    }
+
+    private static MethodDoc methodNamed(ClassDoc classDoc, String name) {
+        for (MethodDoc methodDoc : classDoc.methods()) {
+            if (methodDoc.name().equals(name)) {
+                return methodDoc;
+            }
+        }
+        throw new IllegalArgumentException(classDoc + " has no method " + name);
+    }
+
+    /**
+     * Logs every element it is asked to translate before passing it on.
+     */
+    private class LoggingTranslator implements Translator {
+
+        private final Translator delegate;
+
+        private LoggingTranslator(Translator delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public OptionalName typeName(Type type) {
+            translated.add("type " + type.qualifiedTypeName());
+            return delegate.typeName(type);
+        }
+
+        @Override
+        public OptionalName fieldName(FieldDoc field) {
+            translated.add("field " + field.name());
+            return delegate.fieldName(field);
+        }
+
+        @Override
+        public OptionalName methodName(MethodDoc method) {
+            translated.add("method " + method.name());
+            return delegate.methodName(method);
+        }
+    }
+
+}
@@ -0,0 +1,134 @@
+package com.hypnoticocelot.jaxrs.doclet.apidocs;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.io.ByteStreams;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.zip.GZIPInputStream;
+
+import static com.google.common.base.Charsets.ISO_8859_1;
+import static com.hypnoticocelot.jaxrs.doclet.apidocs.GeneratedOutput.contentsOf;
+import static com.hypnoticocelot.jaxrs.doclet.apidocs.GeneratedOutput.generate;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Documents all fixtures with {@code -compactJson} and {@code -gzipJson} and compares the output with that of a run
+ * without options.
+ */
+public class CompactJsonTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private SortedMap<String, String> expected;
+    private Set<String> documents;
+
+    @Before
+    public void setup() throws IOException {
+        expected = contentsOf(run("plain"));
+        // the listing and the declarations, the other files are copied as they are
+        documents = new TreeSet<String>();
+        documents.add("service.json");
+        for (JsonNode api : new ObjectMapper().readTree(expected.get("service.json")).get("apis")) {
+            documents.add(api.get("path").asText().replaceFirst("^/", "").replace("{format}", "json"));
+        }
+    }
+
+    @Test
+    public void testCompact() throws IOException {
+        assertCompact(contentsOf(run("compact", "-compactJson")));
+    }
+
+    @Test
+    public void testStreamingCompact() throws IOException {
+        assertCompact(contentsOf(run("streaming", "-streamingJson", "-compactJson")));
+    }
+
+    @Test
+    public void testGzip() throws IOException {
+        File output = run("gzip", "-gzipJson");
+        assertThat(withoutCompressed(output), equalTo(expected));
+        assertCompressed(output);
+    }
+
+    @Test
+    public void testCompactGzip() throws IOException {
+        File output = run("compactGzip", "-compactJson", "-gzipJson");
+        assertCompact(withoutCompressed(output));
+        assertCompressed(output);
+    }
+
+    /**
+     * Checks that the documents are written on a single line and hold the same JSON as the plain output.
+     */
+    private void assertCompact(SortedMap<String, String> actual) throws IOException {
+        assertThat(actual.keySet(), equalTo(expected.keySet()));
+        for (Map.Entry<String, String> file : actual.entrySet()) {
+            if (!documents.contains(file.getKey())) {
+                assertThat(file.getKey(), file.getValue(), equalTo(expected.get(file.getKey())));
+                continue;
+            }
+            assertFalse(file.getKey(), file.getValue().contains("\n"));
+            assertTrue(file.getKey(), file.getValue().length() < expected.get(file.getKey()).length());
+            assertThat(file.getKey(), new ObjectMapper().readTree(file.getValue()),
+                    equalTo(new ObjectMapper().readTree(expected.get(file.getKey()))));
+        }
+    }
+
+    /**
+     * Checks that every document has a gzipped copy that decompresses to the bytes of the document.
+     */
+    private void assertCompressed(File output) throws IOException {
+        Set<String> compressed = new TreeSet<String>();
+        for (String file : contentsOf(output).keySet()) {
+            if (file.endsWith(".gz")) {
+                String json = file.substring(0, file.length() - ".gz".length());
+                assertThat(file, gunzip(new File(output, file)), equalTo(contentsOf(output).get(json)));
+                compressed.add(json);
+            }
+        }
+        assertThat(compressed, equalTo(documents));
+    }
+
+    private static SortedMap<String, String> withoutCompressed(File output) throws IOException {
+        SortedMap<String, String> files = new TreeMap<String, String>();
+        for (Map.Entry<String, String> file : contentsOf(output).entrySet()) {
+            if (!file.getKey().endsWith(".gz")) {
+                files.put(file.getKey(), file.getValue());
+            }
+        }
+        return files;
+    }
+
+    private File run(String name, String... options) throws IOException {
+        File output = folder.newFolder(name);
+        assertTrue(Arrays.toString(options), generate("fixtures", output, options));
+        return output;
+    }
+
+    private static String gunzip(File file) throws IOException {
+        GZIPInputStream stream = new GZIPInputStream(new FileInputStream(file));
+        try {
+            return new String(ByteStreams.toByteArray(stream), ISO_8859_1);
+        } finally {
+            stream.close();
+        }
+    }
+
+}
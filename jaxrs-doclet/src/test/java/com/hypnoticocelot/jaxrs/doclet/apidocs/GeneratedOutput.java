@@ -0,0 +1,123 @@
+package com.hypnoticocelot.jaxrs.doclet.apidocs;
+
+import com.google.common.io.ByteStreams;
+import com.google.common.io.Files;
+import com.hypnoticocelot.jaxrs.doclet.DocletOptions;
+import com.hypnoticocelot.jaxrs.doclet.doc.ClassDoc;
+import com.hypnoticocelot.jaxrs.doclet.parser.JaxRsAnnotationParser;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import static com.google.common.base.Charsets.ISO_8859_1;
+import static com.google.common.base.Charsets.UTF_8;
+
+public class GeneratedOutput {
+
+    private GeneratedOutput() {
+    }
+
+    /**
+     * Groups the options by their lengths as javadoc hands them to the doclet, after {@code -d outputDirectory}.
+     */
+    public static DocletOptions options(File outputDirectory, String... options) {
+        List<String[]> grouped = new ArrayList<String[]>();
+        grouped.add(new String[]{"-d", outputDirectory.getPath()});
+        for (int i = 0; i < options.length; ) {
+            int length = DocletOptions.optionLength(options[i]);
+            grouped.add(Arrays.copyOfRange(options, i, i + length));
+            i += length;
+        }
+        return DocletOptions.parse(grouped.toArray(new String[grouped.size()][]));
+    }
+
+    /**
+     * Documents the fixtures below the given package into the output directory.
+     */
+    public static boolean generate(String subpackage, File outputDirectory, String... options) throws IOException {
+        return new JaxRsAnnotationParser(options(outputDirectory, options), RootDocLoader.fromFixtures(subpackage)).run();
+    }
+
+    /**
+     * @return the content of every file below the directory by its relative path, without the dot files the doclet
+     * keeps its state in. The content is decoded byte by byte, so binary files compare as well.
+     */
+    public static SortedMap<String, String> contentsOf(File directory) throws IOException {
+        SortedMap<String, String> contents = new TreeMap<String, String>();
+        addContents(directory, "", contents);
+        return contents;
+    }
+
+    private static void addContents(File directory, String prefix, SortedMap<String, String> contents) throws IOException {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            if (file.getName().startsWith(".")) {
+                continue;
+            }
+            if (file.isDirectory()) {
+                addContents(file, prefix + file.getName() + "/", contents);
+            } else {
+                contents.put(prefix + file.getName(), Files.toString(file, ISO_8859_1));
+            }
+        }
+    }
+
+    /**
+     * @return the class path of the tests, which also holds the doclet and its dependencies.
+     */
+    public static String testClassPath() {
+        return System.getProperty("surefire.test.class.path", System.getProperty("java.class.path"));
+    }
+
+    /**
+     * Compiles the fixture sources on the test class path, in the order javadoc reads them.
+     */
+    public static boolean compileFixtures(String... options) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, UTF_8);
+        try {
+            Set<File> sources = new LinkedHashSet<File>();
+            for (ClassDoc classDoc : RootDocLoader.fromFixtures("fixtures").classes()) {
+                sources.add(classDoc.position().file());
+            }
+            List<String> args = new ArrayList<String>(Arrays.asList("-classpath", testClassPath()));
+            args.addAll(Arrays.asList(options));
+            Iterable<? extends JavaFileObject> units = fileManager.getJavaFileObjectsFromFiles(sources);
+            return compiler.getTask(null, fileManager, null, args, null, units).call();
+        } finally {
+            fileManager.close();
+        }
+    }
+
+    /**
+     * Runs the main class in a new JVM on the test class path.
+     *
+     * @return the exit code.
+     */
+    public static int runJava(Class<?> mainClass, String... args) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<String>();
+        command.add(new File(System.getProperty("java.home"), "bin/java").getPath());
+        command.add("-cp");
+        command.add(testClassPath());
+        command.add(mainClass.getName());
+        command.addAll(Arrays.asList(args));
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        ByteStreams.copy(process.getInputStream(), System.out);
+        return process.waitFor();
+    }
+
+}
@@ -0,0 +1,126 @@
+package com.hypnoticocelot.jaxrs.doclet.apidocs;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.io.Files;
+import com.hypnoticocelot.jaxrs.doclet.DocletOptions;
+import com.hypnoticocelot.jaxrs.doclet.ParseListenerAdapter;
+import com.hypnoticocelot.jaxrs.doclet.doc.ClassDoc;
+import com.hypnoticocelot.jaxrs.doclet.model.ApiDeclaration;
+import com.hypnoticocelot.jaxrs.doclet.parser.JaxRsAnnotationParser;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+import static com.google.common.base.Charsets.UTF_8;
+import static com.hypnoticocelot.jaxrs.doclet.apidocs.GeneratedOutput.contentsOf;
+import static com.hypnoticocelot.jaxrs.doclet.apidocs.GeneratedOutput.generate;
+import static com.hypnoticocelot.jaxrs.doclet.apidocs.GeneratedOutput.options;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Documents the fixtures incrementally, and a copy of the collision fixtures in which a model that is only reached
+ * through the property of another model changes.
+ */
+public class IncrementalTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File sources;
+    private File output;
+    private final List<String> parsed = new ArrayList<String>();
+
+    @Before
+    public void setup() throws IOException {
+        sources = folder.newFolder("sources");
+        for (String file : new String[]{"collision/AlphaResource.java", "collision/OmegaResource.java",
+                "widgets/Crate.java", "widgets/a/Widget.java", "widgets/z/Widget.java"}) {
+            File copy = new File(sources, "fixtures/" + file);
+            Files.createParentDirs(copy);
+            Files.copy(new File(RootDocLoader.fixturesPath(), "fixtures/" + file), copy);
+        }
+        output = folder.newFolder("output");
+        assertTrue(generateCopy());
+    }
+
+    @Test
+    public void testUnchanged() throws IOException {
+        File plain = folder.newFolder("plain");
+        assertTrue(generate("fixtures", plain));
+        SortedMap<String, String> expected = contentsOf(plain);
+
+        File incremental = folder.newFolder("incremental");
+        assertTrue(generate("fixtures", incremental, "-incremental"));
+        assertThat(contentsOf(incremental), equalTo(expected));
+        for (File file : incremental.listFiles()) {
+            assertTrue(file.setLastModified(1000000000000L));
+        }
+
+        // nothing changed, so every declaration is taken from the cache and none is written again
+        parsed.clear();
+        DocletOptions options = options(incremental, "-incremental").addListener(new ParsedResources());
+        assertTrue(new JaxRsAnnotationParser(options, RootDocLoader.fromFixtures("fixtures")).run());
+        assertThat(parsed, equalTo(Collections.<String>emptyList()));
+        assertThat(contentsOf(incremental), equalTo(expected));
+        for (Map.Entry<String, String> file : expected.entrySet()) {
+            if (file.getKey().endsWith(".json") && !file.getKey().equals("service.json")) {
+                assertThat(file.getKey(), new File(incremental, file.getKey()).lastModified(), equalTo(1000000000000L));
+            }
+        }
+    }
+
+    @Test
+    public void testNestedModelChanged() throws IOException {
+        File widget = new File(sources, "fixtures/widgets/a/Widget.java");
+        Files.write(Files.toString(widget, UTF_8).replace("getName()", "getLabel()"), widget, UTF_8);
+        File omega = new File(output, "omega.json");
+        assertTrue(omega.setLastModified(1000000000000L));
+
+        assertTrue(generateCopy());
+        assertThat(parsed, equalTo(Arrays.asList("fixtures.collision.AlphaResource")));
+        assertThat(Files.toString(new File(output, "alpha.json"), UTF_8), containsString("\"label\""));
+        assertThat(Files.toString(new File(output, "alpha.json"), UTF_8), not(containsString("\"name\"")));
+        assertThat("unchanged declaration written", omega.lastModified(), equalTo(1000000000000L));
+    }
+
+    @Test
+    public void testSupertypesFingerprinted() throws IOException {
+        JsonNode cache = new ObjectMapper().readTree(new File(output, ".jaxrs-doclet-cache.json"));
+        JsonNode sources = cache.get("classes").get("fixtures.collision.AlphaResource").get("sources");
+        assertTrue(sources.has("fixtures.widgets.a.Widget"));
+        // an interface of String, which the model of the widget refers to
+        assertTrue(sources.has("java.lang.Comparable"));
+    }
+
+    private boolean generateCopy() throws IOException {
+        parsed.clear();
+        return new JaxRsAnnotationParser(options(output, "-incremental").addListener(new ParsedResources()),
+                RootDocLoader.fromPath(sources.getPath(), "fixtures.collision")).run();
+    }
+
+    /**
+     * Collects the names of the resource classes that were parsed.
+     */
+    private class ParsedResources extends ParseListenerAdapter {
+        @Override
+        public void onResource(ClassDoc classDoc, ApiDeclaration declaration) {
+            parsed.add(classDoc.qualifiedTypeName());
+        }
+    }
+
+}
@@ -2,9 +2,9 @@ package com.hypnoticocelot.jaxrs.doclet.apidocs;
 
 import com.hypnoticocelot.jaxrs.doclet.DocletOptions;
 import com.hypnoticocelot.jaxrs.doclet.Recorder;
+import com.hypnoticocelot.jaxrs.doclet.doc.RootDoc;
 import com.hypnoticocelot.jaxrs.doclet.model.ApiDeclaration;
 import com.hypnoticocelot.jaxrs.doclet.parser.JaxRsAnnotationParser;
-import com.sun.javadoc.RootDoc;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -30,7 +30,7 @@ public class JaxbTest {
 
     @Test
     public void testStart() throws IOException {
-        final RootDoc rootDoc = RootDocLoader.fromPath("jaxrs-doclet/src/test/resources", "fixtures.jaxb");
+        final RootDoc rootDoc = RootDocLoader.fromFixtures("fixtures.jaxb");
         new JaxRsAnnotationParser(options, rootDoc).run();
 
         final ApiDeclaration api = loadFixture("/fixtures/jaxb/jaxb.json", ApiDeclaration.class);
@@ -0,0 +1,170 @@
+package com.hypnoticocelot.jaxrs.doclet.apidocs;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.collect.ImmutableMap;
+import com.hypnoticocelot.jaxrs.doclet.ObjectMapperReader;
+import com.hypnoticocelot.jaxrs.doclet.ObjectMapperRecorder;
+import com.hypnoticocelot.jaxrs.doclet.model.Api;
+import com.hypnoticocelot.jaxrs.doclet.model.ApiDeclaration;
+import com.hypnoticocelot.jaxrs.doclet.model.Model;
+import com.hypnoticocelot.jaxrs.doclet.model.Property;
+import com.hypnoticocelot.jaxrs.doclet.model.ResourceListing;
+import com.hypnoticocelot.jaxrs.doclet.model.ResourceListingAPI;
+import com.hypnoticocelot.jaxrs.doclet.parser.JaxRsAnnotationParser;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.SortedMap;
+
+import static com.hypnoticocelot.jaxrs.doclet.apidocs.GeneratedOutput.contentsOf;
+import static com.hypnoticocelot.jaxrs.doclet.apidocs.GeneratedOutput.generate;
+import static com.hypnoticocelot.jaxrs.doclet.apidocs.GeneratedOutput.options;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Documents all fixtures with {@code -modelCatalog} and {@code -modelCatalogInline} and checks that the declarations
+ * give back those of a run without options, and merges declarations that define the same model id differently.
+ */
+public class ModelCatalogTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private SortedMap<String, String> expected;
+
+    @Before
+    public void setup() throws IOException {
+        File plain = folder.newFolder("plain");
+        assertTrue(generate("fixtures", plain));
+        expected = contentsOf(plain);
+    }
+
+    @Test
+    public void testModelCatalog() throws IOException {
+        File output = folder.newFolder("catalog");
+        assertTrue(generate("fixtures", output, "-modelCatalog"));
+        SortedMap<String, String> actual = contentsOf(output);
+        JsonNode catalog = mapper.readTree(actual.remove("models.json")).get("models");
+        assertThat(actual.keySet(), equalTo(expected.keySet()));
+        for (Map.Entry<String, String> file : actual.entrySet()) {
+            if (!isDeclaration(file.getKey())) {
+                assertThat(file.getKey(), file.getValue(), equalTo(expected.get(file.getKey())));
+                continue;
+            }
+            // taking the models back from the catalog gives the plain declaration
+            ObjectNode declaration = (ObjectNode) mapper.readTree(file.getValue());
+            JsonNode catalogModels = declaration.remove("catalogModels");
+            declaration.remove("modelCatalog");
+            if (catalogModels != null) {
+                ObjectNode models = declaration.has("models") ? (ObjectNode) declaration.get("models") : declaration.putObject("models");
+                for (JsonNode id : catalogModels) {
+                    assertThat(file.getKey(), models.get(id.asText()), nullValue());
+                    models.put(id.asText(), catalog.get(id.asText()));
+                }
+            }
+            assertThat(file.getKey(), (JsonNode) declaration, equalTo(mapper.readTree(expected.get(file.getKey()))));
+        }
+    }
+
+    @Test
+    public void testModelCatalogInline() throws IOException {
+        File catalogOutput = folder.newFolder("catalog");
+        assertTrue(generate("fixtures", catalogOutput, "-modelCatalog"));
+
+        File output = folder.newFolder("inline");
+        assertTrue(generate("fixtures", output, "-modelCatalogInline"));
+        SortedMap<String, String> actual = contentsOf(output);
+        JsonNode catalog = mapper.readTree(actual.remove("models.json"));
+        assertThat(catalog, equalTo(mapper.readTree(new File(catalogOutput, "models.json"))));
+        assertThat(actual.keySet(), equalTo(expected.keySet()));
+        for (Map.Entry<String, String> file : actual.entrySet()) {
+            if (!isDeclaration(file.getKey())) {
+                assertThat(file.getKey(), file.getValue(), equalTo(expected.get(file.getKey())));
+                continue;
+            }
+            // the declarations keep their models, which are the same as those of the catalog
+            ObjectNode declaration = (ObjectNode) mapper.readTree(file.getValue());
+            JsonNode catalogModels = declaration.remove("catalogModels");
+            JsonNode modelCatalog = declaration.remove("modelCatalog");
+            if (catalogModels != null) {
+                assertThat(file.getKey(), modelCatalog.asText(), equalTo("models.json"));
+                for (JsonNode id : catalogModels) {
+                    assertThat(file.getKey(), declaration.get("models").get(id.asText()),
+                            equalTo(catalog.get("models").get(id.asText())));
+                }
+            }
+            assertThat(file.getKey(), (JsonNode) declaration, equalTo(mapper.readTree(expected.get(file.getKey()))));
+        }
+    }
+
+    @Test
+    public void testTakenIdStaysInline() throws IOException {
+        Model first = new Model("Widget", ImmutableMap.of("name", new Property("string", null, null)));
+        Model second = new Model("Widget", ImmutableMap.of("label", new Property("string", null, null)));
+        File output = merge(folder.newFolder("taken"), false, partialOutput("first", first), partialOutput("second", second));
+
+        ObjectMapperReader reader = new ObjectMapperReader();
+        assertThat(reader.readDeclaration(new File(output, "models.json")).getModels(),
+                equalTo((Map<String, Model>) ImmutableMap.of("Widget", first)));
+        ApiDeclaration firstDeclaration = reader.readDeclaration(new File(output, "first.json"));
+        assertThat(firstDeclaration.getCatalogModels(), equalTo(Arrays.asList("Widget")));
+        assertThat(firstDeclaration.getModels(), nullValue());
+        // the id is taken by the first model, so the second is defined where it is used
+        ApiDeclaration secondDeclaration = reader.readDeclaration(new File(output, "second.json"));
+        assertThat(secondDeclaration.getCatalogModels(), nullValue());
+        assertThat(secondDeclaration.getModels(), equalTo((Map<String, Model>) ImmutableMap.of("Widget", second)));
+    }
+
+    @Test
+    public void testTakenIdStaysInlineWithInlineModels() throws IOException {
+        Model first = new Model("Widget", ImmutableMap.of("name", new Property("string", null, null)));
+        Model second = new Model("Widget", ImmutableMap.of("label", new Property("string", null, null)));
+        File output = merge(folder.newFolder("taken"), true, partialOutput("first", first), partialOutput("second", second));
+
+        ObjectMapperReader reader = new ObjectMapperReader();
+        ApiDeclaration firstDeclaration = reader.readDeclaration(new File(output, "first.json"));
+        assertThat(firstDeclaration.getCatalogModels(), equalTo(Arrays.asList("Widget")));
+        assertThat(firstDeclaration.getModels(), equalTo((Map<String, Model>) ImmutableMap.of("Widget", first)));
+        ApiDeclaration secondDeclaration = reader.readDeclaration(new File(output, "second.json"));
+        assertThat(secondDeclaration.getCatalogModels(), nullValue());
+        assertThat(secondDeclaration.getModels(), equalTo((Map<String, Model>) ImmutableMap.of("Widget", second)));
+    }
+
+    private boolean isDeclaration(String file) {
+        return file.endsWith(".json") && !file.equals("service.json");
+    }
+
+    /**
+     * @return the output of a partial run with a single declaration of the given resource that defines the model.
+     */
+    private File partialOutput(String resource, Model model) throws IOException {
+        File output = folder.newFolder(resource);
+        ObjectMapperRecorder recorder = new ObjectMapperRecorder();
+        recorder.record(new File(output, resource + ".json"), new ApiDeclaration("0", "http://localhost:8080",
+                "/" + resource, Collections.<Api>emptyList(), ImmutableMap.of(model.getId(), model), null));
+        recorder.record(new File(output, "service.json"), new ResourceListing("0", "http://localhost:8080",
+                Arrays.asList(new ResourceListingAPI("/" + resource + ".{format}", null))));
+        return output;
+    }
+
+    private static File merge(File output, boolean inline, File... partialOutputs) throws IOException {
+        JaxRsAnnotationParser parser = new JaxRsAnnotationParser(options(output, inline ? "-modelCatalogInline" : "-modelCatalog")
+                .setSwaggerUiZipPath(null), null);
+        assertTrue(parser.merge(Arrays.asList(partialOutputs)));
+        return output;
+    }
+
+}
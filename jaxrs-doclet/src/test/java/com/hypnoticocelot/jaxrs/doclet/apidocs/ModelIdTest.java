@@ -0,0 +1,46 @@
+package com.hypnoticocelot.jaxrs.doclet.apidocs;
+
+import com.hypnoticocelot.jaxrs.doclet.DocletOptions;
+import com.hypnoticocelot.jaxrs.doclet.Recorder;
+import com.hypnoticocelot.jaxrs.doclet.doc.RootDoc;
+import com.hypnoticocelot.jaxrs.doclet.model.ApiDeclaration;
+import com.hypnoticocelot.jaxrs.doclet.parser.JaxRsAnnotationParser;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+
+import static com.hypnoticocelot.jaxrs.doclet.apidocs.FixtureLoader.loadFixture;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * The two widget models are only on the source path and collide on their root element name. The one with the first
+ * qualified name gets the plain id, although the other one is parsed first.
+ */
+public class ModelIdTest {
+
+    private Recorder recorderMock;
+    private DocletOptions options;
+
+    @Before
+    public void setup() {
+        recorderMock = mock(Recorder.class);
+        options = new DocletOptions().setRecorder(recorderMock);
+    }
+
+    @Test
+    public void testStart() throws IOException {
+        final RootDoc rootDoc = RootDocLoader.fromFixtures("fixtures.collision");
+        new JaxRsAnnotationParser(options, rootDoc).run();
+
+        final ApiDeclaration alpha = loadFixture("/fixtures/collision/alpha.json", ApiDeclaration.class);
+        verify(recorderMock).record(any(File.class), eq(alpha));
+        final ApiDeclaration omega = loadFixture("/fixtures/collision/omega.json", ApiDeclaration.class);
+        verify(recorderMock).record(any(File.class), eq(omega));
+    }
+
+}
@@ -2,9 +2,9 @@ package com.hypnoticocelot.jaxrs.doclet.apidocs;
 
 import com.hypnoticocelot.jaxrs.doclet.DocletOptions;
 import com.hypnoticocelot.jaxrs.doclet.Recorder;
+import com.hypnoticocelot.jaxrs.doclet.doc.RootDoc;
 import com.hypnoticocelot.jaxrs.doclet.model.ApiDeclaration;
 import com.hypnoticocelot.jaxrs.doclet.parser.JaxRsAnnotationParser;
-import com.sun.javadoc.RootDoc;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -32,7 +32,7 @@ public class ObjectTest {
 
     @Test
     public void testStart() throws IOException {
-        final RootDoc rootDoc = RootDocLoader.fromPath("jaxrs-doclet/src/test/resources", "fixtures.object");
+        final RootDoc rootDoc = RootDocLoader.fromFixtures("fixtures.object");
         new JaxRsAnnotationParser(options, rootDoc).run();
 
         List<String> primitives = Arrays.asList("object");
@@ -44,7 +44,7 @@ public class ObjectTest {
 
     @Test
     public void testList() throws IOException {
-        final RootDoc rootDoc = RootDocLoader.fromPath("jaxrs-doclet/src/test/resources", "fixtures.object");
+        final RootDoc rootDoc = RootDocLoader.fromFixtures("fixtures.object");
         new JaxRsAnnotationParser(options, rootDoc).run();
 
         List<String> primitives = Arrays.asList("object");
@@ -0,0 +1,90 @@
+package com.hypnoticocelot.jaxrs.doclet.apidocs;
+
+import com.hypnoticocelot.jaxrs.doclet.AsyncRecorder;
+import com.hypnoticocelot.jaxrs.doclet.DocletOptions;
+import com.hypnoticocelot.jaxrs.doclet.ParseListenerAdapter;
+import com.hypnoticocelot.jaxrs.doclet.doc.ClassDoc;
+import com.hypnoticocelot.jaxrs.doclet.doc.MethodDoc;
+import com.hypnoticocelot.jaxrs.doclet.doc.Parameter;
+import com.hypnoticocelot.jaxrs.doclet.model.ApiDeclaration;
+import com.hypnoticocelot.jaxrs.doclet.model.ApiParameter;
+import com.hypnoticocelot.jaxrs.doclet.model.Method;
+import com.hypnoticocelot.jaxrs.doclet.model.Model;
+import com.hypnoticocelot.jaxrs.doclet.parser.JaxRsAnnotationParser;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import static com.hypnoticocelot.jaxrs.doclet.apidocs.GeneratedOutput.contentsOf;
+import static com.hypnoticocelot.jaxrs.doclet.apidocs.GeneratedOutput.generate;
+import static com.hypnoticocelot.jaxrs.doclet.apidocs.GeneratedOutput.options;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Documents all fixtures with {@code -parallelism} and checks that the classes are parsed on the calling thread and the
+ * output is that of a run without options.
+ */
+public class ParallelismTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final Set<Thread> parserThreads = Collections.synchronizedSet(new HashSet<Thread>());
+
+    @Test
+    public void testSameOutput() throws IOException {
+        File plain = folder.newFolder("plain");
+        assertTrue(generate("fixtures", plain));
+
+        File parallel = folder.newFolder("parallel");
+        DocletOptions options = options(parallel, "-parallelism", "4").addListener(new ParserThreads());
+        assertThat(options.getWriterThreads(), equalTo(4));
+        assertThat(options.getRecorder(), instanceOf(AsyncRecorder.class));
+        assertTrue(new JaxRsAnnotationParser(options, RootDocLoader.fromFixtures("fixtures")).run());
+        assertThat(contentsOf(parallel), equalTo(contentsOf(plain)));
+        // javadoc is only called from the thread that runs the parser
+        assertThat(parserThreads, equalTo(Collections.singleton(Thread.currentThread())));
+    }
+
+    @Test
+    public void testAvailableProcessors() throws IOException {
+        assertThat(options(folder.getRoot(), "-parallelism", "0").getWriterThreads(),
+                equalTo(Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * Collects the threads on which the parsers report their results.
+     */
+    private class ParserThreads extends ParseListenerAdapter {
+
+        @Override
+        public void onParameter(MethodDoc methodDoc, Parameter parameter, ApiParameter apiParameter) {
+            parserThreads.add(Thread.currentThread());
+        }
+
+        @Override
+        public void onOperation(MethodDoc methodDoc, Method method) {
+            parserThreads.add(Thread.currentThread());
+        }
+
+        @Override
+        public void onModel(ClassDoc classDoc, Model model) {
+            parserThreads.add(Thread.currentThread());
+        }
+
+        @Override
+        public void onResource(ClassDoc classDoc, ApiDeclaration declaration) {
+            parserThreads.add(Thread.currentThread());
+        }
+    }
+
+}
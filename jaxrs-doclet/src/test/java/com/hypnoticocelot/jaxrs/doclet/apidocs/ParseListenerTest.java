@@ -0,0 +1,149 @@
+package com.hypnoticocelot.jaxrs.doclet.apidocs;
+
+import com.hypnoticocelot.jaxrs.doclet.DocletOptions;
+import com.hypnoticocelot.jaxrs.doclet.ParseListener;
+import com.hypnoticocelot.jaxrs.doclet.ParseListenerAdapter;
+import com.hypnoticocelot.jaxrs.doclet.doc.ClassDoc;
+import com.hypnoticocelot.jaxrs.doclet.doc.MethodDoc;
+import com.hypnoticocelot.jaxrs.doclet.doc.Parameter;
+import com.hypnoticocelot.jaxrs.doclet.model.ApiDeclaration;
+import com.hypnoticocelot.jaxrs.doclet.model.ApiParameter;
+import com.hypnoticocelot.jaxrs.doclet.model.Method;
+import com.hypnoticocelot.jaxrs.doclet.model.Model;
+import com.hypnoticocelot.jaxrs.doclet.model.ResourceListing;
+import com.hypnoticocelot.jaxrs.doclet.parser.JaxRsAnnotationParser;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.hypnoticocelot.jaxrs.doclet.apidocs.GeneratedOutput.options;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Logs the parse events of the fixtures, which the parser produces one class after the other.
+ */
+public class ParseListenerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final List<String> events = new ArrayList<String>();
+
+    @Test
+    public void testOperations() throws IOException {
+        generate("fixtures.sample", options(folder.getRoot()).addListener(new LoggingListener()));
+        assertThat(events, equalTo(Arrays.asList(
+                "parameter sayHello name",
+                "operation sayHello GET /foo",
+                "parameter createSpeech speech",
+                "operation createSpeech POST /foo",
+                "parameter createSpeechWithAnnotatedPayload speech",
+                "operation createSpeechWithAnnotatedPayload POST /foo/annotated",
+                "parameter getSubResource fooId",
+                "operation getSubResource null /foo/{fooId}/sub",
+                "parameter sayHello name",
+                "operation sayHello GET /foo/{fooId}/sub/annotated",
+                "operation createSub POST /foo/{fooId}/sub",
+                "resource fixtures.sample.Service /foo",
+                "parameter sayHello name",
+                "operation sayHello GET /annotated",
+                "operation createSub POST ",
+                "resource fixtures.sample.SubResource ",
+                "complete 1")));
+    }
+
+    @Test
+    public void testModelsOncePerRun() throws IOException {
+        generate("fixtures.collision", options(folder.getRoot()).addListener(new LoggingListener()));
+        assertThat(events, equalTo(Arrays.asList(
+                "model fixtures.widgets.Crate crate",
+                "model fixtures.widgets.a.Widget widget",
+                "operation get GET /alpha",
+                "resource fixtures.collision.AlphaResource /alpha",
+                "model fixtures.widgets.z.Widget widget_fixtures_widgets_z_Widget",
+                "operation get GET /omega",
+                "resource fixtures.collision.OmegaResource /omega",
+                "complete 2")));
+    }
+
+    @Test
+    public void testModelsBeforeTheirOperation() throws IOException {
+        generate("fixtures.jaxb", options(folder.getRoot()).addListener(new LoggingListener()));
+        assertThat(events, equalTo(Arrays.asList(
+                "model fixtures.jaxb.ResponseModel response",
+                "operation get GET /jaxb",
+                "model fixtures.jaxb.PayloadModel payload",
+                "parameter create payload",
+                "operation create POST /jaxb",
+                "resource fixtures.jaxb.JaxbResource /jaxb",
+                "complete 1")));
+    }
+
+    @Test
+    public void testListenersInOrder() throws IOException {
+        DocletOptions options = options(folder.getRoot())
+                .addListener(new CompletionListener("first"))
+                .addListener(new LoggingListener())
+                .addListener(new CompletionListener("last"));
+        generate("fixtures.jaxb", options);
+        assertThat(events.subList(events.size() - 3, events.size()),
+                equalTo(Arrays.asList("first complete 1", "complete 1", "last complete 1")));
+        // the adapter ignores the other events
+        assertThat(events.size(), equalTo(9));
+    }
+
+    private void generate(String subpackage, DocletOptions options) throws IOException {
+        options.setSwaggerUiZipPath(null);
+        assertTrue(new JaxRsAnnotationParser(options, RootDocLoader.fromFixtures(subpackage)).run());
+    }
+
+    private class LoggingListener implements ParseListener {
+
+        @Override
+        public void onParameter(MethodDoc methodDoc, Parameter parameter, ApiParameter apiParameter) {
+            events.add("parameter " + methodDoc.name() + " " + apiParameter.getName());
+        }
+
+        @Override
+        public void onOperation(MethodDoc methodDoc, Method method) {
+            events.add("operation " + methodDoc.name() + " " + method.getMethod() + " " + method.getPath());
+        }
+
+        @Override
+        public void onModel(ClassDoc classDoc, Model model) {
+            events.add("model " + classDoc.qualifiedTypeName() + " " + model.getId());
+        }
+
+        @Override
+        public void onResource(ClassDoc classDoc, ApiDeclaration declaration) {
+            events.add("resource " + classDoc.qualifiedTypeName() + " " + declaration.getResourcePath());
+        }
+
+        @Override
+        public void onComplete(ResourceListing listing) {
+            events.add("complete " + listing.getApis().size());
+        }
+    }
+
+    private class CompletionListener extends ParseListenerAdapter {
+
+        private final String name;
+
+        private CompletionListener(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public void onComplete(ResourceListing listing) {
+            events.add(name + " complete " + listing.getApis().size());
+        }
+    }
+
+}
@@ -0,0 +1,66 @@
+package com.hypnoticocelot.jaxrs.doclet.apidocs;
+
+import com.hypnoticocelot.jaxrs.doclet.JavadocLauncher;
+import com.hypnoticocelot.jaxrs.doclet.PartitionedLauncher;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SortedMap;
+
+import static com.hypnoticocelot.jaxrs.doclet.apidocs.GeneratedOutput.contentsOf;
+import static com.hypnoticocelot.jaxrs.doclet.apidocs.GeneratedOutput.runJava;
+import static com.hypnoticocelot.jaxrs.doclet.apidocs.GeneratedOutput.testClassPath;
+import static com.hypnoticocelot.jaxrs.doclet.apidocs.RootDocLoader.fixturesPath;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Compares the output of the launcher, which documents the packages in parallel javadoc processes and merges their
+ * outputs, with that of a javadoc run over all fixture packages.
+ */
+public class PartitionedLauncherTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private SortedMap<String, String> expected;
+
+    @Before
+    public void setup() throws IOException {
+        File output = folder.newFolder("javadoc");
+        List<String> args = arguments(output);
+        args.addAll(Arrays.asList("-subpackages", "fixtures"));
+        int result = JavadocLauncher.run(args.toArray(new String[args.size()]));
+        assertThat(result, equalTo(0));
+        expected = contentsOf(output);
+    }
+
+    @Test
+    public void testPartitionedLauncher() throws Exception {
+        for (String partitions : new String[]{"2", "3"}) {
+            File output = folder.newFolder("partitions" + partitions);
+            assertThat(runJava(PartitionedLauncher.class, launcherArguments(output, "-partitions", partitions)), equalTo(0));
+            assertThat(partitions, contentsOf(output), equalTo(expected));
+        }
+    }
+
+    private static String[] launcherArguments(File output, String... options) {
+        List<String> args = arguments(output);
+        args.addAll(Arrays.asList("-subpackages", "fixtures"));
+        args.addAll(Arrays.asList(options));
+        return args.toArray(new String[args.size()]);
+    }
+
+    private static List<String> arguments(File output) {
+        return new ArrayList<String>(Arrays.asList("-quiet", "-sourcepath", fixturesPath(),
+                "-classpath", testClassPath(), "-d", output.getPath()));
+    }
+
+}
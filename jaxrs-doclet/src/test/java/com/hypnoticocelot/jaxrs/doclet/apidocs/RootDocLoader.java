@@ -1,42 +1,104 @@
 package com.hypnoticocelot.jaxrs.doclet.apidocs;
 
-import com.sun.javadoc.RootDoc;
-import com.sun.tools.javac.util.Context;
-import com.sun.tools.javac.util.ListBuffer;
-import com.sun.tools.javac.util.Options;
-import com.sun.tools.javadoc.JavadocTool;
-import com.sun.tools.javadoc.Messager;
-import com.sun.tools.javadoc.ModifierFilter;
+import com.hypnoticocelot.jaxrs.doclet.doc.RootDoc;
+import com.hypnoticocelot.jaxrs.doclet.processor.ElementDocs;
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.util.DocTrees;
+import com.sun.source.util.JavacTask;
+import com.sun.source.util.TreePath;
 
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.JavaCompiler;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
 import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import static com.google.common.base.Charsets.UTF_8;
+import static com.hypnoticocelot.jaxrs.doclet.apidocs.GeneratedOutput.testClassPath;
 
 public class RootDocLoader {
 
     private RootDocLoader() {
     }
 
+    /**
+     * Loads the fixtures below the given package from the test classpath, which holds the fixture sources.
+     */
+    public static RootDoc fromFixtures(String subpackage) throws IOException {
+        return fromPath(fixturesPath(), subpackage);
+    }
+
+    /**
+     * @return the source path of the fixtures.
+     */
+    public static String fixturesPath() {
+        try {
+            return new File(RootDocLoader.class.getResource("/fixtures").toURI()).getParent();
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Analyzes the sources below the package like javadoc with {@code -subpackages}, with the packages and the files
+     * in each of them in the order of their names. The classes are listed each followed by its nested classes.
+     */
     public static RootDoc fromPath(String path, String subpackage) throws IOException {
-        final Context context = new Context();
-        Options.instance(context).put("-sourcepath", path);
-        Messager.preRegister(context, "Messager!");
-
-        final ListBuffer<String> subPackages = new ListBuffer<String>();
-        subPackages.append(subpackage);
-
-        final JavadocTool javaDoc = JavadocTool.make0(context);
-        return javaDoc.getRootDocImpl(
-                "", //doclocale
-                null, //encoding
-                new ModifierFilter(ModifierFilter.ALL_ACCESS), //filter
-                new ListBuffer<String>().toList(), //javaNames
-                new ListBuffer<String[]>().toList(), //options
-                false, //breakiterator
-                subPackages.toList(), //subPackages
-                new ListBuffer<String>().toList(), //excludedPackages
-                false, //docClasses
-                false, //legacyDoclet
-                false //quiet
-        );
+        List<File> sources = new ArrayList<File>();
+        addSources(new File(path, subpackage.replace('.', File.separatorChar)), sources);
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, UTF_8);
+        JavacTask task = (JavacTask) compiler.getTask(null, fileManager, null,
+                Arrays.asList("-proc:none", "-sourcepath", path, "-classpath", testClassPath()), null,
+                fileManager.getJavaFileObjectsFromFiles(sources));
+        Iterable<? extends CompilationUnitTree> units = task.parse();
+        task.analyze();
+        DocTrees trees = DocTrees.instance(task);
+        List<TypeElement> classes = new ArrayList<TypeElement>();
+        for (CompilationUnitTree unit : units) {
+            for (Tree declaration : unit.getTypeDecls()) {
+                Element element = trees.getElement(new TreePath(new TreePath(unit), declaration));
+                if (element instanceof TypeElement) {
+                    addClasses((TypeElement) element, classes);
+                }
+            }
+        }
+        return new ElementDocs(task.getElements(), task.getTypes(), trees).rootDoc(classes);
+    }
+
+    private static void addSources(File directory, List<File> sources) {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        Arrays.sort(files);
+        for (File file : files) {
+            if (file.isFile() && file.getName().endsWith(".java")) {
+                sources.add(file);
+            }
+        }
+        for (File file : files) {
+            if (file.isDirectory()) {
+                addSources(file, sources);
+            }
+        }
+    }
+
+    private static void addClasses(TypeElement type, Collection<TypeElement> classes) {
+        classes.add(type);
+        for (TypeElement nested : ElementFilter.typesIn(type.getEnclosedElements())) {
+            addClasses(nested, classes);
+        }
     }
 
 }
@@ -2,10 +2,10 @@ package com.hypnoticocelot.jaxrs.doclet.apidocs;
 
 import com.hypnoticocelot.jaxrs.doclet.DocletOptions;
 import com.hypnoticocelot.jaxrs.doclet.Recorder;
+import com.hypnoticocelot.jaxrs.doclet.doc.RootDoc;
 import com.hypnoticocelot.jaxrs.doclet.model.ApiDeclaration;
 import com.hypnoticocelot.jaxrs.doclet.model.ResourceListing;
 import com.hypnoticocelot.jaxrs.doclet.parser.JaxRsAnnotationParser;
-import com.sun.javadoc.RootDoc;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -33,7 +33,7 @@ public class ServiceDocletTest {
 
     @Test
     public void testStart() throws IOException {
-        final RootDoc rootDoc = RootDocLoader.fromPath("jaxrs-doclet/src/test/resources", "fixtures.sample");
+        final RootDoc rootDoc = RootDocLoader.fromFixtures("fixtures.sample");
 
         boolean parsingResult = new JaxRsAnnotationParser(options, rootDoc).run();
         assertThat("JavaDoc generation failed", parsingResult, equalTo(true));
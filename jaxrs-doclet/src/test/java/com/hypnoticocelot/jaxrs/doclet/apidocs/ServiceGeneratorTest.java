@@ -0,0 +1,103 @@
+package com.hypnoticocelot.jaxrs.doclet.apidocs;
+
+import com.google.common.base.Predicates;
+import com.google.common.collect.Maps;
+import com.hypnoticocelot.jaxrs.doclet.DocletOptions;
+import com.hypnoticocelot.jaxrs.doclet.ObjectMapperReader;
+import com.hypnoticocelot.jaxrs.doclet.ObjectMapperRecorder;
+import com.hypnoticocelot.jaxrs.doclet.Recorder;
+import com.hypnoticocelot.jaxrs.doclet.ServiceDocumentation;
+import com.hypnoticocelot.jaxrs.doclet.ServiceGenerator;
+import com.hypnoticocelot.jaxrs.doclet.model.ApiDeclaration;
+import com.hypnoticocelot.jaxrs.doclet.model.ResourceListingAPI;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.SortedMap;
+
+import static com.hypnoticocelot.jaxrs.doclet.apidocs.GeneratedOutput.contentsOf;
+import static com.hypnoticocelot.jaxrs.doclet.apidocs.GeneratedOutput.generate;
+import static com.hypnoticocelot.jaxrs.doclet.apidocs.GeneratedOutput.options;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Generates the documentation of all fixtures in memory and compares it with the files of a run into a directory.
+ */
+public class ServiceGeneratorTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private SortedMap<String, String> expected;
+
+    @Before
+    public void setup() throws IOException {
+        File plain = folder.newFolder("plain");
+        assertTrue(generate("fixtures", plain));
+        expected = contentsOf(plain);
+    }
+
+    @Test
+    public void testListingAndDeclarations() throws IOException {
+        ServiceDocumentation documentation = new ServiceGenerator(options(folder.getRoot()))
+                .generate(RootDocLoader.fromFixtures("fixtures"));
+
+        // the declarations are in the order of the listing, and recorded into a directory give the files of a plain run
+        File output = folder.newFolder("recorded");
+        Recorder recorder = new ObjectMapperRecorder();
+        recorder.record(new File(output, "service.json"), documentation.getListing());
+        Iterator<ApiDeclaration> declarations = documentation.getDeclarations().values().iterator();
+        for (ResourceListingAPI resource : documentation.getListing().getApis()) {
+            String file = resource.getPath().replaceFirst("^/", "").replace("{format}", "json");
+            recorder.record(new File(output, file), declarations.next());
+        }
+        assertFalse(declarations.hasNext());
+        SortedMap<String, String> actual = contentsOf(output);
+        assertThat(actual, equalTo(Maps.filterKeys(expected, Predicates.in(actual.keySet()))));
+        assertThat(actual.size(), equalTo(documentation.getListing().getApis().size() + 1));
+    }
+
+    @Test
+    public void testModels() throws IOException {
+        File catalogOutput = folder.newFolder("catalog");
+        assertTrue(generate("fixtures", catalogOutput, "-modelCatalog"));
+
+        ServiceDocumentation documentation = new ServiceGenerator(options(folder.getRoot()))
+                .generate(RootDocLoader.fromFixtures("fixtures"));
+        assertFalse(documentation.getModels().isEmpty());
+        assertThat(documentation.getModels(),
+                equalTo(new ObjectMapperReader().readDeclaration(new File(catalogOutput, "models.json")).getModels()));
+
+        // with a catalog the models are found all the same
+        ServiceDocumentation withCatalog = new ServiceGenerator(options(folder.getRoot(), "-modelCatalog"))
+                .generate(RootDocLoader.fromFixtures("fixtures"));
+        assertThat(withCatalog.getModels(), equalTo(documentation.getModels()));
+    }
+
+    @Test
+    public void testOptionsUnchanged() throws IOException {
+        File output = folder.newFolder("untouched");
+        DocletOptions options = options(output, "-bundle");
+        Recorder recorder = options.getRecorder();
+        String swaggerUiZipPath = options.getSwaggerUiZipPath();
+
+        new ServiceGenerator(options).generate(RootDocLoader.fromFixtures("fixtures"));
+        assertThat(options.getRecorder(), sameInstance(recorder));
+        assertThat(options.getOutputDirectory(), equalTo(output));
+        assertThat(options.getSwaggerUiZipPath(), equalTo(swaggerUiZipPath));
+        assertTrue(options.isBundle());
+        assertTrue(options.isMergeExistingOutput());
+        // nothing was written
+        assertThat(output.list().length, equalTo(0));
+    }
+
+}
@@ -0,0 +1,63 @@
+package com.hypnoticocelot.jaxrs.doclet.apidocs;
+
+import com.hypnoticocelot.jaxrs.doclet.JavadocLauncher;
+import com.hypnoticocelot.jaxrs.doclet.ServiceLauncher;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SortedMap;
+
+import static com.hypnoticocelot.jaxrs.doclet.apidocs.GeneratedOutput.contentsOf;
+import static com.hypnoticocelot.jaxrs.doclet.apidocs.GeneratedOutput.runJava;
+import static com.hypnoticocelot.jaxrs.doclet.apidocs.GeneratedOutput.testClassPath;
+import static com.hypnoticocelot.jaxrs.doclet.apidocs.RootDocLoader.fixturesPath;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Compares the output of the launcher, which runs javadoc only on the sources the resources depend on, with that of a
+ * javadoc run over all fixture packages.
+ */
+public class ServiceLauncherTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private SortedMap<String, String> expected;
+
+    @Before
+    public void setup() throws IOException {
+        File output = folder.newFolder("javadoc");
+        List<String> args = arguments(output);
+        args.addAll(Arrays.asList("-subpackages", "fixtures"));
+        int result = JavadocLauncher.run(args.toArray(new String[args.size()]));
+        assertThat(result, equalTo(0));
+        expected = contentsOf(output);
+    }
+
+    @Test
+    public void testServiceLauncher() throws Exception {
+        File output = folder.newFolder("launcher");
+        assertThat(runJava(ServiceLauncher.class, launcherArguments(output)), equalTo(0));
+        assertThat(contentsOf(output), equalTo(expected));
+    }
+
+    private static String[] launcherArguments(File output) {
+        List<String> args = arguments(output);
+        args.addAll(Arrays.asList("-subpackages", "fixtures"));
+        return args.toArray(new String[args.size()]);
+    }
+
+    private static List<String> arguments(File output) {
+        return new ArrayList<String>(Arrays.asList("-quiet", "-sourcepath", fixturesPath(),
+                "-classpath", testClassPath(), "-d", output.getPath()));
+    }
+
+}
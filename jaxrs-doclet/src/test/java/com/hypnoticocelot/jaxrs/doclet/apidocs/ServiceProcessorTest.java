@@ -0,0 +1,40 @@
+package com.hypnoticocelot.jaxrs.doclet.apidocs;
+
+import com.hypnoticocelot.jaxrs.doclet.processor.ServiceProcessor;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+
+import static com.hypnoticocelot.jaxrs.doclet.apidocs.GeneratedOutput.compileFixtures;
+import static com.hypnoticocelot.jaxrs.doclet.apidocs.GeneratedOutput.contentsOf;
+import static com.hypnoticocelot.jaxrs.doclet.apidocs.GeneratedOutput.generate;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Documents all fixtures while compiling them with the annotation processor, and compares the output with that of the
+ * doclet.
+ */
+public class ServiceProcessorTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testServiceProcessor() throws IOException {
+        File commentIndex = new File(folder.getRoot(), "comments.json");
+        File doclet = folder.newFolder("doclet");
+        assertTrue(generate("fixtures", doclet, "-commentIndex", commentIndex.getPath()));
+
+        File output = folder.newFolder("processor");
+        String options = "-d " + output.getPath() + " -commentIndex " + commentIndex.getPath();
+        assertTrue("fixtures compiled", compileFixtures("-processor", ServiceProcessor.class.getName(),
+                "-A" + ServiceProcessor.OPTIONS + "=" + options, "-d", folder.newFolder("processed").getPath()));
+        assertThat(contentsOf(output), equalTo(contentsOf(doclet)));
+    }
+
+}
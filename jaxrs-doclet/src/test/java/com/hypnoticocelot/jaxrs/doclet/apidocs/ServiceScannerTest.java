@@ -0,0 +1,86 @@
+package com.hypnoticocelot.jaxrs.doclet.apidocs;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.collect.Lists;
+import com.hypnoticocelot.jaxrs.doclet.processor.ServiceScanner;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import static com.hypnoticocelot.jaxrs.doclet.apidocs.GeneratedOutput.compileFixtures;
+import static com.hypnoticocelot.jaxrs.doclet.apidocs.GeneratedOutput.contentsOf;
+import static com.hypnoticocelot.jaxrs.doclet.apidocs.GeneratedOutput.generate;
+import static com.hypnoticocelot.jaxrs.doclet.apidocs.GeneratedOutput.options;
+import static com.hypnoticocelot.jaxrs.doclet.apidocs.GeneratedOutput.testClassPath;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Documents the compiled fixtures with the scanner, and compares the output with that of the doclet.
+ */
+public class ServiceScannerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File commentIndex;
+    private SortedMap<String, String> expected;
+
+    @Before
+    public void setup() throws IOException {
+        commentIndex = new File(folder.getRoot(), "comments.json");
+        File output = folder.newFolder("doclet");
+        assertTrue(generate("fixtures", output, "-commentIndex", commentIndex.getPath()));
+        expected = contentsOf(output);
+    }
+
+    @Test
+    public void testServiceScanner() throws IOException {
+        File classes = folder.newFolder("classes");
+        assertTrue("fixtures compiled", compileFixtures("-g", "-d", classes.getPath()));
+
+        File output = folder.newFolder("scanner");
+        List<File> classPath = new ArrayList<File>();
+        for (String entry : testClassPath().split(File.pathSeparator)) {
+            classPath.add(new File(entry));
+        }
+        ServiceScanner scanner = new ServiceScanner(options(output, "-commentIndex", commentIndex.getPath()));
+        assertTrue(scanner.scan(Arrays.asList(classes), classPath));
+        // class files carry no source order, so the scanner lists the classes by name
+        assertThat(withSortedListing(contentsOf(output)), equalTo(withSortedListing(expected)));
+    }
+
+    /**
+     * @return the files with the entries of the resource listing sorted by their paths.
+     */
+    private static SortedMap<String, String> withSortedListing(SortedMap<String, String> files) throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        ObjectNode listing = (ObjectNode) mapper.readTree(files.get("service.json"));
+        List<JsonNode> apis = Lists.newArrayList(listing.get("apis"));
+        Collections.sort(apis, new Comparator<JsonNode>() {
+            @Override
+            public int compare(JsonNode o1, JsonNode o2) {
+                return o1.get("path").asText().compareTo(o2.get("path").asText());
+            }
+        });
+        listing.putArray("apis").addAll(apis);
+        SortedMap<String, String> sorted = new TreeMap<String, String>(files);
+        sorted.put("service.json", mapper.writeValueAsString(listing));
+        return sorted;
+    }
+
+}
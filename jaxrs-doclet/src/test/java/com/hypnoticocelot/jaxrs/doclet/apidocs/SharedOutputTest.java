@@ -0,0 +1,136 @@
+package com.hypnoticocelot.jaxrs.doclet.apidocs;
+
+import com.hypnoticocelot.jaxrs.doclet.ObjectMapperReader;
+import com.hypnoticocelot.jaxrs.doclet.doc.RootDoc;
+import com.hypnoticocelot.jaxrs.doclet.model.ResourceListingAPI;
+import com.hypnoticocelot.jaxrs.doclet.parser.JaxRsAnnotationParser;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.hypnoticocelot.jaxrs.doclet.apidocs.GeneratedOutput.generate;
+import static com.hypnoticocelot.jaxrs.doclet.apidocs.GeneratedOutput.options;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Documents several fixture packages into the same output directory at once, as modules built in parallel do, while
+ * the listing is read all along.
+ */
+public class SharedOutputTest {
+
+    private static final List<String> SUBPACKAGES = Arrays.asList(
+            "fixtures.sample", "fixtures.jaxb", "fixtures.collision", "fixtures.primitives", "fixtures.jackson");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testConcurrentRuns() throws Exception {
+        Set<String> expected = new TreeSet<String>();
+        List<RootDoc> rootDocs = new ArrayList<RootDoc>();
+        for (String subpackage : SUBPACKAGES) {
+            File alone = folder.newFolder(subpackage);
+            assertTrue(generate(subpackage, alone));
+            expected.addAll(pathsOf(new File(alone, "service.json")));
+            rootDocs.add(RootDocLoader.fromFixtures(subpackage));
+        }
+
+        final File output = folder.newFolder("shared");
+        final File listing = new File(output, "service.json");
+        final AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(SUBPACKAGES.size() + 1);
+        try {
+            // the listing is either missing or complete, never partially written
+            Future<Integer> reader = executor.submit(new Callable<Integer>() {
+                @Override
+                public Integer call() throws IOException {
+                    int reads = 0;
+                    while (running.get()) {
+                        if (listing.isFile()) {
+                            new ObjectMapperReader().read(listing);
+                            reads++;
+                        }
+                    }
+                    return reads;
+                }
+            });
+            List<Future<Boolean>> runs = new ArrayList<Future<Boolean>>();
+            for (final RootDoc rootDoc : rootDocs) {
+                runs.add(executor.submit(new Callable<Boolean>() {
+                    @Override
+                    public Boolean call() {
+                        return new JaxRsAnnotationParser(options(output).setSwaggerUiZipPath(null), rootDoc).run();
+                    }
+                }));
+            }
+            for (Future<Boolean> run : runs) {
+                assertTrue(run.get());
+            }
+            running.set(false);
+            assertTrue(reader.get() > 0);
+        } finally {
+            running.set(false);
+            executor.shutdown();
+        }
+
+        assertThat(pathsOf(listing), equalTo(expected));
+        assertNoListingState(output);
+    }
+
+    @Test
+    public void testUnchangedListingKept() throws IOException {
+        File output = folder.newFolder("output");
+        assertTrue(generate("fixtures.sample", output, "-gzipJson"));
+        File listing = new File(output, "service.json");
+        File compressed = new File(output, "service.json.gz");
+        assertTrue(listing.setLastModified(1000000000000L));
+        assertTrue(compressed.setLastModified(1000000000000L));
+
+        assertTrue(generate("fixtures.sample", output, "-gzipJson"));
+        assertThat(listing.lastModified(), equalTo(1000000000000L));
+        assertThat(compressed.lastModified(), equalTo(1000000000000L));
+        assertNoListingState(output);
+
+        // a new resource replaces both
+        assertTrue(generate("fixtures.jaxb", output, "-gzipJson"));
+        assertTrue(listing.lastModified() > 1000000000000L);
+        assertTrue(compressed.lastModified() > 1000000000000L);
+        assertTrue(pathsOf(listing).contains("/jaxb.{format}"));
+        assertNoListingState(output);
+    }
+
+    /**
+     * Checks that neither the lock nor a temporary listing is left in the output directory, the lock is next to it.
+     */
+    private static void assertNoListingState(File output) {
+        for (String file : output.list()) {
+            assertFalse(file, file.startsWith(".service.json"));
+        }
+        assertTrue(new File(output.getParentFile(), "." + output.getName() + ".service.json.lock").isFile());
+    }
+
+    private static Set<String> pathsOf(File listing) throws IOException {
+        Set<String> paths = new TreeSet<String>();
+        for (ResourceListingAPI resource : new ObjectMapperReader().read(listing).getApis()) {
+            paths.add(resource.getPath());
+        }
+        return paths;
+    }
+
+}
@@ -0,0 +1,34 @@
+package com.hypnoticocelot.jaxrs.doclet.apidocs;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+
+import static com.hypnoticocelot.jaxrs.doclet.apidocs.GeneratedOutput.contentsOf;
+import static com.hypnoticocelot.jaxrs.doclet.apidocs.GeneratedOutput.generate;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Documents all fixtures with {@code -streamingJson} and compares the output with that of the databind recorder.
+ */
+public class StreamingJsonTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testSameOutput() throws IOException {
+        File plain = folder.newFolder("plain");
+        assertTrue(generate("fixtures", plain));
+
+        File streaming = folder.newFolder("streaming");
+        assertTrue(generate("fixtures", streaming, "-streamingJson"));
+        assertThat(contentsOf(streaming), equalTo(contentsOf(plain)));
+    }
+
+}
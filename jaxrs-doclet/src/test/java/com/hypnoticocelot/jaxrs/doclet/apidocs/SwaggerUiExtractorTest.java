@@ -0,0 +1,174 @@
+package com.hypnoticocelot.jaxrs.doclet.apidocs;
+
+import com.google.common.io.Files;
+import com.hypnoticocelot.jaxrs.doclet.DocletOptions;
+import com.hypnoticocelot.jaxrs.doclet.parser.JaxRsAnnotationParser;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.google.common.base.Charsets.UTF_8;
+import static com.hypnoticocelot.jaxrs.doclet.apidocs.GeneratedOutput.contentsOf;
+import static com.hypnoticocelot.jaxrs.doclet.apidocs.GeneratedOutput.options;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Extracts the default swagger-ui into output directories, with and without a cache directory, through runs that
+ * document no resources.
+ */
+public class SwaggerUiExtractorTest {
+
+    private static final String STAMP = ".swagger-ui.sha1";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private SortedMap<String, String> expected;
+    private String checksum;
+
+    @Before
+    public void setup() throws IOException {
+        File plain = folder.newFolder("plain");
+        assertTrue(extract(options(plain)));
+        expected = swaggerUiIn(plain);
+        checksum = Files.readFirstLine(new File(plain, STAMP), UTF_8);
+    }
+
+    @Test
+    public void testSkippedWhileStamped() throws IOException {
+        File output = folder.newFolder("output");
+        assertTrue(extract(options(output)));
+        File index = new File(output, "index.html");
+        Files.write("changed", index, UTF_8);
+
+        // nothing is extracted while the stamp matches, so the changed file stays
+        assertTrue(extract(options(output)));
+        assertThat(Files.toString(index, UTF_8), equalTo("changed"));
+    }
+
+    @Test
+    public void testExtractedAgainIfFileMissing() throws IOException {
+        File output = folder.newFolder("output");
+        assertTrue(extract(options(output)));
+        File index = new File(output, "index.html");
+        Files.write("changed", index, UTF_8);
+        assertTrue(new File(output, "swagger-ui.js").delete());
+
+        assertTrue(extract(options(output)));
+        assertThat(swaggerUiIn(output), equalTo(expected));
+    }
+
+    @Test
+    public void testExtractedAgainIfStampDiffers() throws IOException {
+        File output = folder.newFolder("output");
+        assertTrue(extract(options(output)));
+        Files.write("changed", new File(output, "index.html"), UTF_8);
+        Files.write("0000\n", new File(output, STAMP), UTF_8);
+
+        assertTrue(extract(options(output)));
+        assertThat(swaggerUiIn(output), equalTo(expected));
+        assertThat(Files.readFirstLine(new File(output, STAMP), UTF_8), equalTo(checksum));
+    }
+
+    @Test
+    public void testCacheDirectory() throws IOException {
+        File cache = folder.newFolder("cache");
+        File first = folder.newFolder("first");
+        assertTrue(extract(options(first, "-swaggerUiCacheDir", cache.getPath())));
+        assertThat(swaggerUiIn(first), equalTo(expected));
+        assertThat(Arrays.asList(cache.list()), equalTo(Collections.singletonList(checksum)));
+
+        // the next output is copied from the cache, as it is
+        File cached = new File(cache, checksum);
+        Files.write("cached", new File(cached, "index.html"), UTF_8);
+        File second = folder.newFolder("second");
+        assertTrue(extract(options(second, "-swaggerUiCacheDir", cache.getPath())));
+        assertThat(Files.toString(new File(second, "index.html"), UTF_8), equalTo("cached"));
+        assertThat(Files.readFirstLine(new File(second, STAMP), UTF_8), equalTo(checksum));
+    }
+
+    @Test
+    public void testCachedCopyMissingFile() throws IOException {
+        File cache = folder.newFolder("cache");
+        assertTrue(extract(options(folder.newFolder("first"), "-swaggerUiCacheDir", cache.getPath())));
+        File cached = new File(cache, checksum);
+        assertTrue(new File(cached, "swagger-ui.js").delete());
+
+        // the cached copy is replaced, the rename that would have found it in the way is retried
+        File second = folder.newFolder("second");
+        assertTrue(extract(options(second, "-swaggerUiCacheDir", cache.getPath())));
+        assertThat(swaggerUiIn(second), equalTo(expected));
+        assertThat(swaggerUiIn(cached), equalTo(expected));
+        assertThat(Arrays.asList(cache.list()), equalTo(Collections.singletonList(checksum)));
+    }
+
+    @Test
+    public void testConcurrentCaching() throws Exception {
+        final File cache = folder.newFolder("cache");
+        final int runs = 8;
+        final CountDownLatch start = new CountDownLatch(1);
+        List<File> outputs = new ArrayList<File>();
+        List<Future<Boolean>> extracted = new ArrayList<Future<Boolean>>();
+        ExecutorService executor = Executors.newFixedThreadPool(runs);
+        try {
+            for (int i = 0; i < runs; i++) {
+                final File output = folder.newFolder("output" + i);
+                outputs.add(output);
+                extracted.add(executor.submit(new Callable<Boolean>() {
+                    @Override
+                    public Boolean call() throws InterruptedException {
+                        start.await();
+                        return extract(options(output, "-swaggerUiCacheDir", cache.getPath()));
+                    }
+                }));
+            }
+            // all runs find the cache empty and race to rename their extraction into place
+            start.countDown();
+            for (Future<Boolean> run : extracted) {
+                assertTrue(run.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        for (File output : outputs) {
+            assertThat(output.getName(), swaggerUiIn(output), equalTo(expected));
+        }
+        // the losers cleaned up their private directories
+        assertThat(Arrays.asList(cache.list()), equalTo(Collections.singletonList(checksum)));
+        assertThat(swaggerUiIn(new File(cache, checksum)), equalTo(expected));
+    }
+
+    /**
+     * @return the content of the files below the directory, without the listing.
+     */
+    private static SortedMap<String, String> swaggerUiIn(File directory) throws IOException {
+        SortedMap<String, String> files = contentsOf(directory);
+        files.remove("service.json");
+        return files;
+    }
+
+    /**
+     * Merges no partial outputs, which writes an empty listing and extracts swagger-ui.
+     */
+    private static boolean extract(DocletOptions options) {
+        return new JaxRsAnnotationParser(options, null).merge(Collections.<File>emptyList());
+    }
+
+}
@@ -0,0 +1,107 @@
+package com.hypnoticocelot.jaxrs.doclet.apidocs;
+
+import com.google.common.io.Files;
+import com.hypnoticocelot.jaxrs.doclet.DocletOptions;
+import com.hypnoticocelot.jaxrs.doclet.parser.JaxRsAnnotationParser;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.SortedMap;
+
+import static com.google.common.base.Charsets.UTF_8;
+import static com.hypnoticocelot.jaxrs.doclet.apidocs.GeneratedOutput.contentsOf;
+import static com.hypnoticocelot.jaxrs.doclet.apidocs.GeneratedOutput.generate;
+import static com.hypnoticocelot.jaxrs.doclet.apidocs.GeneratedOutput.options;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Publishes the documentation of all fixtures with {@code -transactional} and checks the generations it leaves.
+ */
+public class TransactionalTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private SortedMap<String, String> expected;
+    private File output;
+
+    @Before
+    public void setup() throws IOException {
+        File plain = folder.newFolder("plain");
+        assertTrue(generate("fixtures", plain));
+        expected = contentsOf(plain);
+        output = new File(folder.getRoot(), "transactional");
+    }
+
+    @Test
+    public void testFirstGeneration() throws IOException {
+        // an output directory that does not exist yet
+        assertTrue(publish());
+        assertTrue(java.nio.file.Files.isSymbolicLink(output.toPath()));
+        assertThat(contentsOf(output), equalTo(expected));
+        assertFalse(new File(folder.getRoot(), "transactional.previous").exists());
+        assertThat(generations().length, equalTo(1));
+        assertFalse("staging left behind", new File(folder.getRoot(), ".transactional.staging").exists());
+    }
+
+    @Test
+    public void testPreviousGenerationKept() throws IOException {
+        assertTrue(publish());
+        assertTrue(publish());
+        assertThat(contentsOf(output), equalTo(expected));
+        assertThat(contentsOf(new File(folder.getRoot(), "transactional.previous")), equalTo(expected));
+        assertThat(generations().length, equalTo(2));
+
+        // the generation before the previous one is deleted
+        String[] generations = generations();
+        assertTrue(publish());
+        assertThat(contentsOf(output), equalTo(expected));
+        assertThat(generations().length, equalTo(2));
+        assertFalse(Arrays.asList(generations()).contains(generations[0]));
+        assertFalse("staging left behind", new File(folder.getRoot(), ".transactional.staging").exists());
+    }
+
+    @Test
+    public void testDirectoryNotReplaced() throws IOException {
+        assertTrue(output.mkdir());
+        File existing = new File(output, "existing.txt");
+        Files.write("existing", existing, UTF_8);
+
+        assertFalse(publish());
+        assertFalse(java.nio.file.Files.isSymbolicLink(output.toPath()));
+        assertThat(Arrays.asList(output.list()), equalTo(Collections.singletonList("existing.txt")));
+        assertThat(Files.toString(existing, UTF_8), equalTo("existing"));
+        assertThat(generations().length, equalTo(0));
+        assertFalse("staging left behind", new File(folder.getRoot(), ".transactional.staging").exists());
+    }
+
+    private boolean publish() throws IOException {
+        DocletOptions options = options(folder.getRoot(), "-transactional").setOutputDirectory(output);
+        return new JaxRsAnnotationParser(options, RootDocLoader.fromFixtures("fixtures")).run();
+    }
+
+    /**
+     * @return the names of the generation directories next to the output directory, oldest first.
+     */
+    private String[] generations() {
+        String[] generations = folder.getRoot().list(new FilenameFilter() {
+            @Override
+            public boolean accept(File directory, String name) {
+                return name.matches("\\.transactional\\.\\d+");
+            }
+        });
+        Arrays.sort(generations);
+        return generations;
+    }
+
+}
@@ -0,0 +1,45 @@
+package com.hypnoticocelot.jaxrs.doclet.apidocs;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.SortedMap;
+
+import static com.hypnoticocelot.jaxrs.doclet.apidocs.GeneratedOutput.contentsOf;
+import static com.hypnoticocelot.jaxrs.doclet.apidocs.GeneratedOutput.generate;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Documents all fixtures with {@code -writeIfChanged} twice, and checks that the second run leaves the files alone.
+ */
+public class WriteIfChangedTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testUnchangedFilesKept() throws IOException {
+        File plain = folder.newFolder("plain");
+        assertTrue(generate("fixtures", plain));
+        SortedMap<String, String> expected = contentsOf(plain);
+
+        File output = folder.newFolder("changed");
+        assertTrue(generate("fixtures", output, "-writeIfChanged"));
+        assertThat(contentsOf(output), equalTo(expected));
+
+        File listing = new File(output, "service.json");
+        File declaration = new File(output, "jaxb.json");
+        assertTrue(listing.setLastModified(1000000000000L));
+        assertTrue(declaration.setLastModified(1000000000000L));
+        assertTrue(generate("fixtures", output, "-writeIfChanged"));
+        assertThat(contentsOf(output), equalTo(expected));
+        assertThat(listing.lastModified(), equalTo(1000000000000L));
+        assertThat(declaration.lastModified(), equalTo(1000000000000L));
+    }
+
+}
@@ -0,0 +1,14 @@
+package fixtures.collision;
+
+import fixtures.widgets.Crate;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+
+@Path("/alpha")
+public class AlphaResource {
+    @GET
+    public Crate get() {
+        return new Crate();
+    }
+}
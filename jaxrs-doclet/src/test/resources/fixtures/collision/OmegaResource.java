@@ -0,0 +1,14 @@
+package fixtures.collision;
+
+import fixtures.widgets.z.Widget;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+
+@Path("/omega")
+public class OmegaResource {
+    @GET
+    public Widget get() {
+        return new Widget();
+    }
+}
@@ -0,0 +1,37 @@
+package fixtures.comments;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.QueryParam;
+
+/**
+ * Pins the {@code notes} of a <b>board</b>. The board keeps them in the
+ * order they were pinned.
+ */
+@Path("/comments")
+public class CommentedResource {
+
+    /**
+     * Finds a note, e.g. the latest one.<p>
+     * Notes that were taken down are not found.
+     *
+     * @param id the {@code id} of
+     *        the note
+     * @param format
+     * @return the note
+     * @errorResponse 404 not pinned
+     */
+    @GET
+    @Path("/{id}")
+    public Note get(@PathParam("id") String id, @QueryParam("format") String format) {
+        return new Note();
+    }
+
+    /** Lists the notes in {@link java.util.List list} order */
+    @GET
+    public Note[] list() {
+        return new Note[0];
+    }
+
+}
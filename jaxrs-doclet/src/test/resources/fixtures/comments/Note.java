@@ -0,0 +1,25 @@
+package fixtures.comments;
+
+/**
+ * A note pinned to a board.
+ */
+public class Note {
+
+    private String text;
+    private long pinned;
+
+    /**
+     * The text of the note. Plain text only.
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * @return when the note was pinned, as {@code millis}
+     */
+    public long getPinned() {
+        return pinned;
+    }
+
+}
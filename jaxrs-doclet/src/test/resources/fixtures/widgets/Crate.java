@@ -0,0 +1,14 @@
+package fixtures.widgets;
+
+import fixtures.widgets.a.Widget;
+
+import javax.xml.bind.annotation.XmlRootElement;
+
+@XmlRootElement(name = "crate")
+public class Crate {
+
+    public Widget getWidget() {
+        return null;
+    }
+
+}
@@ -0,0 +1,12 @@
+package fixtures.widgets.a;
+
+import javax.xml.bind.annotation.XmlRootElement;
+
+@XmlRootElement(name = "widget")
+public class Widget {
+
+    public String getName() {
+        return "";
+    }
+
+}